@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.beans;
+
+import java.beans.IndexedPropertyChangeEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Objects;
+
+import com.code.fauch.polyjuice.ChangeEvent;
+import com.code.fauch.polyjuice.ChangeListener;
+
+/**
+ * Change listener notifying a {@link PropertyChangeListener}.
+ * <p>
+ * Each event is converted into a {@link PropertyChangeEvent}, or into an {@link IndexedPropertyChangeEvent}
+ * if it concerns an element of a list. Two bridges of the same property change listener are equal, so that
+ * a new bridge can be used to unregister the one registered before.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class PropertyChangeBridge implements ChangeListener {
+
+    /**
+     * The notified listener.
+     */
+    private final PropertyChangeListener listener;
+
+    /**
+     * Constructor.
+     *
+     * @param listener the notified listener (not null)
+     */
+    public PropertyChangeBridge(final PropertyChangeListener listener) {
+        this.listener = Objects.requireNonNull(listener, "listener is missing");
+    }
+
+    /**
+     * Returns the notified listener.
+     *
+     * @return the listener
+     */
+    public PropertyChangeListener getListener() {
+        return this.listener;
+    }
+
+    /**
+     * Notify the listener of the converted event.
+     */
+    @Override
+    public void onChange(final ChangeEvent event) {
+        this.listener.propertyChange(toPropertyChangeEvent(event));
+    }
+
+    /**
+     * Convert a change event into a property change event.
+     *
+     * @param event the event to convert (not null)
+     * @return the property change event, indexed if the event concerns an element of a list
+     */
+    public static PropertyChangeEvent toPropertyChangeEvent(final ChangeEvent event) {
+        if (event.isIndexed()) {
+            return new IndexedPropertyChangeEvent(event.getSource(), event.getPropertyName(),
+                    event.getOldValue(), event.getNewValue(), event.getIndex());
+        }
+        return new PropertyChangeEvent(event.getSource(), event.getPropertyName(), event.getOldValue(),
+                event.getNewValue());
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this.listener);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        return this.listener == ((PropertyChangeBridge) obj).listener;
+    }
+
+}
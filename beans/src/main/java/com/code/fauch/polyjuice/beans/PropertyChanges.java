@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.beans;
+
+import java.beans.PropertyChangeListener;
+
+import com.code.fauch.polyjuice.IContent;
+
+/**
+ * Utility class used to listen to the changes of a content with a {@link PropertyChangeListener},
+ * as with the versions of polyjuice depending on <code>java.desktop</code>.
+ * 
+ * @author c.fauch
+ *
+ */
+public final class PropertyChanges {
+
+    /**
+     * No constructor
+     */
+    private PropertyChanges() {
+        // Nothing to do
+    }
+
+    /**
+     * Register a property change listener to listen all changes on a content.
+     * Nothing changes if the listener is already registered.
+     * 
+     * @param content the listened content (not null)
+     * @param listener the listener to register (not null)
+     * @return the registered listener
+     */
+    public static PropertyChangeListener addPropertyChangeListener(final IContent content,
+            final PropertyChangeListener listener) {
+        content.addChangeListener(new PropertyChangeBridge(listener));
+        return listener;
+    }
+
+    /**
+     * Unregister a property change listener.
+     * 
+     * @param content the listened content (not null)
+     * @param listener the listener to unregister (not null)
+     */
+    public static void removePropertyChangeListener(final IContent content, final PropertyChangeListener listener) {
+        content.removeChangeListener(new PropertyChangeBridge(listener));
+    }
+
+}
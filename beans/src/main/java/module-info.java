@@ -0,0 +1,5 @@
+module com.code.fauch.polyjuice.beans {
+    requires transitive com.code.fauch.polyjuice;
+    requires transitive java.desktop;
+    exports com.code.fauch.polyjuice.beans;
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.beans;
+
+import java.beans.IndexedPropertyChangeEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.code.fauch.polyjuice.DynamicArray;
+import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.StdType;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class PropertyChangesTest {
+
+    @Test
+    public void testParameter() {
+        final List<PropertyChangeEvent> events = new ArrayList<>();
+        final Parameter<Integer> param = Parameter.newParameter("label", StdType.INT, 1, false);
+        final PropertyChangeListener listener = events::add;
+        Assert.assertSame(listener, PropertyChanges.addPropertyChangeListener(param, listener));
+        PropertyChanges.addPropertyChangeListener(param, listener);
+        param.setValue(2);
+        PropertyChanges.removePropertyChangeListener(param, listener);
+        param.setValue(3);
+        Assert.assertEquals(1, events.size());
+        Assert.assertFalse(events.get(0) instanceof IndexedPropertyChangeEvent);
+        Assert.assertSame(param, events.get(0).getSource());
+        Assert.assertEquals(Parameter.VALUE, events.get(0).getPropertyName());
+        Assert.assertEquals(1, events.get(0).getOldValue());
+        Assert.assertEquals(2, events.get(0).getNewValue());
+    }
+
+    @Test
+    public void testDynamicArray() {
+        final List<PropertyChangeEvent> events = new ArrayList<>();
+        final DynamicArray<Parameter<Integer>> array = new DynamicArray<>();
+        PropertyChanges.addPropertyChangeListener(array, events::add);
+        final Parameter<Integer> param = Parameter.newParameter("label", StdType.INT, 1, false);
+        array.add(param);
+        param.setValue(2);
+        array.remove(0);
+        Assert.assertEquals(3, events.size());
+        final IndexedPropertyChangeEvent added = (IndexedPropertyChangeEvent) events.get(0);
+        Assert.assertEquals(DynamicArray.NEW, added.getPropertyName());
+        Assert.assertEquals(0, added.getIndex());
+        Assert.assertSame(param, added.getNewValue());
+        Assert.assertSame(param, events.get(1).getSource());
+        Assert.assertEquals(Parameter.VALUE, events.get(1).getPropertyName());
+        Assert.assertEquals(DynamicArray.REMOVE, events.get(2).getPropertyName());
+        Assert.assertTrue(events.get(2) instanceof IndexedPropertyChangeEvent);
+    }
+
+    @Test
+    public void testBridgeEquality() {
+        final PropertyChangeListener listener = e -> {};
+        Assert.assertEquals(new PropertyChangeBridge(listener), new PropertyChangeBridge(listener));
+        Assert.assertEquals(new PropertyChangeBridge(listener).hashCode(), new PropertyChangeBridge(listener).hashCode());
+        Assert.assertNotEquals(new PropertyChangeBridge(listener), new PropertyChangeBridge(e -> {}));
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks.
+ * It accepts the same arguments as the JMH runner but always adds the gc profiler so that
+ * the allocation rate per operation is reported next to the throughput.
+ * 
+ * @author c.fauch
+ *
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * No constructor
+     */
+    private BenchmarkRunner() {
+        // Nothing to do
+    }
+    
+    /**
+     * Run the benchmarks.
+     * 
+     * @param args the JMH command line arguments
+     * @throws Exception if the benchmarks fail
+     */
+    public static void main(final String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+    
+}
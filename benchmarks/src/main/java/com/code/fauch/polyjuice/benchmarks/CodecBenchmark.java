@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.code.fauch.polyjuice.FrameView;
+
+/**
+ * Throughput of the encoding and decoding of a record by the generic contents and by its generated codec.
+ * 
+ * @author c.fauch
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    private Record record;
+    
+    private ByteBuffer buffer;
+    
+    private FrameView view;
+    
+    @Setup
+    public void setup() {
+        this.record = Record.newRecord(42);
+        this.buffer = ByteBuffer.allocate(RecordCodec.SIZE);
+        this.record.writeTo(this.buffer);
+        this.view = FrameView.of(this.record).wrap(this.buffer, 0);
+    }
+    
+    @Benchmark
+    public ByteBuffer writeTo() {
+        this.record.writeTo(this.buffer.clear());
+        return this.buffer;
+    }
+    
+    @Benchmark
+    public ByteBuffer codecWriteTo() {
+        RecordCodec.writeTo(this.record, this.buffer.clear());
+        return this.buffer;
+    }
+    
+    @Benchmark
+    public Record readFrom() {
+        this.record.readFrom(this.buffer.clear());
+        return this.record;
+    }
+    
+    @Benchmark
+    public Record codecReadFrom() {
+        RecordCodec.readFrom(this.record, this.buffer.clear());
+        return this.record;
+    }
+    
+    @Benchmark
+    public int viewGetInt() {
+        return this.view.getInt("counter");
+    }
+    
+    @Benchmark
+    public int codecGetInt() {
+        return RecordCodec.getCounter(this.buffer, 0);
+    }
+    
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.code.fauch.polyjuice.IntColumn;
+import com.code.fauch.polyjuice.StdType;
+
+/**
+ * Average time of the encoding and decoding of a column of ints according to its number of items,
+ * to compare with {@link DynamicArrayBenchmark}.
+ * 
+ * @author c.fauch
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int items;
+    
+    private IntColumn column;
+    
+    private ByteBuffer buffer;
+    
+    @Setup
+    public void setup() {
+        this.column = new IntColumn(StdType.INT);
+        for (int i = 0; i < this.items; i++) {
+            this.column.add(i);
+        }
+        this.buffer = ByteBuffer.allocate(this.column.encodedSize());
+        this.column.writeTo(this.buffer);
+    }
+    
+    @Benchmark
+    public byte[] getBytes() {
+        return this.column.getBytes();
+    }
+    
+    @Benchmark
+    public ByteBuffer writeTo() {
+        this.column.writeTo(this.buffer.clear());
+        return this.buffer;
+    }
+    
+    @Benchmark
+    public IntColumn readFrom() {
+        this.column.readFrom(this.buffer.clear());
+        return this.column;
+    }
+    
+}
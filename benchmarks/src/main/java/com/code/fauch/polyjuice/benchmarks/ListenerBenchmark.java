@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.code.fauch.polyjuice.DynamicArray;
+import com.code.fauch.polyjuice.IntParameter;
+import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.StdType;
+
+/**
+ * Throughput of the change of the value of a parameter according to its number of listeners.
+ * 
+ * @author c.fauch
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+
+    @Param({"0", "1", "8"})
+    private int listeners;
+    
+    private Parameter<Integer> parameter;
+    
+    private IntParameter intParameter;
+    
+    private Parameter<Integer> typedParameter;
+    
+    private int value;
+    
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        this.parameter = Parameter.newParameter("counter", StdType.INT, 0, false);
+        this.intParameter = IntParameter.newParameter("counter", StdType.INT, 0, false);
+        this.typedParameter = Parameter.newParameter("counter", StdType.INT, 0, false);
+        for (int i = 0; i < this.listeners; i++) {
+            this.parameter.addChangeListener(blackhole::consume);
+            this.intParameter.addChangeListener(blackhole::consume);
+            this.typedParameter.addValueListener((p, o, n) -> blackhole.consume(n));
+        }
+    }
+    
+    @Benchmark
+    public void setValue() {
+        this.parameter.setValue(this.value++);
+    }
+    
+    @Benchmark
+    public void setInt() {
+        this.intParameter.setInt(this.value++);
+    }
+    
+    @Benchmark
+    public void setValueTyped() {
+        this.typedParameter.setValue(this.value++);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DynamicArray<Parameter<Integer>> fillListenedArray(final Blackhole blackhole) {
+        final DynamicArray<Parameter<Integer>> array = new DynamicArray<>();
+        for (int i = 0; i < this.listeners; i++) {
+            array.addChangeListener(blackhole::consume);
+        }
+        for (int i = 0; i < 1000; i++) {
+            array.add(Parameter.newParameter("item", StdType.INT, i, false));
+        }
+        return array;
+    }
+    
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.code.fauch.polyjuice.mapping.IInstantiator;
+import com.code.fauch.polyjuice.mapping.ObjectFactory;
+
+/**
+ * Throughput of the loading of a YAML template and of the building of contents from it,
+ * walking the factories or with a compiled instantiator.
+ * 
+ * @author c.fauch
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private String template;
+    
+    private ObjectFactory factory;
+    
+    private IInstantiator<CompositeContent> instantiator;
+    
+    @Setup
+    public void setup() throws Exception {
+        this.template = Templates.read(Templates.COMPOSITE);
+        this.factory = Templates.load(this.template);
+        this.instantiator = this.factory.compile(CompositeContent.class);
+    }
+    
+    @Benchmark
+    public ObjectFactory load() {
+        return Templates.load(this.template);
+    }
+    
+    @Benchmark
+    public CompositeContent build() throws Exception {
+        return this.factory.build(CompositeContent.class);
+    }
+    
+    @Benchmark
+    public CompositeContent compiled() throws Exception {
+        return this.instantiator.newInstance();
+    }
+    
+    @Benchmark
+    public CompositeContent loadAndBuild() throws Exception {
+        return Templates.load(this.template).build(CompositeContent.class);
+    }
+    
+}
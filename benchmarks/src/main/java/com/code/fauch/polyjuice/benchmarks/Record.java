@@ -0,0 +1,122 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.benchmarks;
+
+import java.util.Arrays;
+
+import com.code.fauch.polyjuice.AbsContent;
+import com.code.fauch.polyjuice.DoubleParameter;
+import com.code.fauch.polyjuice.IntParameter;
+import com.code.fauch.polyjuice.LongParameter;
+import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.StdType;
+import com.code.fauch.polyjuice.mapping.Encoded;
+import com.code.fauch.polyjuice.mapping.Template;
+
+/**
+ * Fixed-size record whose codec is generated by the annotation processor.
+ * 
+ * @author c.fauch
+ *
+ */
+@Template
+public class Record extends AbsContent {
+
+    @Encoded(type = "SHORT")
+    private Parameter<Short> kind;
+    
+    @Encoded(type = "INT")
+    private IntParameter counter;
+    
+    @Encoded(type = "LONG")
+    private LongParameter timestamp;
+    
+    @Encoded(type = "DOUBLE")
+    private DoubleParameter value;
+    
+    @Encoded(type = "INT")
+    private IntParameter status;
+    
+    @Encoded(type = "LONG")
+    private LongParameter checksum;
+    
+    /**
+     * Creates a new record with all its parameters.
+     * 
+     * @param counter the value of the counter
+     * @return the new record
+     */
+    public static Record newRecord(final int counter) {
+        final Record record = new Record();
+        record.kind = Parameter.newParameter("kind", StdType.SHORT, (short) 1, false);
+        record.counter = IntParameter.newParameter("counter", StdType.INT, counter, false);
+        record.timestamp = LongParameter.newParameter("timestamp", StdType.LONG, 1600000000000L, false);
+        record.value = DoubleParameter.newParameter("value", StdType.DOUBLE, 3.5, false);
+        record.status = IntParameter.newParameter("status", StdType.INT, 0, false);
+        record.checksum = LongParameter.newParameter("checksum", StdType.LONG, -1L, false);
+        record.addOrderedContents(Arrays.asList(record.kind, record.counter, record.timestamp, record.value,
+                record.status, record.checksum));
+        return record;
+    }
+
+    public Parameter<Short> getKind() {
+        return kind;
+    }
+
+    public void setKind(Parameter<Short> kind) {
+        this.kind = kind;
+    }
+
+    public IntParameter getCounter() {
+        return counter;
+    }
+
+    public void setCounter(IntParameter counter) {
+        this.counter = counter;
+    }
+
+    public LongParameter getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LongParameter timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public DoubleParameter getValue() {
+        return value;
+    }
+
+    public void setValue(DoubleParameter value) {
+        this.value = value;
+    }
+
+    public IntParameter getStatus() {
+        return status;
+    }
+
+    public void setStatus(IntParameter status) {
+        this.status = status;
+    }
+
+    public LongParameter getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(LongParameter checksum) {
+        this.checksum = checksum;
+    }
+    
+}
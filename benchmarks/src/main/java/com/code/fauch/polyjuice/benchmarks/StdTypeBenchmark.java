@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.code.fauch.polyjuice.StdType;
+
+/**
+ * Throughput of the encoding of each standard type, into a new array and into a reused buffer.
+ * 
+ * @author c.fauch
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StdTypeBenchmark {
+
+    private final Short shortValue = 42;
+    
+    private final Integer intValue = 123456;
+    
+    private final Long longValue = 123456789012L;
+    
+    private final Double doubleValue = 3.14159;
+    
+    private final String stringValue = "HELLO WORLD !";
+    
+    private final LocalDate dateValue = LocalDate.of(2020, 1, 24);
+    
+    private final LocalTime timeValue = LocalTime.of(9, 25, 33);
+    
+    private ByteBuffer buffer;
+    
+    @Setup
+    public void setup() {
+        this.buffer = ByteBuffer.allocate(64);
+    }
+    
+    @Benchmark
+    public byte[] encodeShort() {
+        return StdType.SHORT.encode(this.shortValue);
+    }
+    
+    @Benchmark
+    public byte[] encodeInt() {
+        return StdType.INT.encode(this.intValue);
+    }
+    
+    @Benchmark
+    public byte[] encodeLong() {
+        return StdType.LONG.encode(this.longValue);
+    }
+    
+    @Benchmark
+    public byte[] encodeDouble() {
+        return StdType.DOUBLE.encode(this.doubleValue);
+    }
+    
+    @Benchmark
+    public byte[] encodeString() {
+        return StdType.STRING.encode(this.stringValue);
+    }
+    
+    @Benchmark
+    public byte[] encodeDate() {
+        return StdType.DATE.encode(this.dateValue);
+    }
+    
+    @Benchmark
+    public byte[] encodeTime() {
+        return StdType.TIME.encode(this.timeValue);
+    }
+    
+    @Benchmark
+    public ByteBuffer encodeIntInto() {
+        StdType.INT.encodeInto(this.intValue, this.buffer.clear());
+        return this.buffer;
+    }
+    
+    @Benchmark
+    public ByteBuffer encodeStringInto() {
+        StdType.STRING.encodeInto(this.stringValue, this.buffer.clear());
+        return this.buffer;
+    }
+    
+    @Benchmark
+    public ByteBuffer encodeDateInto() {
+        StdType.DATE.encodeInto(this.dateValue, this.buffer.clear());
+        return this.buffer;
+    }
+    
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import org.yaml.snakeyaml.Yaml;
+
+import com.code.fauch.polyjuice.mapping.ObjectFactory;
+
+/**
+ * Utility class to load the templates used by the benchmarks.
+ * 
+ * @author c.fauch
+ *
+ */
+final class Templates {
+
+    /**
+     * Template of a {@link CompositeContent}.
+     */
+    static final String COMPOSITE = "/composite-content-template.yml";
+    
+    /**
+     * No constructor
+     */
+    private Templates() {
+        // Nothing to do
+    }
+    
+    /**
+     * Read a template.
+     * 
+     * @param name the name of the resource (not null)
+     * @return the text of the template
+     */
+    static String read(final String name) {
+        try (InputStream in = Templates.class.getResourceAsStream(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Load the factory described by a template.
+     * 
+     * @param text the text of the template (not null)
+     * @return the factory
+     */
+    static ObjectFactory load(final String text) {
+        return new Yaml().load(text);
+    }
+    
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Homogeneous sequence of values of the same fixed-size type, held by a primitive array.
+ * <p>
+ * A column is encoded like a dynamic array of parameters of the same type, but the values are
+ * not held by a parameter each: they are encoded and decoded in bulk. With the standard types,
+ * the values are copied at once between the primitive array and a view of the buffer (like
+ * {@link java.nio.IntBuffer}). Any other type is encoded value by value without boxing.
+ * </p>
+ * <p>
+ * Like a dynamic array, only the current values are decoded: the column must already have the
+ * expected size (see {@link #resize(int)}). The listeners are notified of each change with a
+ * {@link #VALUES} event: indexed for a single value, with the column itself after a bulk change.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public abstract class AbsColumn implements IContent {
+
+    /**
+     * Name of the event raised when values change.
+     */
+    public static final String VALUES = "column-values";
+
+    /**
+     * The size in bytes of each encoded value.
+     */
+    private final int elementSize;
+
+    /**
+     * The registered listeners.
+     */
+    private final ListenerList<ChangeListener> listeners;
+    
+    /**
+     * The node through which the changes bubble up to the parents.
+     */
+    private final EventNode eventNode;
+
+    /**
+     * The number of values.
+     */
+    private int size;
+
+    /**
+     * Constructor.
+     *
+     * @param type the type of the values (not null)
+     * @throws IllegalArgumentException if the size of the type is variable
+     */
+    protected AbsColumn(final IType<?> type) {
+        this.elementSize = Objects.requireNonNull(type, "type is missing").fixedSize();
+        if (this.elementSize == IType.VARIABLE_SIZE) {
+            throw new IllegalArgumentException("variable size type: " + type.getName());
+        }
+        this.listeners = new ListenerList<>();
+        this.eventNode = new EventNode(this.listeners);
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the number of values
+     */
+    public final int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the size in bytes of each encoded value.
+     *
+     * @return the size in bytes
+     */
+    public final int getElementSize() {
+        return this.elementSize;
+    }
+
+    /**
+     * Change the number of values. The new values are zeros.
+     *
+     * @param size the new number of values (positive or zero)
+     */
+    public final void resize(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("negative size: " + size);
+        }
+        if (size != this.size) {
+            ensureCapacity(size);
+            clear(Math.min(size, this.size), Math.max(size, this.size));
+            this.size = size;
+            fireEvent();
+        }
+    }
+
+    /**
+     * Encode this column into a sequence of bytes.
+     */
+    @Override
+    public final byte[] getBytes() {
+        return Frames.toBytes(encodedSize(), this::writeTo);
+    }
+
+    /**
+     * Encode all the values directly into the given buffer.
+     */
+    @Override
+    public final void writeTo(final ByteBuffer buffer) {
+        final int end = buffer.position() + encodedSize();
+        if (end > buffer.limit()) {
+            throw new BufferOverflowException();
+        }
+        encodeValues(buffer, 0, this.size);
+        buffer.position(end);
+    }
+
+    /**
+     * Encode a range of values directly into the given buffer, as they are encoded by
+     * {@link #writeTo(ByteBuffer)}.
+     *
+     * @param buffer the buffer to write into (not null)
+     * @param from the index of the first value
+     * @param count the number of values
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     * @throws BufferOverflowException if the buffer is too small
+     */
+    public final void writeTo(final ByteBuffer buffer, final int from, final int count) {
+        Objects.checkFromIndexSize(from, count, this.size);
+        final int end = buffer.position() + count * this.elementSize;
+        if (end > buffer.limit()) {
+            throw new BufferOverflowException();
+        }
+        encodeValues(buffer, from, from + count);
+        buffer.position(end);
+    }
+
+    /**
+     * Decode all the current values from the given buffer.
+     * The listeners are notified once.
+     */
+    @Override
+    public final void readFrom(final ByteBuffer buffer) {
+        final int end = buffer.position() + encodedSize();
+        if (end > buffer.limit()) {
+            throw new BufferUnderflowException();
+        }
+        decodeValues(buffer);
+        buffer.position(end);
+        fireEvent();
+    }
+
+    /**
+     * The number of values multiplied by the size of a value.
+     */
+    @Override
+    public final int encodedSize() {
+        return this.size * this.elementSize;
+    }
+
+    /**
+     * Register a listener to listen changes on this column.
+     */
+    @Override
+    public final ChangeListener addChangeListener(final ChangeListener listener) {
+        this.listeners.add(listener, listener);
+        return listener;
+    }
+
+    /**
+     * Unregister a listener.
+     */
+    @Override
+    public final void removeChangeListener(final ChangeListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Make sure the primitive array can hold the given number of values, keeping the current values.
+     *
+     * @param capacity the number of values
+     */
+    protected abstract void ensureCapacity(int capacity);
+
+    /**
+     * Set zeros to a range of values of the primitive array.
+     *
+     * @param from the index of the first value (inclusive)
+     * @param to the index of the last value (exclusive)
+     */
+    protected abstract void clear(int from, int to);
+
+    /**
+     * Encode a range of the current values into the given buffer, starting at its current position.
+     * There is enough room in the buffer.
+     *
+     * @param buffer the buffer to write into (not null)
+     * @param from the index of the first value (inclusive)
+     * @param to the index of the last value (exclusive)
+     */
+    protected abstract void encodeValues(ByteBuffer buffer, int from, int to);
+
+    /**
+     * Decode the current values from the given buffer, starting at its current position.
+     * There are enough bytes in the buffer.
+     *
+     * @param buffer the buffer to read from (not null)
+     */
+    protected abstract void decodeValues(ByteBuffer buffer);
+
+    /**
+     * Append a value: the size is incremented and the primitive array is grown if necessary.
+     *
+     * @return the index of the new value
+     */
+    protected final int append() {
+        ensureCapacity(this.size + 1);
+        return this.size++;
+    }
+
+    /**
+     * Replace all the values: the size is changed and the primitive array is grown if necessary.
+     *
+     * @param size the new number of values
+     */
+    protected final void replace(final int size) {
+        ensureCapacity(size);
+        this.size = size;
+    }
+
+    /**
+     * Check an index of value.
+     *
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if there is no such value
+     */
+    protected final void checkIndex(final int index) {
+        Objects.checkIndex(index, this.size);
+    }
+
+    /**
+     * Returns the capacity to allocate to hold at least the given number of values.
+     *
+     * @param current the current capacity
+     * @param capacity the required number of values
+     * @return the new capacity
+     */
+    protected static int grow(final int current, final int capacity) {
+        return Math.max(capacity, current + (current >> 1) + 1);
+    }
+
+    /**
+     * Reports a change of a value to listeners.
+     *
+     * @param index the index of the value
+     * @param value the new value
+     */
+    protected final void fireEvent(final int index, final Object value) {
+        this.eventNode.fire(new ChangeEvent(this, VALUES, null, value, index));
+    }
+
+    /**
+     * Invalidate the encoding caches of the ancestors after a change of the values.
+     *
+     * @return true if some listeners have to be notified of the change
+     */
+    protected final boolean valuesChanged() {
+        this.eventNode.dirty(false);
+        return this.eventNode.isListened();
+    }
+
+    /**
+     * Reports a bulk change to listeners.
+     */
+    protected final void fireEvent() {
+        if (valuesChanged()) {
+            this.eventNode.fire(new ChangeEvent(this, VALUES, null, this));
+        }
+    }
+
+    /**
+     * Returns the node through which the changes bubble up to the parents.
+     *
+     * @return the node
+     */
+    final EventNode getEventNode() {
+        return this.eventNode;
+    }
+
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Partial implementation of content that manage change listeners and encoding.
+ * It is possible for client code to subscribe on changes on all parameters: the changes of the
+ * contents bubble up to the listeners of this content, which are not registered to each content.
+ * <p>
+ * Several parameters can be changed in a single update (see {@link #update(Runnable)}): the listeners
+ * are notified once at the end of the update instead of once per change, so that a listener encoding
+ * the content on each change encodes it only once.
+ * </p>
+ *  
+ * @author c.fauch
+ *
+ */
+public abstract class AbsContent implements IObject {
+    
+    /**
+     * Name of the event raised at the end of an update. The new value is the list of the changed parameters.
+     */
+    public static final String UPDATE = "content-update";
+    
+    /**
+     * The expected ordered content in the sequence
+     */
+    private final List<IContent> orderedContents;
+    
+    /**
+     * The registered listeners.
+     */
+    private final ListenerList<ChangeListener> listeners;
+    
+    /**
+     * The node through which the changes of the contents bubble up.
+     */
+    private final EventNode eventNode;
+    
+    /**
+     * The cache of the encoded contents (null if disabled).
+     */
+    private EncodingCache cache;
+    
+    /**
+     * Indicates whether the parameters are decoded on the first access or not.
+     */
+    private boolean lazyDecoding;
+    
+    /**
+     * The update in progress (null if none).
+     */
+    private UpdateScope updateScope;
+    
+    /**
+     * The number of updates started on this content and not committed yet.
+     */
+    private int updateDepth;
+    
+    /**
+     * Constructor.
+     * 
+     * Without parameters.
+     */
+    public AbsContent() {
+        this.orderedContents = new ArrayList<>();
+        this.listeners = new ListenerList<>();
+        this.eventNode = new EventNode(this.listeners);
+    }
+    
+    /**
+     * Constructor with ordered contents.
+     * 
+     * @param orderedContents the ordered list of contents
+     */
+    public AbsContent(final List<IContent> orderedContents) {
+        this.orderedContents = orderedContents;
+        this.listeners = new ListenerList<>();
+        this.eventNode = new EventNode(this.listeners);
+        for (IContent content : orderedContents) {
+            EventNode.link(content, this.eventNode);
+        }
+    }
+    
+    /**
+     * Subscribes the listener to the changes of all the contents, which bubble up to this content.
+     */
+    @Override
+    public final ChangeListener addChangeListener(final ChangeListener listener) {
+        this.listeners.add(listener, listener);
+        return listener;
+    }
+    
+    /**
+     * Removes the listener.
+     */
+    @Override
+    public final void removeChangeListener(final ChangeListener listener) {
+        this.listeners.remove(listener);
+    }
+    
+    /**
+     * Encode each contents.
+     */
+    @Override
+    public byte[] getBytes() {
+        return Frames.toBytes(encodedSize(), this::writeTo);
+    }
+    
+    /**
+     * Encode each contents directly into the given buffer.
+     * The memoized bytes are used if the cache is enabled and valid.
+     */
+    @Override
+    public void writeTo(final ByteBuffer buffer) {
+        if (this.cache != null && this.cache.writeTo(buffer)) {
+            return;
+        }
+        final int start = buffer.position();
+        for (IContent content : this.orderedContents) {
+            if (content != null) {
+                content.writeTo(buffer);
+            }
+        }
+        if (this.cache != null) {
+            this.cache.store(this, buffer, start);
+        }
+    }
+    
+    /**
+     * Decode each contents one after the other from the given buffer.
+     * A parameter whose size is variable reads all the remaining bytes, so it should be the last
+     * one of the buffer or of a fixed-size content.
+     */
+    @Override
+    public void readFrom(final ByteBuffer buffer) {
+        for (IContent content : this.orderedContents) {
+            if (content != null) {
+                content.readFrom(buffer);
+            }
+        }
+    }
+    
+    /**
+     * Sum of the sizes of each contents.
+     */
+    @Override
+    public int encodedSize() {
+        if (this.cache != null && this.cache.isValid()) {
+            return this.cache.size();
+        }
+        int size = 0;
+        for (IContent content : this.orderedContents) {
+            if (content != null) {
+                size += content.encodedSize();
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * Returns all the parameters in the same order as expected in the encoded sequence.
+     * 
+     * @return all the parameters.
+     */
+    public final List<IContent> getOrderedContents() {
+        return this.orderedContents;
+    }
+    
+    /**
+     * Enable or disable the memoization of the encoded bytes of this content and of all its contents.
+     * Any change of the contents invalidates it.
+     * 
+     * @param enabled true to enable the cache
+     */
+    public final void setCaching(final boolean enabled) {
+        if (enabled && this.cache == null) {
+            for (IContent content : this.orderedContents) {
+                EncodingCache.setCaching(content, true);
+            }
+            this.cache = new EncodingCache();
+            this.eventNode.setCache(this.cache);
+        } else if (!enabled && this.cache != null) {
+            this.eventNode.setCache(null);
+            this.cache = null;
+            for (IContent content : this.orderedContents) {
+                EncodingCache.setCaching(content, false);
+            }
+        }
+    }
+    
+    /**
+     * Returns the cache of the encoded bytes.
+     * 
+     * @return the cache or null if disabled
+     */
+    public final EncodingCache getEncodingCache() {
+        return this.cache;
+    }
+    
+    /**
+     * Enable or disable the lazy decoding mode of all the parameters of this content.
+     * The contents added later inherit the mode.
+     * 
+     * @param enabled true to decode the values on the first access
+     * @see Parameter#setLazyDecoding(boolean)
+     */
+    public final void setLazyDecoding(final boolean enabled) {
+        this.lazyDecoding = enabled;
+        for (IContent content : this.orderedContents) {
+            Frames.setLazyDecoding(content, enabled);
+        }
+    }
+    
+    /**
+     * Returns true if the parameters of this content are decoded on the first access.
+     * 
+     * @return true in lazy decoding mode
+     */
+    public final boolean isLazyDecoding() {
+        return this.lazyDecoding;
+    }
+    
+    /**
+     * Change several parameters of this content at once.
+     * <p>
+     * The changes made by the given action are not notified one by one. At the end of the update, even if the
+     * action fails, each {@link ValueListener} of a changed parameter is notified once, from the value before
+     * the update to the current value, and each {@link ChangeListener} receives a single {@link #UPDATE}
+     * event whose source is this content and whose new value is the list of the changed parameters.
+     * </p>
+     * <p>
+     * An update within the update of an ancestor is part of it: the listeners are notified at the end of
+     * the outermost update. The same goes for an update of an ancestor started while this content is
+     * being updated: the changes already made are notified at the end of the last of both updates.
+     * </p>
+     * 
+     * @param changes the changes to make (not null)
+     */
+    public final void update(final Runnable changes) {
+        Objects.requireNonNull(changes, "changes is missing");
+        beginUpdate();
+        try {
+            changes.run();
+        } finally {
+            commitUpdate();
+        }
+    }
+    
+    /**
+     * Start an update: the changes are not notified until {@link #commitUpdate()}.
+     * Each call must be followed by a call to {@link #commitUpdate()}, preferably in a <code>finally</code> block.
+     * 
+     * @see #update(Runnable)
+     */
+    public final void beginUpdate() {
+        if (this.updateScope != null) {
+            this.updateScope.begin();
+        } else {
+            setUpdateScope(new UpdateScope(this));
+        }
+        this.updateDepth++;
+    }
+    
+    /**
+     * End an update started by {@link #beginUpdate()}.
+     * The listeners are notified of the changes at the end of the outermost update.
+     * 
+     * @throws IllegalStateException if there is no update of this content in progress
+     */
+    public final void commitUpdate() {
+        final UpdateScope scope = this.updateScope;
+        if (scope == null || this.updateDepth == 0) {
+            throw new IllegalStateException("no update in progress");
+        }
+        this.updateDepth--;
+        if (scope.end()) {
+            scope.getSource().setUpdateScope(null);
+            scope.commit();
+        }
+    }
+    
+    /**
+     * Returns true if an update of this content or of one of its ancestors is in progress.
+     * 
+     * @return true during an update
+     */
+    public final boolean isUpdating() {
+        return this.updateScope != null;
+    }
+    
+    /**
+     * Returns the node through which the changes bubble up to the parents.
+     * 
+     * @return the node
+     */
+    final EventNode getEventNode() {
+        return this.eventNode;
+    }
+    
+    /**
+     * Join or leave an update in progress with all the contents.
+     * The contents added later join it too. An update already in progress is absorbed by the joined one.
+     * 
+     * @param scope the update to join or null to leave it
+     */
+    final void setUpdateScope(final UpdateScope scope) {
+        if (scope != null && this.updateScope != null) {
+            scope.absorb(this.updateScope);
+        }
+        this.updateScope = scope;
+        for (IContent content : this.orderedContents) {
+            UpdateScope.join(content, scope);
+        }
+    }
+    
+    /**
+     * Add contents at the end. Their changes bubble up to the listeners of this content,
+     * so the contents must be added through this method rather than {@link #getOrderedContents()}.
+     */
+    @Override
+    public final void addOrderedContents(final List<IContent> orderedContents) {
+        this.orderedContents.addAll(orderedContents);
+        for (IContent content : orderedContents) {
+            EventNode.link(content, this.eventNode);
+        }
+        if (this.lazyDecoding) {
+            for (IContent content : orderedContents) {
+                Frames.setLazyDecoding(content, true);
+            }
+        }
+        if (this.updateScope != null) {
+            for (IContent content : orderedContents) {
+                UpdateScope.join(content, this.updateScope);
+            }
+        }
+        if (this.cache != null) {
+            for (IContent content : orderedContents) {
+                EncodingCache.setCaching(content, true);
+            }
+        }
+        this.eventNode.dirty(true);
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Partial implementation of abstract content with the capability of specified a fixed size in bytes
+ * of the result.
+ * 
+ * @author c.fauch
+ *
+ */
+public abstract class AbsFixedSizeContent extends AbsContent implements ISizedObject {
+
+    /**
+     * The expected size of the encoded sequence (in bytes).
+     * Null means auto-adjust
+     */
+    private Integer expectedSize;
+    
+    /**
+     * The frame buffer reused from one encoding to another.
+     */
+    private ByteBuffer frame;
+    
+    /**
+     * Constructor
+     * 
+     * @param ordered content
+     * @param expected size (in bytes)
+     */
+    public AbsFixedSizeContent(final List<IContent> contents, final Integer expectedSize) {
+        super(contents);
+        this.expectedSize = expectedSize;
+    }
+    
+    /**
+     * Constructor
+     */
+    public AbsFixedSizeContent() {
+        super();
+    }
+
+    /**
+     * Adapt the result if necessary to match the expected size if it is defined.
+     */
+    @Override
+    public final byte[] getBytes() {
+        return getExpectedSize() == null ? Frames.toBytes(super.encodedSize(), super::writeTo) 
+                : Frames.toBytes(getExpectedSize(), this::writeTo);
+    }
+    
+    /**
+     * Encode into the given buffer, adapted if necessary to match the expected size if it is defined.
+     * When the expected size is defined, the contents are encoded in place into a slot of exactly 
+     * the expected size: the encoding stops as soon as the slot is full and the remaining bytes are 
+     * set to zero.
+     */
+    @Override
+    public final void writeTo(final ByteBuffer buffer) {
+        if (getExpectedSize() == null) {
+            super.writeTo(buffer);
+            return;
+        }
+        final int start = buffer.position();
+        final int end = start + getExpectedSize();
+        if (end > buffer.limit()) {
+            throw new BufferOverflowException();
+        }
+        final EncodingCache cache = getEncodingCache();
+        if (cache != null && cache.writeTo(buffer)) {
+            return;
+        }
+        final int limit = buffer.limit();
+        buffer.limit(end);
+        try {
+            for (IContent content : getOrderedContents()) {
+                if (!writeTruncated(content, buffer)) {
+                    break;
+                }
+            }
+            while (buffer.hasRemaining()) {
+                buffer.put((byte) 0);
+            }
+        } finally {
+            buffer.limit(limit);
+        }
+        if (cache != null) {
+            cache.store(this, buffer, start);
+        }
+    }
+    
+    /**
+     * Decode from the given buffer, adapted if necessary to match the expected size if it is defined.
+     * When the expected size is defined, exactly the expected number of bytes are consumed: a parameter
+     * truncated by the expected size is decoded as if the missing bytes were zeros.
+     */
+    @Override
+    public final void readFrom(final ByteBuffer buffer) {
+        if (getExpectedSize() == null) {
+            super.readFrom(buffer);
+            return;
+        }
+        final int end = buffer.position() + getExpectedSize();
+        if (end > buffer.limit()) {
+            throw new BufferUnderflowException();
+        }
+        final int limit = buffer.limit();
+        buffer.limit(end);
+        try {
+            for (IContent content : getOrderedContents()) {
+                if (!readTruncated(content, buffer)) {
+                    break;
+                }
+            }
+        } finally {
+            buffer.limit(limit);
+            buffer.position(end);
+        }
+    }
+    
+    /**
+     * Encode this content into the frame buffer of this instance.
+     * The frame buffer is allocated on first use (or when it becomes too small) and it is reused 
+     * by the next calls.
+     * 
+     * @return the frame buffer ready to be read, only valid until the next call
+     */
+    public final ByteBuffer encodeFrame() {
+        final int size = encodedSize();
+        if (this.frame == null || this.frame.capacity() < size) {
+            this.frame = ByteBuffer.allocate(size);
+        }
+        this.frame.clear();
+        writeTo(this.frame);
+        return this.frame.flip();
+    }
+    
+    /**
+     * Encode a content into the buffer until its limit is reached.
+     * 
+     * @param content the content to encode (may be null)
+     * @param buffer the buffer to write into (not null)
+     * @return true if the whole content has been encoded else false
+     */
+    private static boolean writeTruncated(final IContent content, final ByteBuffer buffer) {
+        if (content == null) {
+            return true;
+        }
+        if (content instanceof AbsContent && !(content instanceof AbsFixedSizeContent 
+                && ((AbsFixedSizeContent) content).getExpectedSize() != null)) {
+            for (IContent child : ((AbsContent) content).getOrderedContents()) {
+                if (!writeTruncated(child, buffer)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (content instanceof DynamicArray) {
+            for (IContent element : (DynamicArray<?>) content) {
+                if (!writeTruncated(element, buffer)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (content.encodedSize() <= buffer.remaining()) {
+            content.writeTo(buffer);
+            return true;
+        }
+        buffer.put(content.getBytes(), 0, buffer.remaining());
+        return false;
+    }
+
+    /**
+     * Decode a content from the buffer until its limit is reached.
+     * 
+     * @param content the content to decode (may be null)
+     * @param buffer the buffer to read from (not null)
+     * @return true if the whole content has been decoded else false
+     */
+    private static boolean readTruncated(final IContent content, final ByteBuffer buffer) {
+        if (content == null) {
+            return true;
+        }
+        if (content instanceof AbsContent && !(content instanceof AbsFixedSizeContent 
+                && ((AbsFixedSizeContent) content).getExpectedSize() != null)) {
+            for (IContent child : ((AbsContent) content).getOrderedContents()) {
+                if (!readTruncated(child, buffer)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (content instanceof DynamicArray) {
+            for (IContent element : (DynamicArray<?>) content) {
+                if (!readTruncated(element, buffer)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        final int size = content instanceof Parameter && ((Parameter<?>) content).getType().fixedSize() == IType.VARIABLE_SIZE
+                ? buffer.remaining() : content.encodedSize();
+        if (size <= buffer.remaining()) {
+            content.readFrom(buffer);
+            return true;
+        }
+        final ByteBuffer padded = ByteBuffer.allocate(size).order(buffer.order());
+        padded.put(buffer).clear();
+        content.readFrom(padded);
+        return false;
+    }
+
+    /**
+     * Returns the expected size if it is defined else the size of all the contents.
+     */
+    @Override
+    public final int encodedSize() {
+        return getExpectedSize() == null ? super.encodedSize() : getExpectedSize();
+    }
+
+    /**
+     * Returns the expected size of the encoded content.
+     * If not null the result is truncated and padded with zeros to match the expected size.
+     * 
+     * @return null by default.
+     */
+    public final Integer getExpectedSize() {
+        return this.expectedSize;
+    }
+
+    /**
+     * The expected size in bytes of the encoded result.
+     * The caches of this content and of its ancestors, if enabled, are invalidated.
+     * 
+     * @param size the expected size by be null.
+     */
+    @Override
+    public final void setExpectedSize(final Integer size) {
+        this.expectedSize = size;
+        getEventNode().dirty(false);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+/**
+ * Listener of the elements added to or removed from a {@link DynamicArray}.
+ * <p>
+ * Unlike a {@link ChangeListener}, it is notified without creating any event,
+ * and it is not notified of the changes of the elements of the array.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ * @param <T> the type of element
+ * @see DynamicArray#addArrayListener(ArrayListener)
+ */
+public interface ArrayListener<T extends IContent> {
+
+    /**
+     * Called when an element is added.
+     *
+     * @param array the changed array
+     * @param index the index of the new element
+     * @param element the new element
+     */
+    void onAdd(DynamicArray<? extends T> array, int index, T element);
+
+    /**
+     * Called when an element is removed.
+     *
+     * @param array the changed array
+     * @param index the old index of the element
+     * @param element the removed element
+     */
+    void onRemove(DynamicArray<? extends T> array, int index, T element);
+
+}
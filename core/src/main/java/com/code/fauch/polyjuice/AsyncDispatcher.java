@@ -0,0 +1,429 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous delivery of the changes of a content to a listener.
+ * <p>
+ * The dispatcher listens to the content and queues the events instead of notifying the listener on the
+ * thread that changes the content. The events are delivered one at a time, in the order they were queued,
+ * by tasks submitted to the given executor: a thread pool, a single thread or one virtual thread per task.
+ * So the listener is never called concurrently, and it receives the changes of each parameter in order.
+ * </p>
+ * <p>
+ * The queue is bounded. When it is full, the {@link OverflowPolicy} tells whether the producer waits, or
+ * whether the oldest event is dropped. With {@link OverflowPolicy#CONFLATE}, a full queue replaces the
+ * pending change of the value of a parameter by its new change, so that the listener only receives the
+ * latest value; as long as there is room, every change is delivered.
+ * </p>
+ * <p>
+ * A dispatcher is thread-safe. It must be closed to stop listening to the content.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class AsyncDispatcher implements AutoCloseable {
+
+    /**
+     * What to do with a new event when the queue is full.
+     *
+     * @author c.fauch
+     *
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * The thread changing the content waits until there is room in the queue.
+         * A change made by the listener itself cannot wait for its own delivery: the oldest pending event is
+         * dropped instead.
+         */
+        BLOCK,
+
+        /**
+         * The oldest pending event is dropped.
+         */
+        DROP_OLDEST,
+
+        /**
+         * The latest pending change of the value of the same parameter is replaced, keeping its place in the
+         * queue. If there is none, the oldest pending event is dropped.
+         * As long as the queue is not full, every event is queued.
+         */
+        CONFLATE
+
+    }
+
+    /**
+     * A queued event.
+     *
+     * @author c.fauch
+     *
+     */
+    private static final class Slot {
+
+        /**
+         * The event to deliver (replaced when conflated).
+         */
+        private ChangeEvent event;
+
+        /**
+         * Constructor.
+         *
+         * @param event the event to deliver (not null)
+         */
+        private Slot(final ChangeEvent event) {
+            this.event = event;
+        }
+
+    }
+
+    /**
+     * The content.
+     */
+    private final IContent content;
+
+    /**
+     * The listener notified asynchronously.
+     */
+    private final ChangeListener listener;
+
+    /**
+     * The executor of the delivery tasks.
+     */
+    private final Executor executor;
+
+    /**
+     * The maximum number of pending events.
+     */
+    private final int capacity;
+
+    /**
+     * The policy when the queue is full.
+     */
+    private final OverflowPolicy policy;
+
+    /**
+     * The listener registered on the content.
+     */
+    private final ChangeListener relay;
+
+    /**
+     * Guards the queue and the state below.
+     */
+    private final ReentrantLock lock;
+
+    /**
+     * Signaled when an event is taken from the queue.
+     */
+    private final Condition notFull;
+
+    /**
+     * The pending events.
+     */
+    private final ArrayDeque<Slot> queue;
+
+    /**
+     * The pending value changes by parameter (only with {@link OverflowPolicy#CONFLATE}).
+     */
+    private final Map<Object, Slot> pendingValues;
+
+    /**
+     * The thread delivering the events (null if none).
+     */
+    private Thread deliveryThread;
+
+    /**
+     * True while a delivery task is submitted or running.
+     */
+    private boolean scheduled;
+
+    /**
+     * True once closed.
+     */
+    private boolean closed;
+
+    /**
+     * Number of events dropped.
+     */
+    private long droppedCount;
+
+    /**
+     * Number of events replaced by a newer one.
+     */
+    private long conflatedCount;
+
+    /**
+     * Constructor: start to listen to the content.
+     *
+     * @param content the content to listen to (not null)
+     * @param listener the listener to notify asynchronously (not null)
+     * @param executor the executor of the delivery tasks (not null)
+     * @param capacity the maximum number of pending events (strictly positive)
+     * @param policy the policy when the queue is full (not null)
+     */
+    public AsyncDispatcher(final IContent content, final ChangeListener listener, final Executor executor,
+            final int capacity, final OverflowPolicy policy) {
+        this.content = Objects.requireNonNull(content, "content is missing");
+        this.listener = Objects.requireNonNull(listener, "listener is missing");
+        this.executor = Objects.requireNonNull(executor, "executor is missing");
+        this.policy = Objects.requireNonNull(policy, "policy is missing");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be strictly positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.lock = new ReentrantLock();
+        this.notFull = this.lock.newCondition();
+        this.queue = new ArrayDeque<>(Math.min(capacity, 1024));
+        this.pendingValues = new IdentityHashMap<>();
+        this.relay = this::enqueue;
+        this.content.addChangeListener(this.relay);
+    }
+
+    /**
+     * Returns the number of pending events.
+     *
+     * @return the number of events not delivered yet
+     */
+    public int getPendingCount() {
+        this.lock.lock();
+        try {
+            return this.queue.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of events dropped because the queue was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        this.lock.lock();
+        try {
+            return this.droppedCount;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of events replaced by a newer change of the same parameter.
+     *
+     * @return the number of conflated events
+     */
+    public long getConflatedCount() {
+        this.lock.lock();
+        try {
+            return this.conflatedCount;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop listening to the content. The pending events are discarded.
+     * An event being delivered is not interrupted.
+     */
+    @Override
+    public void close() {
+        this.content.removeChangeListener(this.relay);
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.queue.clear();
+            this.pendingValues.clear();
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Queue an event and submit a delivery task if none is in progress.
+     *
+     * @param event the event (not null)
+     * @throws RejectedExecutionException if the executor rejects the delivery task
+     */
+    private void enqueue(final ChangeEvent event) {
+        final boolean submit;
+        this.lock.lock();
+        try {
+            if (this.closed || this.queue.size() >= this.capacity && conflate(event)) {
+                return;
+            }
+            while (this.queue.size() >= this.capacity && !this.closed) {
+                if (this.policy == OverflowPolicy.BLOCK && Thread.currentThread() != this.deliveryThread) {
+                    this.notFull.awaitUninterruptibly();
+                } else {
+                    forget(this.queue.poll());
+                    this.droppedCount++;
+                }
+            }
+            if (this.closed) {
+                return;
+            }
+            final Slot slot = new Slot(event);
+            this.queue.add(slot);
+            if (this.policy == OverflowPolicy.CONFLATE && isValueChange(event)) {
+                this.pendingValues.put(event.getSource(), slot);
+            }
+            submit = !this.scheduled;
+            this.scheduled = true;
+        } finally {
+            this.lock.unlock();
+        }
+        if (submit) {
+            schedule();
+        }
+    }
+
+    /**
+     * Submit a delivery task.
+     *
+     * @throws RejectedExecutionException if the executor rejects the task
+     */
+    private void schedule() {
+        try {
+            this.executor.execute(this::deliver);
+        } catch (RejectedExecutionException e) {
+            this.lock.lock();
+            try {
+                this.scheduled = false;
+            } finally {
+                this.lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Replace the latest pending change of the value of the same parameter if the policy allows it.
+     * The listener receives the previous value of the replaced change, so that it goes on from the last
+     * value it was notified of.
+     * Must be called with the lock held, when the queue is full.
+     *
+     * @param event the new event (not null)
+     * @return true if the event has replaced a pending one
+     */
+    private boolean conflate(final ChangeEvent event) {
+        if (this.policy != OverflowPolicy.CONFLATE || !isValueChange(event)) {
+            return false;
+        }
+        final Slot slot = this.pendingValues.get(event.getSource());
+        if (slot == null) {
+            return false;
+        }
+        slot.event = new ChangeEvent(event.getSource(), event.getPropertyName(), slot.event.getOldValue(),
+                event.getNewValue());
+        this.conflatedCount++;
+        return true;
+    }
+
+    /**
+     * Forget a slot taken from the queue.
+     * Must be called with the lock held.
+     *
+     * @param slot the slot (not null)
+     */
+    private void forget(final Slot slot) {
+        if (!this.pendingValues.isEmpty() && isValueChange(slot.event)) {
+            this.pendingValues.remove(slot.event.getSource(), slot);
+        }
+        this.notFull.signal();
+    }
+
+    /**
+     * Deliver the pending events one after the other until the queue is empty.
+     * A failure of the listener is reported to the uncaught exception handler of the thread, then the
+     * delivery goes on. An error stops the delivery: the remaining events are delivered by a new task.
+     */
+    private void deliver() {
+        boolean failed = true;
+        try {
+            while (true) {
+                final ChangeEvent event;
+                this.lock.lock();
+                try {
+                    final Slot slot = this.queue.poll();
+                    if (slot == null) {
+                        this.scheduled = false;
+                        this.deliveryThread = null;
+                        failed = false;
+                        return;
+                    }
+                    forget(slot);
+                    event = slot.event;
+                    this.deliveryThread = Thread.currentThread();
+                } finally {
+                    this.lock.unlock();
+                }
+                try {
+                    this.listener.onChange(event);
+                } catch (RuntimeException e) {
+                    final Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+        } finally {
+            if (failed) {
+                restart();
+            }
+        }
+    }
+
+    /**
+     * Submit a new delivery task after a delivery stopped by an error, if some events are still pending.
+     */
+    private void restart() {
+        final boolean submit;
+        this.lock.lock();
+        try {
+            this.deliveryThread = null;
+            submit = !this.closed && !this.queue.isEmpty();
+            this.scheduled = submit;
+        } finally {
+            this.lock.unlock();
+        }
+        if (submit) {
+            try {
+                schedule();
+            } catch (RejectedExecutionException e) {
+                // The events stay pending until the next change submits a new task
+            }
+        }
+    }
+
+    /**
+     * Check if an event is the change of the value of a parameter.
+     *
+     * @param event the event (not null)
+     * @return true for a value change
+     */
+    private static boolean isValueChange(final ChangeEvent event) {
+        return Parameter.VALUE.equals(event.getPropertyName()) && !event.isIndexed();
+    }
+
+}
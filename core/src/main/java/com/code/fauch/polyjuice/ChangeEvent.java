@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.util.EventObject;
+
+/**
+ * Event notified to a {@link ChangeListener} when a content changes.
+ * <p>
+ * It carries the same information as a <code>java.beans.PropertyChangeEvent</code> without depending on
+ * the <code>java.desktop</code> module: the name of the change, the old and the new values and, for a
+ * change of an element of a list, its index.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public class ChangeEvent extends EventObject {
+
+    /**
+     * Index of an event that does not concern an element of a list.
+     */
+    public static final int NO_INDEX = -1;
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The name of the change.
+     */
+    private final String propertyName;
+
+    /**
+     * The old value (may be null).
+     */
+    private final transient Object oldValue;
+
+    /**
+     * The new value (may be null).
+     */
+    private final transient Object newValue;
+
+    /**
+     * The index of the changed element or {@link #NO_INDEX}.
+     */
+    private final int index;
+
+    /**
+     * Constructor of an event that does not concern an element of a list.
+     *
+     * @param source the changed content (not null)
+     * @param propertyName the name of the change
+     * @param oldValue the old value
+     * @param newValue the new value
+     */
+    public ChangeEvent(final Object source, final String propertyName, final Object oldValue,
+            final Object newValue) {
+        this(source, propertyName, oldValue, newValue, NO_INDEX);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param source the changed content (not null)
+     * @param propertyName the name of the change
+     * @param oldValue the old value
+     * @param newValue the new value
+     * @param index the index of the changed element or {@link #NO_INDEX}
+     */
+    public ChangeEvent(final Object source, final String propertyName, final Object oldValue,
+            final Object newValue, final int index) {
+        super(source);
+        this.propertyName = propertyName;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.index = index;
+    }
+
+    /**
+     * Returns the name of the change.
+     *
+     * @return the name
+     */
+    public final String getPropertyName() {
+        return this.propertyName;
+    }
+
+    /**
+     * Returns the old value.
+     *
+     * @return the old value (may be null)
+     */
+    public final Object getOldValue() {
+        return this.oldValue;
+    }
+
+    /**
+     * Returns the new value.
+     *
+     * @return the new value (may be null)
+     */
+    public final Object getNewValue() {
+        return this.newValue;
+    }
+
+    /**
+     * Returns the index of the changed element.
+     *
+     * @return the index or {@link #NO_INDEX} if the event does not concern an element of a list
+     */
+    public final int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * Returns true if the event concerns an element of a list.
+     *
+     * @return true if indexed
+     */
+    public final boolean isIndexed() {
+        return this.index != NO_INDEX;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[propertyName=" + this.propertyName + ", oldValue=" + this.oldValue
+                + ", newValue=" + this.newValue + ", index=" + this.index + ", source=" + getSource() + "]";
+    }
+
+}
@@ -14,35 +14,26 @@
  */
 package com.code.fauch.polyjuice;
 
+import java.util.EventListener;
+
 /**
- * Describe a parameter type.
- * Is is used to encode the value of a parameter.
- * 
+ * Listener of all the changes of a content and of the contents it holds.
+ * <p>
+ * Two listeners that are equal are the same registration: registering a listener equal to a registered
+ * one does nothing, and unregistering it unregisters the registered one.
+ * </p>
+ *
  * @author c.fauch
  *
  */
-public interface IType<T> {
+@FunctionalInterface
+public interface ChangeListener extends EventListener {
 
     /**
-     * Returns the expected java class of the value (in java memory).
-     *  
-     * @return the value class
-     */
-    Class<? extends T> getValueClass();
-    
-    /**
-     * Encode a value into a sequence of bytes.
-     * 
-     * @param value the value to encode (may be null)
-     * @return the encoded value or empty if the value is null
-     */
-    byte[] encode(T value);
-    
-    /**
-     * Returns the name of this type like expected in text.
-     * 
-     * @return the name (not null)
+     * Called when a change occurred.
+     *
+     * @param event the event describing the change (not null)
      */
-    String getName();
-    
+    void onChange(ChangeEvent event);
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Updates a mirror content from the delta frames encoded by a {@link DeltaEncoder}.
+ * <p>
+ * The mirror must have the same structure as the encoded content. Each value is decoded with
+ * the type of the parameter (see {@link IType#decode(ByteBuffer)}) and set to the parameter of
+ * the mirror, so the listeners of the mirror are notified as usual. The values are decoded
+ * immediately even in lazy decoding mode. Constant parameters are not changed.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class DeltaApplier {
+
+    /**
+     * The parameters of the mirror in depth-first order.
+     */
+    private final List<Parameter<?>> parameters;
+
+    /**
+     * Constructor.
+     *
+     * @param mirror the content to update (not null)
+     */
+    public DeltaApplier(final IContent mirror) {
+        this.parameters = Layout.parametersOf(Objects.requireNonNull(mirror, "mirror is missing"));
+    }
+
+    /**
+     * Decode a delta frame, starting at the current position of the buffer, and update the mirror.
+     * The position of the buffer is advanced to the end of the delta frame.
+     *
+     * @param delta the buffer holding the delta frame (not null)
+     * @return the number of decoded parameters
+     * @throws IllegalArgumentException if the delta frame does not match the mirror
+     * @throws BufferUnderflowException if the delta frame is truncated
+     * @throws UnsupportedOperationException if a type cannot be decoded
+     */
+    public int apply(final ByteBuffer delta) {
+        final int count = getUnsignedShort(delta);
+        for (int i = 0; i < count; i++) {
+            final int index = getUnsignedShort(delta);
+            if (index >= this.parameters.size()) {
+                throw new IllegalArgumentException("unknown parameter index: " + index);
+            }
+            final Parameter<?> parameter = this.parameters.get(index);
+            final int size = parameter.getType().fixedSize();
+            final int length = size == IType.VARIABLE_SIZE ? getUnsignedShort(delta) : size;
+            if (length > delta.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            final int start = delta.position();
+            parameter.decodeNow(delta.slice(start, length).order(delta.order()));
+            delta.position(start + length);
+        }
+        return count;
+    }
+
+    /**
+     * Apply a delta frame to the mirror.
+     *
+     * @param delta the delta frame (not null)
+     * @return the number of decoded parameters
+     * @throws IllegalArgumentException if the delta frame does not match the mirror
+     * @throws BufferUnderflowException if the delta frame is truncated
+     * @throws UnsupportedOperationException if a type cannot be decoded
+     */
+    public int apply(final byte[] delta) {
+        return apply(ByteBuffer.wrap(Objects.requireNonNull(delta, "delta is missing")));
+    }
+
+    /**
+     * Read a 16-bit unsigned integer in big endian whatever the order of the buffer.
+     *
+     * @param buffer the buffer to read from (not null)
+     * @return the read value
+     */
+    private static int getUnsignedShort(final ByteBuffer buffer) {
+        final int high = buffer.get() & 0xFF;
+        return (high << 8) | (buffer.get() & 0xFF);
+    }
+
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Encoder of the parameters of a content changed since the previous delta frame.
+ * <p>
+ * Each parameter of the content is identified by its index in depth-first order (the same
+ * order as the fields of its {@link Layout}). The encoder listens to the changes of all the
+ * parameters and each delta frame only holds the parameters changed since the previous one:
+ * </p>
+ * <ul>
+ * <li>[2 bytes]: number of fields</li>
+ * <li>for each field:
+ *   <ul>
+ *   <li>[2 bytes]: index of the parameter</li>
+ *   <li>[2 bytes]: length of the encoded value, only if the size of the type is variable</li>
+ *   <li>[n bytes]: encoded value</li>
+ *   </ul>
+ * </li>
+ * </ul>
+ * <p>
+ * All the numbers are unsigned big-endian integers. The first delta frame holds all the parameters
+ * so that a mirror can be initialized from it. Parameters whose type is not deterministic (like clocks)
+ * are part of each delta frame. A {@link DeltaApplier} updates a mirror content from delta frames.
+ * </p>
+ * <p>
+ * The structure of the content must not change. The parameters of dynamic arrays are not part of
+ * the delta frames. An encoder is not thread-safe. It must be closed to stop listening to the content.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class DeltaEncoder implements AutoCloseable {
+
+    /**
+     * Maximum number of parameters or of bytes of an encoded value.
+     */
+    static final int MAX_UNSIGNED_SHORT = 0xFFFF;
+
+    /**
+     * The parameters of the content in depth-first order.
+     */
+    private final List<Parameter<?>> parameters;
+
+    /**
+     * The listener registered on each parameter: no event is created to mark it dirty.
+     */
+    private final List<ValueListener<Object>> listeners;
+
+    /**
+     * Indexes of the parameters changed since the previous delta frame.
+     */
+    private final BitSet dirty;
+
+    /**
+     * Indexes of the parameters to encode in each delta frame.
+     */
+    private final BitSet volatiles;
+
+    /**
+     * Constructor.
+     *
+     * @param content the content to track (not null)
+     * @throws IllegalArgumentException if the content has too many parameters
+     */
+    public DeltaEncoder(final IContent content) {
+        this.parameters = Layout.parametersOf(Objects.requireNonNull(content, "content is missing"));
+        if (this.parameters.size() > MAX_UNSIGNED_SHORT) {
+            throw new IllegalArgumentException("too many parameters: " + this.parameters.size());
+        }
+        this.dirty = new BitSet(this.parameters.size());
+        this.volatiles = new BitSet(this.parameters.size());
+        this.listeners = new ArrayList<>(this.parameters.size());
+        for (int i = 0; i < this.parameters.size(); i++) {
+            final int index = i;
+            final ValueListener<Object> listener = (parameter, oldValue, newValue) -> this.dirty.set(index);
+            this.parameters.get(i).addValueListener(listener);
+            this.listeners.add(listener);
+            if (!this.parameters.get(i).getType().isDeterministic()) {
+                this.volatiles.set(i);
+            }
+        }
+        markAll();
+    }
+
+    /**
+     * Returns the number of tracked parameters.
+     *
+     * @return the number of parameters
+     */
+    public int getFieldCount() {
+        return this.parameters.size();
+    }
+
+    /**
+     * Returns true if the next delta frame holds at least one parameter.
+     *
+     * @return true if some parameters have to be encoded
+     */
+    public boolean hasChanges() {
+        return !this.dirty.isEmpty() || !this.volatiles.isEmpty();
+    }
+
+    /**
+     * Force the next delta frame to hold all the parameters, to initialize a new mirror for instance.
+     */
+    public void markAll() {
+        this.dirty.set(0, this.parameters.size());
+    }
+
+    /**
+     * Returns the size in bytes of the next delta frame.
+     *
+     * @return the size in bytes
+     */
+    public int deltaSize() {
+        this.dirty.or(this.volatiles);
+        int size = 2;
+        for (int i = this.dirty.nextSetBit(0); i >= 0; i = this.dirty.nextSetBit(i + 1)) {
+            final Parameter<?> parameter = this.parameters.get(i);
+            size += parameter.getType().fixedSize() == IType.VARIABLE_SIZE ? 4 : 2;
+            size += parameter.encodedSize();
+        }
+        return size;
+    }
+
+    /**
+     * Encode the next delta frame into the given buffer, starting at its current position.
+     * The changes are then forgotten: the next delta frame will only hold the parameters changed
+     * after this call.
+     *
+     * @param buffer the buffer to write into (not null)
+     * @return the number of encoded parameters
+     * @throws BufferOverflowException if the buffer is too small (nothing is written)
+     * @throws IllegalStateException if an encoded value is too long for a delta frame
+     */
+    public int writeDelta(final ByteBuffer buffer) {
+        final int size = deltaSize();
+        if (buffer.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        final int count = this.dirty.cardinality();
+        putUnsignedShort(buffer, count);
+        for (int i = this.dirty.nextSetBit(0); i >= 0; i = this.dirty.nextSetBit(i + 1)) {
+            final Parameter<?> parameter = this.parameters.get(i);
+            putUnsignedShort(buffer, i);
+            if (parameter.getType().fixedSize() == IType.VARIABLE_SIZE) {
+                final int length = parameter.encodedSize();
+                if (length > MAX_UNSIGNED_SHORT) {
+                    throw new IllegalStateException("value too long for a delta frame: " + parameter.getLabel());
+                }
+                putUnsignedShort(buffer, length);
+            }
+            parameter.writeTo(buffer);
+        }
+        this.dirty.clear();
+        return count;
+    }
+
+    /**
+     * Encode the next delta frame into a new array of bytes.
+     * The changes are then forgotten like with {@link #writeDelta(ByteBuffer)}.
+     *
+     * @return the delta frame
+     * @throws IllegalStateException if an encoded value is too long for a delta frame
+     */
+    public byte[] nextDelta() {
+        return Frames.toBytes(deltaSize(), this::writeDelta);
+    }
+
+    /**
+     * Stop listening to the content.
+     */
+    @Override
+    public void close() {
+        for (int i = 0; i < this.parameters.size(); i++) {
+            this.parameters.get(i).removeValueListener(this.listeners.get(i));
+        }
+    }
+
+    /**
+     * Write a 16-bit unsigned integer in big endian whatever the order of the buffer.
+     *
+     * @param buffer the buffer to write into (not null)
+     * @param value the value to write
+     */
+    private static void putUnsignedShort(final ByteBuffer buffer, final int value) {
+        buffer.put((byte) (value >>> 8));
+        buffer.put((byte) value);
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Column of values held by a java <code>double[]</code>.
+ * <p>
+ * With {@link StdType#DOUBLE}, the values are copied at once through an {@link java.nio.DoubleBuffer} view.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class DoubleColumn extends AbsColumn {
+
+    /**
+     * The type of the values.
+     */
+    private final IDoubleType type;
+
+    /**
+     * True if the values are copied at once through a view of the buffer.
+     */
+    private final boolean bulk;
+
+    /**
+     * The values (only the first ones are used).
+     */
+    private double[] values;
+
+    /**
+     * Constructor of an empty column.
+     *
+     * @param type the type of the values (not null)
+     * @throws IllegalArgumentException if the size of the type is variable
+     */
+    public DoubleColumn(final IDoubleType type) {
+        super(type);
+        this.type = type;
+        this.bulk = type == StdType.DOUBLE;
+        this.values = new double[0];
+    }
+
+    /**
+     * Creates a new column.
+     *
+     * @param type the type of the values (not null)
+     * @param values the values
+     * @return the new column
+     * @throws IllegalArgumentException if the size of the type is variable
+     */
+    public static DoubleColumn of(final IDoubleType type, final double... values) {
+        final DoubleColumn column = new DoubleColumn(type);
+        column.setValues(values);
+        return column;
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param index the index of the value
+     * @return the value
+     * @throws IndexOutOfBoundsException if there is no such value
+     */
+    public double getDouble(final int index) {
+        checkIndex(index);
+        return this.values[index];
+    }
+
+    /**
+     * Set a new value.
+     *
+     * @param index the index of the value
+     * @param value the new value
+     * @throws IndexOutOfBoundsException if there is no such value
+     */
+    public void setDouble(final int index, final double value) {
+        checkIndex(index);
+        this.values[index] = value;
+        if (valuesChanged()) {
+            fireEvent(index, value);
+        }
+    }
+
+    /**
+     * Append a new value.
+     *
+     * @param value the value to append
+     */
+    public void add(final double value) {
+        final int index = append();
+        this.values[index] = value;
+        if (valuesChanged()) {
+            fireEvent(index, value);
+        }
+    }
+
+    /**
+     * Replace all the values by a copy of the given ones.
+     *
+     * @param values the new values (not null)
+     */
+    public void setValues(final double... values) {
+        Objects.requireNonNull(values, "values is missing");
+        replace(values.length);
+        System.arraycopy(values, 0, this.values, 0, values.length);
+        fireEvent();
+    }
+
+    /**
+     * Returns a copy of the values.
+     *
+     * @return the values
+     */
+    public double[] toArray() {
+        return Arrays.copyOf(this.values, size());
+    }
+
+    @Override
+    protected void ensureCapacity(final int capacity) {
+        if (capacity > this.values.length) {
+            this.values = Arrays.copyOf(this.values, grow(this.values.length, capacity));
+        }
+    }
+
+    @Override
+    protected void clear(final int from, final int to) {
+        Arrays.fill(this.values, from, to, 0);
+    }
+
+    @Override
+    protected void encodeValues(final ByteBuffer buffer, final int from, final int to) {
+        if (this.bulk) {
+            buffer.duplicate().order(ByteOrder.BIG_ENDIAN).asDoubleBuffer().put(this.values, from, to - from);
+        } else {
+            for (int i = from; i < to; i++) {
+                this.type.encodeDouble(this.values[i], buffer);
+            }
+        }
+    }
+
+    @Override
+    protected void decodeValues(final ByteBuffer buffer) {
+        if (this.bulk) {
+            buffer.duplicate().order(ByteOrder.BIG_ENDIAN).asDoubleBuffer().get(this.values, 0, size());
+        } else {
+            for (int i = 0; i < size(); i++) {
+                this.values[i] = this.type.decodeDouble(buffer);
+            }
+        }
+    }
+
+}
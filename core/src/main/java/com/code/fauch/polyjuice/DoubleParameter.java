@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parameter holding its value as a java <code>double</code>.
+ * <p>
+ * The value can be read, changed and encoded without boxing with {@link #getDouble()} and
+ * {@link #setDouble(double)}. The value is only boxed when some listeners have to be notified or when
+ * it is accessed through {@link #getValue()} and {@link #setValue(Double)}.
+ * A null value is handled as 0.
+ * </p>
+ * 
+ * @author c.fauch
+ *
+ */
+public final class DoubleParameter extends Parameter<Double> {
+
+    /**
+     * The type of this parameter.
+     */
+    private final IDoubleType primitiveType;
+    
+    /**
+     * The current value.
+     */
+    private double value;
+    
+    /**
+     * Constructor.
+     * 
+     * @param label the label of the parameter (not null)
+     * @param type the type of the parameter (not null)
+     * @param value the value of the parameter
+     * @param isReadOnly true for constant parameter
+     */
+    private DoubleParameter(final String label, final IDoubleType type, final double value, final boolean isReadOnly) {
+        super(label, type, null, isReadOnly);
+        this.primitiveType = type;
+        this.value = value;
+    }
+    
+    /**
+     * Creates a new parameter.
+     * 
+     * @param label the label of the parameter (not null)
+     * @param type the type of the parameter (not null)
+     * @param value the value of the parameter
+     * @param readOnly true for a constant
+     * @return the new parameter
+     */
+    public static DoubleParameter newParameter(final String label, final IDoubleType type, 
+            final double value, final boolean readOnly) {
+        return new DoubleParameter(label, type, value, readOnly);
+    }
+    
+    /**
+     * Creates a new constant.
+     * 
+     * @param label the label of the constant parameter (not null)
+     * @param type the type of the constant parameter (not null)
+     * @param value the value of the constant parameter
+     * @return the new constant parameter
+     */
+    public static DoubleParameter newConstant(final String label, final IDoubleType type, final double value) {
+        return new DoubleParameter(label, type, value, true);
+    }
+    
+    /**
+     * Returns the current value of this parameter.
+     * 
+     * @return the value
+     */
+    public double getDouble() {
+        resolve();
+        return this.value;
+    }
+    
+    /**
+     * Set a new value to this parameter.
+     * The listeners are notified with the boxed values only if there are some listeners.
+     * 
+     * @param value the new value
+     */
+    public void setDouble(final double value) {
+        if (!isReadOnly()) {
+            resolveIfListened();
+            final double old = this.value;
+            this.value = value;
+            if (valueChanged()) {
+                fireValueChange(old, value);
+            }
+        }
+    }
+    
+    /**
+     * Returns the current value of this parameter (boxed).
+     */
+    @Override
+    public Double getValue() {
+        return getDouble();
+    }
+    
+    /**
+     * Set a new value to this parameter (null is handled as 0).
+     */
+    @Override
+    public void setValue(final Double value) {
+        setDouble(value == null ? 0.0 : value);
+    }
+    
+    @Override
+    public byte[] getBytes() {
+        return Frames.toBytes(encodedSize(), this::writeTo);
+    }
+    
+    @Override
+    protected void encodeValue(final ByteBuffer buffer) {
+        this.primitiveType.encodeDouble(this.value, buffer);
+    }
+    
+    @Override
+    protected void decodeValue(final ByteBuffer buffer) {
+        this.value = this.primitiveType.decodeDouble(buffer);
+    }
+    
+    @Override
+    protected int valueSize() {
+        final int size = this.primitiveType.fixedSize();
+        return size == IType.VARIABLE_SIZE ? this.primitiveType.sizeOf(this.value) : size;
+    }
+    
+}
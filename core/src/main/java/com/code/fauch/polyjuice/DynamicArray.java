@@ -0,0 +1,349 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Dynamic ordered list of contents.
+ * <p>
+ * The elements added or removed are notified to {@link ArrayListener}s without creating any event.
+ * A {@link ChangeListener} is notified of them through an event, and it is also notified of the changes
+ * of the elements, which bubble up to the array.
+ * </p>
+ * 
+ * @author c.fauch
+ *
+ */
+public final class DynamicArray<T extends IContent> implements IContent, Iterable<T> {
+
+    /**
+     * Name of the event raised when a new element is added.
+     */
+    public static final String NEW = "dynamic-array-add";
+
+    /**
+     * Name of the event raised when a old element is removed.
+     */
+    public static final String REMOVE = "dynamic-array-rm";
+
+    /**
+     * The dynamic ordered list of element to encode in the frame.
+     */
+    private final List<T> elements;
+    
+    /**
+     * The registered array listeners.
+     */
+    private final ListenerList<ArrayListener<? super T>> arrayListeners;
+    
+    /**
+     * The registered change listeners.
+     */
+    private final ListenerList<ChangeListener> listeners;
+    
+    /**
+     * The node through which the changes of the elements bubble up.
+     */
+    private final EventNode eventNode;
+    
+    /**
+     * The cache of the encoded elements (null if disabled).
+     */
+    private EncodingCache cache;
+    
+    /**
+     * Indicates whether the parameters are decoded on the first access or not.
+     */
+    private boolean lazyDecoding;
+    
+    /**
+     * The update in progress joined by the elements (null if none).
+     */
+    private UpdateScope updateScope;
+
+    /**
+     * Construct a new empty dynamic array.
+     */
+    public DynamicArray() {
+        this.elements = new ArrayList<T>();
+        this.arrayListeners = new ListenerList<>();
+        this.listeners = new ListenerList<>();
+        this.eventNode = new EventNode(this.listeners);
+    }
+    
+    /**
+     * Register a listener to listen changes on this array and on all its elements.
+     * The changes of the elements bubble up to it: it is not registered to the elements.
+     */
+    @Override
+    public ChangeListener addChangeListener(final ChangeListener listener) {
+        this.listeners.add(listener, listener);
+        return listener;
+    }
+
+    /**
+     * Unregister a listener.
+     */
+    @Override
+    public void removeChangeListener(final ChangeListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Add an element to the list. The changes of this element bubble up to the listeners of this array.
+     * A new event it fire to listeners.
+     * 
+     * @param element the element to add
+     */
+    public void add(final T element) {
+        if (this.elements.add(element)) {
+            if (this.cache != null) {
+                EncodingCache.setCaching(element, true);
+            }
+            if (this.lazyDecoding) {
+                Frames.setLazyDecoding(element, true);
+            }
+            if (this.updateScope != null) {
+                UpdateScope.join(element, this.updateScope);
+            }
+            EventNode.link(element, this.eventNode);
+            fireEvent(NEW, this.elements.size() - 1, element);
+        }
+    }
+    
+    /**
+     * Remove an element from the list. Its changes do not bubble up to this array anymore.
+     * A remove event is fire.
+     * 
+     * @param index index of the element to remove
+     */
+    public void remove(final int index) {
+        final T removed = this.elements.remove(index);
+        if (this.updateScope != null) {
+            UpdateScope.join(removed, null);
+        }
+        EventNode.unlink(removed, this.eventNode);
+        fireEvent(REMOVE, index, removed);
+    }
+    
+    /**
+     * Register a listener to listen the elements added or removed.
+     * Unlike a {@link ChangeListener}, it is not notified of the changes of the elements.
+     * Nothing changes if the listener is already registered.
+     * 
+     * @param listener the listener to register (not null)
+     * @return true if the listener has been registered
+     */
+    public boolean addArrayListener(final ArrayListener<? super T> listener) {
+        return this.arrayListeners.add(listener, listener);
+    }
+    
+    /**
+     * Unregister a listener.
+     * 
+     * @param listener the listener to unregister
+     * @return true if the listener was registered
+     */
+    public boolean removeArrayListener(final ArrayListener<? super T> listener) {
+        return this.arrayListeners.remove(listener) != null;
+    }
+    
+    /**
+     * Reports array change to listeners, then to the listeners of the parents.
+     * The caches of the array and of its ancestors are invalidated first.
+     * A single event is created for all the change listeners, only if there are some.
+     * 
+     * @param event the event name
+     * @param index the new/old index of the element
+     * @param element the new/deleted element
+     */
+    @SuppressWarnings("unchecked")
+    private void fireEvent(final String event, final int index, final T element) {
+        this.eventNode.dirty(true);
+        for (Object listener : this.arrayListeners.array()) {
+            if (NEW.equals(event)) {
+                ((ArrayListener<? super T>) listener).onAdd(this, index, element);
+            } else {
+                ((ArrayListener<? super T>) listener).onRemove(this, index, element);
+            }
+        }
+        if (this.eventNode.isListened()) {
+            this.eventNode.fire(new ChangeEvent(this, event, null, element, index));
+        }
+    }
+    
+    /**
+     * Returns the node through which the changes bubble up to the parents.
+     * 
+     * @return the node
+     */
+    EventNode getEventNode() {
+        return this.eventNode;
+    }
+    
+    @Override
+    public byte[] getBytes() {
+        return Frames.toBytes(encodedSize(), this::writeTo);
+    }
+    
+    /**
+     * Encode each element directly into the given buffer.
+     * The memoized bytes are used if the cache is enabled and valid.
+     */
+    @Override
+    public void writeTo(final ByteBuffer buffer) {
+        if (this.cache != null && this.cache.writeTo(buffer)) {
+            return;
+        }
+        final int start = buffer.position();
+        for (IContent element : this.elements) {
+            if (element != null) {
+                element.writeTo(buffer);
+            }
+        }
+        if (this.cache != null) {
+            this.cache.store(this, buffer, start);
+        }
+    }
+
+    /**
+     * Decode each element one after the other from the given buffer.
+     * Only the current elements are decoded: the array must already hold the expected number of elements.
+     */
+    @Override
+    public void readFrom(final ByteBuffer buffer) {
+        for (T element : this.elements) {
+            if (element != null) {
+                element.readFrom(buffer);
+            }
+        }
+    }
+
+    /**
+     * Sum of the sizes of each element.
+     */
+    @Override
+    public int encodedSize() {
+        if (this.cache != null && this.cache.isValid()) {
+            return this.cache.size();
+        }
+        int size = 0;
+        for (IContent element : this.elements) {
+            if (element != null) {
+                size += element.encodedSize();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Enable or disable the memoization of the encoded bytes of this array and of all its elements.
+     * Any change of the array or of its elements invalidates it.
+     * 
+     * @param enabled true to enable the cache
+     */
+    public void setCaching(final boolean enabled) {
+        if (enabled && this.cache == null) {
+            for (IContent element : this.elements) {
+                EncodingCache.setCaching(element, true);
+            }
+            this.cache = new EncodingCache();
+            this.eventNode.setCache(this.cache);
+        } else if (!enabled && this.cache != null) {
+            this.eventNode.setCache(null);
+            this.cache = null;
+            for (IContent element : this.elements) {
+                EncodingCache.setCaching(element, false);
+            }
+        }
+    }
+    
+    /**
+     * Returns the cache of the encoded bytes.
+     * 
+     * @return the cache or null if disabled
+     */
+    public EncodingCache getEncodingCache() {
+        return this.cache;
+    }
+    
+    /**
+     * Enable or disable the lazy decoding mode of all the parameters of this array.
+     * The elements added later inherit the mode.
+     * 
+     * @param enabled true to decode the values on the first access
+     * @see Parameter#setLazyDecoding(boolean)
+     */
+    public void setLazyDecoding(final boolean enabled) {
+        this.lazyDecoding = enabled;
+        for (IContent element : this.elements) {
+            Frames.setLazyDecoding(element, enabled);
+        }
+    }
+    
+    /**
+     * Returns true if the parameters of this array are decoded on the first access.
+     * 
+     * @return true in lazy decoding mode
+     */
+    public boolean isLazyDecoding() {
+        return this.lazyDecoding;
+    }
+
+    /**
+     * Join or leave an update in progress with all the elements.
+     * The elements added later join it too.
+     * 
+     * @param scope the update to join or null to leave it
+     */
+    void setUpdateScope(final UpdateScope scope) {
+        this.updateScope = scope;
+        for (IContent element : this.elements) {
+            UpdateScope.join(element, scope);
+        }
+    }
+    
+    /**
+     * To iterate over elements
+     */
+    @Override
+    public final Iterator<T> iterator() {
+        return this.elements.iterator();
+    }
+
+    /**
+     * Returns the total number of elements.
+     * @return total number of elements
+     */
+    public final int size() {
+        return this.elements.size();
+    }
+    
+    /**
+     * Returns the element at the given index.
+     * 
+     * @param index the index of the element
+     * @return the element
+     * @throws IndexOutOfBoundsException if there is no such element
+     */
+    public final T get(final int index) {
+        return this.elements.get(index);
+    }
+    
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Memoized encoded bytes of a content.
+ * <p>
+ * Any change of a content invalidates its cache and the caches of its ancestors, without notifying
+ * any listener: a cached content is not listened. When a content is encoded again, only the dirty
+ * contents are re-encoded: the cached bytes of the others are copied as is.
+ * </p>
+ * <p>
+ * A content whose encoding does not only depend on its value (see {@link IType#isDeterministic()})
+ * is never memoized, neither are its ancestors.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class EncodingCache {
+
+    /**
+     * The memoized bytes (null if dirty).
+     */
+    private byte[] bytes;
+
+    /**
+     * True if the content can be memoized, null if it must be checked again.
+     */
+    private Boolean deterministic;
+
+    /**
+     * Number of encodings served from the cache.
+     */
+    private long hits;
+
+    /**
+     * Number of encodings that required to encode the content.
+     */
+    private long misses;
+
+    /**
+     * Constructor.
+     */
+    EncodingCache() {
+        // Nothing to do
+    }
+
+    /**
+     * Returns the number of encodings served from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of encodings that required to encode the content.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Returns true if the cache holds the encoded bytes of the content.
+     *
+     * @return true if valid
+     */
+    public boolean isValid() {
+        return this.bytes != null;
+    }
+
+    /**
+     * Drop the memoized bytes so that the content will be encoded again.
+     */
+    public void invalidate() {
+        this.bytes = null;
+    }
+
+    /**
+     * Invalidate the cache after a structural change of the content.
+     * It also forces to check again whether the content can be memoized.
+     */
+    void reset() {
+        this.bytes = null;
+        this.deterministic = null;
+    }
+
+    /**
+     * Returns the size of the memoized bytes.
+     *
+     * @return the size in bytes or -1 if the cache is not valid
+     */
+    int size() {
+        return this.bytes == null ? -1 : this.bytes.length;
+    }
+
+    /**
+     * Copy the memoized bytes into the buffer if the cache is valid.
+     *
+     * @param buffer the buffer to write into (not null)
+     * @return true if the bytes have been copied, false if the content must be encoded
+     */
+    boolean writeTo(final ByteBuffer buffer) {
+        if (this.bytes == null) {
+            this.misses++;
+            return false;
+        }
+        this.hits++;
+        buffer.put(this.bytes);
+        return true;
+    }
+
+    /**
+     * Returns a read-only view of the memoized bytes, so that they can be copied piece by piece.
+     * It is counted as an encoding served from the cache.
+     *
+     * @return the view or null if the cache is not valid
+     */
+    public ByteBuffer asReadOnlyBuffer() {
+        if (this.bytes == null) {
+            return null;
+        }
+        this.hits++;
+        return ByteBuffer.wrap(this.bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Memoize the bytes of the content just encoded into the buffer.
+     *
+     * @param content the encoded content (not null)
+     * @param buffer the buffer the content has just been written into (not null)
+     * @param start the position of the first encoded byte in the buffer
+     */
+    void store(final IContent content, final ByteBuffer buffer, final int start) {
+        if (this.deterministic == null) {
+            this.deterministic = isDeterministic(content);
+        }
+        if (this.deterministic) {
+            final byte[] encoded = new byte[buffer.position() - start];
+            buffer.get(start, encoded);
+            this.bytes = encoded;
+        }
+    }
+
+    /**
+     * Enable or disable the cache of a content and of all its descendants.
+     *
+     * @param content the content (may be null)
+     * @param enabled true to enable the cache
+     */
+    static void setCaching(final IContent content, final boolean enabled) {
+        if (content instanceof Parameter) {
+            ((Parameter<?>) content).setCaching(enabled);
+        } else if (content instanceof AbsContent) {
+            ((AbsContent) content).setCaching(enabled);
+        } else if (content instanceof DynamicArray) {
+            ((DynamicArray<?>) content).setCaching(enabled);
+        }
+    }
+
+    /**
+     * Check if the encoding of a content only depends on the values of its parameters.
+     *
+     * @param content the content to check (may be null)
+     * @return true if the encoded bytes of the content can be memoized
+     */
+    private static boolean isDeterministic(final IContent content) {
+        if (content == null) {
+            return true;
+        }
+        if (content instanceof Parameter) {
+            return ((Parameter<?>) content).getType().isDeterministic();
+        }
+        if (content instanceof AbsColumn) {
+            return true;
+        }
+        if (content instanceof AbsContent) {
+            for (IContent child : ((AbsContent) content).getOrderedContents()) {
+                if (!isDeterministic(child)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (content instanceof DynamicArray) {
+            for (IContent element : (DynamicArray<?>) content) {
+                if (!isDeterministic(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+}
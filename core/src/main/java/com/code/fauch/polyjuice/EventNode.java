@@ -0,0 +1,282 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node of the tree of contents through which the events bubble up.
+ * <p>
+ * Each content notifies its own listeners, then the event bubbles up to the listeners of its parents, of
+ * their parents and so on. A listener is registered only to the content it listens to, and a content added
+ * to a parent is only linked to it: both are done in constant time whatever the size of the tree.
+ * A content may have several parents; it is linked as many times to a parent as it is added to it.
+ * </p>
+ * <p>
+ * A content whose class is unknown cannot be linked: the parent listens to it like any listener.
+ * </p>
+ * <p>
+ * The encoding caches are not listeners: a change marks dirty the cache of the content and the ones of its
+ * ancestors without building any event, so that a cached content is not considered as listened.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+final class EventNode {
+
+    /**
+     * Node without parent.
+     */
+    private static final EventNode[] NONE = new EventNode[0];
+
+    /**
+     * The listeners of the content.
+     */
+    private final ListenerList<ChangeListener> listeners;
+
+    /**
+     * The listener notifying this node of the changes of a content that cannot be linked.
+     */
+    private final ChangeListener relay;
+
+    /**
+     * The cache of the encoded bytes of the content (null if disabled).
+     */
+    private volatile EncodingCache cache;
+
+    /**
+     * The number of links to each parent (guarded by this, null until the first link).
+     */
+    private Map<EventNode, int[]> links;
+
+    /**
+     * The parents.
+     */
+    private volatile EventNode[] parents;
+
+    /**
+     * Constructor.
+     *
+     * @param listeners the listeners of the content (not null)
+     */
+    EventNode(final ListenerList<ChangeListener> listeners) {
+        this.listeners = listeners;
+        this.relay = this::relay;
+        this.parents = NONE;
+    }
+
+    /**
+     * Returns the node of a content.
+     *
+     * @param content the content (may be null)
+     * @return the node or null if the content cannot be linked
+     */
+    static EventNode of(final IContent content) {
+        if (content instanceof Parameter) {
+            return ((Parameter<?>) content).getEventNode();
+        } else if (content instanceof AbsContent) {
+            return ((AbsContent) content).getEventNode();
+        } else if (content instanceof DynamicArray) {
+            return ((DynamicArray<?>) content).getEventNode();
+        } else if (content instanceof AbsColumn) {
+            return ((AbsColumn) content).getEventNode();
+        }
+        return null;
+    }
+
+    /**
+     * Link a content to its parent.
+     *
+     * @param child the content (may be null)
+     * @param parent the node of its parent (not null)
+     */
+    static void link(final IContent child, final EventNode parent) {
+        final EventNode node = of(child);
+        if (node != null) {
+            node.link(parent);
+        } else if (child != null) {
+            child.addChangeListener(parent.relay);
+        }
+    }
+
+    /**
+     * Unlink a content from its parent.
+     *
+     * @param child the content (may be null)
+     * @param parent the node of its parent (not null)
+     */
+    static void unlink(final IContent child, final EventNode parent) {
+        final EventNode node = of(child);
+        if (node != null) {
+            node.unlink(parent);
+        } else if (child != null) {
+            child.removeChangeListener(parent.relay);
+        }
+    }
+
+    /**
+     * Returns true if an event of the content would be notified to some listeners.
+     *
+     * @return true if the content or one of its ancestors has listeners
+     */
+    boolean isListened() {
+        return !this.listeners.isEmpty() || hasListenedParent();
+    }
+
+    /**
+     * Returns true if an event of the content would be notified to the listeners of its ancestors.
+     *
+     * @return true if one of the ancestors has listeners
+     */
+    boolean hasListenedParent() {
+        for (EventNode parent : this.parents) {
+            if (parent.isListened()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Notify an event to the listeners of the content, then to the ones of its ancestors.
+     *
+     * @param event the event (not null)
+     */
+    void fire(final ChangeEvent event) {
+        for (Object listener : this.listeners.array()) {
+            ((ChangeListener) listener).onChange(event);
+        }
+        bubble(event);
+    }
+
+    /**
+     * Notify an event to the listeners of the ancestors of the content.
+     *
+     * @param event the event (not null)
+     */
+    void bubble(final ChangeEvent event) {
+        for (EventNode parent : this.parents) {
+            parent.fire(event);
+        }
+    }
+
+    /**
+     * Set the cache of the encoded bytes of the content.
+     *
+     * @param cache the cache or null if disabled
+     */
+    void setCache(final EncodingCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Invalidate the encoding caches of the content and of its ancestors after a change.
+     * No listener is notified.
+     *
+     * @param structural true if the contents have changed, not only their values
+     */
+    void dirty(final boolean structural) {
+        final EncodingCache current = this.cache;
+        if (current != null) {
+            if (structural) {
+                current.reset();
+            } else {
+                current.invalidate();
+            }
+        }
+        for (EventNode parent : this.parents) {
+            parent.dirty(structural);
+        }
+    }
+
+    /**
+     * Notify an event of a content that cannot be linked, after having invalidated the caches.
+     *
+     * @param event the event (not null)
+     */
+    private void relay(final ChangeEvent event) {
+        dirty(!Parameter.VALUE.equals(event.getPropertyName()));
+        fire(event);
+    }
+
+    /**
+     * Collect the listeners of the content and of its ancestors.
+     * A node or a listener already in the given map is skipped.
+     *
+     * @param visited the nodes and listeners already collected (not null)
+     * @param collected the collected listeners (not null)
+     */
+    void collect(final Map<Object, Boolean> visited, final List<ChangeListener> collected) {
+        if (visited.put(this, Boolean.TRUE) != null) {
+            return;
+        }
+        for (Object listener : this.listeners.array()) {
+            if (visited.put(listener, Boolean.TRUE) == null) {
+                collected.add((ChangeListener) listener);
+            }
+        }
+        for (EventNode parent : this.parents) {
+            parent.collect(visited, collected);
+        }
+    }
+
+    /**
+     * Add a link to a parent.
+     *
+     * @param parent the node of the parent (not null)
+     */
+    private synchronized void link(final EventNode parent) {
+        if (this.links == null) {
+            this.links = new IdentityHashMap<>(2);
+        }
+        final int[] count = this.links.get(parent);
+        if (count != null) {
+            count[0]++;
+        } else {
+            this.links.put(parent, new int[] {1});
+            final EventNode[] current = this.parents;
+            final EventNode[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = parent;
+            this.parents = updated;
+        }
+    }
+
+    /**
+     * Remove a link to a parent.
+     *
+     * @param parent the node of the parent (not null)
+     */
+    private synchronized void unlink(final EventNode parent) {
+        final int[] count = this.links == null ? null : this.links.get(parent);
+        if (count == null || --count[0] > 0) {
+            return;
+        }
+        this.links.remove(parent);
+        final EventNode[] current = this.parents;
+        final EventNode[] updated = new EventNode[current.length - 1];
+        int j = 0;
+        for (EventNode p : current) {
+            if (p != parent) {
+                updated[j++] = p;
+            }
+        }
+        this.parents = updated;
+    }
+
+}
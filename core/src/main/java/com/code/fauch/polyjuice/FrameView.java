@@ -0,0 +1,372 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Read-only view over encoded frames of contents with a fixed layout.
+ * <p>
+ * A view is a flyweight: it holds no parameter, it only knows the offsets of the fields given by
+ * the layout and reads each requested field directly in the buffer at these offsets. It can be
+ * moved from one record to another in the same buffer without allocating anything, so that only
+ * the requested fields of millions of records are decoded.
+ * </p>
+ * <p>
+ * The primitive getters (like {@link #getInt(String)}) require a field whose type is
+ * primitive-aware (like {@link IIntType}) and whose bytes are all in the frame.
+ * A view is not thread-safe. The content of the buffer is never changed.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class FrameView {
+
+    /**
+     * The layout of the records.
+     */
+    private final Layout layout;
+
+    /**
+     * The wrapped buffer.
+     */
+    private ByteBuffer source;
+
+    /**
+     * Private cursor over the wrapped buffer, used to decode the fields.
+     */
+    private ByteBuffer cursor;
+
+    /**
+     * The offset of the current record in the wrapped buffer.
+     */
+    private int offset;
+
+    /**
+     * Constructor.
+     *
+     * @param layout the layout of the records (not null)
+     */
+    public FrameView(final Layout layout) {
+        this.layout = Objects.requireNonNull(layout, "layout is missing");
+    }
+
+    /**
+     * Creates a view over the frames of contents with the same structure as the given one.
+     *
+     * @param content the content (not null)
+     * @return the new view
+     * @throws IllegalArgumentException if the content has no fixed layout
+     */
+    public static FrameView of(final IContent content) {
+        return new FrameView(Layout.of(content));
+    }
+
+    /**
+     * Creates a view over the frames of the contents of the given class.
+     * The layout is computed on an instance built with the public constructor without parameters.
+     *
+     * @param clss the class of the contents (not null)
+     * @return the new view
+     * @throws IllegalArgumentException if the class cannot be instantiated or if it has no fixed layout
+     */
+    public static FrameView of(final Class<? extends IContent> clss) {
+        final IContent prototype;
+        try {
+            prototype = Objects.requireNonNull(clss, "clss is missing").getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("unable to instantiate " + clss.getName(), e);
+        }
+        return of(prototype);
+    }
+
+    /**
+     * Returns the layout of the records.
+     *
+     * @return the layout
+     */
+    public Layout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Returns the offset of the current record in the wrapped buffer.
+     *
+     * @return the offset in bytes
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Wrap a buffer: the current record starts at the current position of the buffer.
+     *
+     * @param buffer the buffer to read (not null)
+     * @return this view
+     * @throws IndexOutOfBoundsException if the record is beyond the limit of the buffer
+     */
+    public FrameView wrap(final ByteBuffer buffer) {
+        return wrap(buffer, buffer.position());
+    }
+
+    /**
+     * Wrap a buffer: the current record starts at the given offset.
+     * Wrapping again the same buffer does not allocate anything.
+     *
+     * @param buffer the buffer to read (not null)
+     * @param offset the offset of the record in the buffer
+     * @return this view
+     * @throws IndexOutOfBoundsException if the record is beyond the limit of the buffer
+     */
+    public FrameView wrap(final ByteBuffer buffer, final int offset) {
+        if (buffer != this.source) {
+            this.cursor = Objects.requireNonNull(buffer, "buffer is missing").duplicate();
+            this.source = buffer;
+        }
+        return moveTo(offset);
+    }
+
+    /**
+     * Move to the record starting at the given offset in the wrapped buffer.
+     *
+     * @param offset the offset of the record
+     * @return this view
+     * @throws IndexOutOfBoundsException if the record is beyond the limit of the buffer
+     * @throws IllegalStateException if no buffer is wrapped
+     */
+    public FrameView moveTo(final int offset) {
+        if (this.source == null) {
+            throw new IllegalStateException("no wrapped buffer");
+        }
+        if (offset < 0 || offset > this.source.limit() - this.layout.size()) {
+            throw new IndexOutOfBoundsException("no record at " + offset);
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Returns true if there is a whole record after the current one in the wrapped buffer.
+     *
+     * @return true if {@link #next()} can be called
+     */
+    public boolean hasNext() {
+        return this.source != null && this.offset + 2L * this.layout.size() <= this.source.limit();
+    }
+
+    /**
+     * Move to the record following the current one in the wrapped buffer.
+     *
+     * @return this view
+     * @throws IndexOutOfBoundsException if there is no next record
+     * @throws IllegalStateException if no buffer is wrapped
+     */
+    public FrameView next() {
+        return moveTo(this.offset + this.layout.size());
+    }
+
+    /**
+     * Read a short field of the current record.
+     *
+     * @param path the path of the field (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field is unknown or has not a short type
+     */
+    public short getShort(final String path) {
+        return getShort(field(path));
+    }
+
+    /**
+     * Read a short field of the current record.
+     *
+     * @param field the field of the layout (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field has not a short type
+     */
+    public short getShort(final Layout.Field field) {
+        return type(field, IShortType.class).decodeShort(seek(field));
+    }
+
+    /**
+     * Read an int field of the current record.
+     *
+     * @param path the path of the field (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field is unknown or has not an int type
+     */
+    public int getInt(final String path) {
+        return getInt(field(path));
+    }
+
+    /**
+     * Read an int field of the current record.
+     *
+     * @param field the field of the layout (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field has not an int type
+     */
+    public int getInt(final Layout.Field field) {
+        return type(field, IIntType.class).decodeInt(seek(field));
+    }
+
+    /**
+     * Read a long field of the current record.
+     *
+     * @param path the path of the field (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field is unknown or has not a long type
+     */
+    public long getLong(final String path) {
+        return getLong(field(path));
+    }
+
+    /**
+     * Read a long field of the current record.
+     *
+     * @param field the field of the layout (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field has not a long type
+     */
+    public long getLong(final Layout.Field field) {
+        return type(field, ILongType.class).decodeLong(seek(field));
+    }
+
+    /**
+     * Read a float field of the current record.
+     *
+     * @param path the path of the field (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field is unknown or has not a float type
+     */
+    public float getFloat(final String path) {
+        return getFloat(field(path));
+    }
+
+    /**
+     * Read a float field of the current record.
+     *
+     * @param field the field of the layout (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field has not a float type
+     */
+    public float getFloat(final Layout.Field field) {
+        return type(field, IFloatType.class).decodeFloat(seek(field));
+    }
+
+    /**
+     * Read a double field of the current record.
+     *
+     * @param path the path of the field (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field is unknown or has not a double type
+     */
+    public double getDouble(final String path) {
+        return getDouble(field(path));
+    }
+
+    /**
+     * Read a double field of the current record.
+     *
+     * @param field the field of the layout (not null)
+     * @return the value
+     * @throws IllegalArgumentException if the field has not a double type
+     */
+    public double getDouble(final Layout.Field field) {
+        return type(field, IDoubleType.class).decodeDouble(seek(field));
+    }
+
+    /**
+     * Decode any field of the current record with its type.
+     * Unlike the primitive getters, the field may be truncated or have a variable size.
+     *
+     * @param path the path of the field (not null)
+     * @return the decoded value (may be null)
+     * @throws IllegalArgumentException if the field is unknown
+     * @throws UnsupportedOperationException if the type cannot be decoded
+     */
+    public Object getValue(final String path) {
+        return getValue(field(path));
+    }
+
+    /**
+     * Decode any field of the current record with its type.
+     * Unlike the primitive getters, the field may be truncated or have a variable size.
+     *
+     * @param field the field of the layout (not null)
+     * @return the decoded value (may be null)
+     * @throws UnsupportedOperationException if the type cannot be decoded
+     */
+    public Object getValue(final Layout.Field field) {
+        final ByteBuffer bytes = seek(field);
+        if (field.isComplete() || field.getType().fixedSize() == IType.VARIABLE_SIZE) {
+            return field.getType().decode(bytes);
+        }
+        final ByteBuffer padded = ByteBuffer.allocate(field.getType().fixedSize());
+        padded.put(bytes).clear();
+        return field.getType().decode(padded);
+    }
+
+    /**
+     * Research a field of the layout.
+     *
+     * @param path the path of the field (not null)
+     * @return the field
+     * @throws IllegalArgumentException if there is no such field
+     */
+    private Layout.Field field(final String path) {
+        final Layout.Field field = this.layout.getField(path);
+        if (field == null) {
+            throw new IllegalArgumentException("unknown field: " + path);
+        }
+        return field;
+    }
+
+    /**
+     * Check the type of a field read with a primitive getter.
+     *
+     * @param <V> the expected class of type
+     * @param field the field (not null)
+     * @param expected the expected class of type (not null)
+     * @return the type of the field
+     * @throws IllegalArgumentException if the type is not expected or if the field is truncated
+     */
+    private static <V extends IType<?>> V type(final Layout.Field field, final Class<V> expected) {
+        if (!expected.isInstance(field.getType())) {
+            throw new IllegalArgumentException("field " + field.getPath() + " is not a " + expected.getSimpleName());
+        }
+        if (!field.isComplete()) {
+            throw new IllegalArgumentException("field " + field.getPath() + " is truncated");
+        }
+        return expected.cast(field.getType());
+    }
+
+    /**
+     * Bound the cursor to the bytes of a field of the current record.
+     *
+     * @param field the field (not null)
+     * @return the cursor
+     * @throws IllegalStateException if no buffer is wrapped
+     */
+    private ByteBuffer seek(final Layout.Field field) {
+        if (this.cursor == null) {
+            throw new IllegalStateException("no wrapped buffer");
+        }
+        final int start = this.offset + field.getOffset();
+        return this.cursor.limit(start + field.getLength()).position(start);
+    }
+
+}
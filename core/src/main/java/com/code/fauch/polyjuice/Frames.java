@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Utility class used by composite contents to build their encoded sequence of bytes
+ * on top of {@link IContent#writeTo(ByteBuffer)}.
+ * 
+ * @author c.fauch
+ *
+ */
+final class Frames {
+
+    /**
+     * No constructor
+     */
+    private Frames() {
+        // Nothing to do
+    }
+    
+    /**
+     * Encode a content into a new array of bytes allocated once with the exact encoded size.
+     * 
+     * @param size the exact size in bytes of the encoded content
+     * @param writer the function writing the encoded content into a buffer (not null)
+     * @return the encoded content
+     */
+    static byte[] toBytes(final int size, final Consumer<ByteBuffer> writer) {
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        writer.accept(buffer);
+        return buffer.array();
+    }
+    
+    /**
+     * Enable or disable the lazy decoding mode of a content and of all its descendants.
+     * 
+     * @param content the content (may be null)
+     * @param enabled true to decode the values on the first access
+     */
+    static void setLazyDecoding(final IContent content, final boolean enabled) {
+        if (content instanceof Parameter) {
+            ((Parameter<?>) content).setLazyDecoding(enabled);
+        } else if (content instanceof AbsContent) {
+            ((AbsContent) content).setLazyDecoding(enabled);
+        } else if (content instanceof DynamicArray) {
+            ((DynamicArray<?>) content).setLazyDecoding(enabled);
+        }
+    }
+    
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Describes the content of a payload.
+ * 
+ * @author c.fauch
+ *
+ */
+public interface IContent {
+
+    /**
+     * Register a listener to listen all changes on this content.
+     * Nothing changes if an equal listener is already registered.
+     * 
+     * @param listener the listener to register (not null)
+     * @return the registered listener
+     */
+    ChangeListener addChangeListener(ChangeListener listener);
+    
+    /**
+     * Unregister a listener.
+     * 
+     * @param listener the listener to unregister
+     */
+    void removeChangeListener(ChangeListener listener);
+
+    /**
+     * Encode this content into a sequence of bytes.
+     * 
+     * @return the encoded content
+     */
+    byte[] getBytes();
+    
+    /**
+     * Encode this content directly into the given buffer, starting at its current position.
+     * The position of the buffer is advanced by the number of written bytes.
+     * By default the bytes of {@link #getBytes()} are copied: implementations should override it
+     * to encode without allocating.
+     * 
+     * @param buffer the buffer to write into (not null)
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    default void writeTo(ByteBuffer buffer) {
+        buffer.put(getBytes());
+    }
+    
+    /**
+     * Decode this content from the given buffer, starting at its current position, and set the
+     * decoded values to the parameters of this content in place.
+     * The position of the buffer is advanced by the number of read bytes.
+     * By default decoding is not supported.
+     * 
+     * @param buffer the buffer to read from (not null)
+     * @throws java.nio.BufferUnderflowException if the buffer is too small
+     * @throws UnsupportedOperationException if this content cannot be decoded
+     */
+    default void readFrom(ByteBuffer buffer) {
+        throw new UnsupportedOperationException("decoding not supported by " + getClass().getName());
+    }
+    
+    /**
+     * Returns the exact number of bytes written when this content is encoded.
+     * By default the content is encoded to be measured: implementations should override it.
+     * 
+     * @return the size in bytes
+     */
+    default int encodedSize() {
+        return getBytes().length;
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Type of values held by a java <code>double</code> that can be encoded without boxing.
+ * 
+ * @author c.fauch
+ *
+ */
+public interface IDoubleType extends IType<Double> {
+
+    /**
+     * Encode a double value directly into the given buffer, starting at its current position.
+     * The result is the same as {@link #encodeInto(Object, ByteBuffer)} with the boxed value.
+     * 
+     * @param value the value to encode
+     * @param buffer the buffer to write into (not null)
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    void encodeDouble(double value, ByteBuffer buffer);
+    
+    /**
+     * Decode a double value from the given buffer, starting at its current position.
+     * The result is the same as {@link #decode(ByteBuffer)} without boxing.
+     * 
+     * @param buffer the buffer to read from (not null)
+     * @return the decoded value
+     * @throws java.nio.BufferUnderflowException if the buffer is too small
+     */
+    double decodeDouble(ByteBuffer buffer);
+    
+}
@@ -12,12 +12,10 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package com.code.fauch.polyjuice.mapping;
+package com.code.fauch.polyjuice;
 
 import java.util.List;
 
-import com.code.fauch.polyjuice.IContent;
-
 /**
  * Interface describing the expected contract of object to build by ObjectFactory.
  * This type of object should maintain an ordered list of parameters.
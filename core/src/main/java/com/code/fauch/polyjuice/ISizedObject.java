@@ -12,7 +12,7 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package com.code.fauch.polyjuice.mapping;
+package com.code.fauch.polyjuice;
 
 /**
  * Interface describing the expected contract of object to build by SizedObjectFactory.
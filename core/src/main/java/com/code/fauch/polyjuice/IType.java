@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Describe a parameter type.
+ * Is is used to encode the value of a parameter.
+ * 
+ * @author c.fauch
+ *
+ */
+public interface IType<T> {
+
+    /**
+     * Value returned by {@link #fixedSize()} when the size of the encoded value depends on the value.
+     */
+    int VARIABLE_SIZE = -1;
+
+    /**
+     * Returns the expected java class of the value (in java memory).
+     *  
+     * @return the value class
+     */
+    Class<? extends T> getValueClass();
+    
+    /**
+     * Encode a value into a sequence of bytes.
+     * 
+     * @param value the value to encode (may be null)
+     * @return the encoded value or empty if the value is null
+     */
+    byte[] encode(T value);
+    
+    /**
+     * Encode a value directly into the given buffer, starting at its current position.
+     * The position of the buffer is advanced by the number of written bytes.
+     * By default the result of {@link #encode(Object)} is copied into the buffer.
+     * 
+     * @param value the value to encode (may be null)
+     * @param buffer the buffer to write into (not null)
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    default void encodeInto(T value, ByteBuffer buffer) {
+        buffer.put(encode(value));
+    }
+    
+    /**
+     * Decode a value from the given buffer, starting at its current position.
+     * The position of the buffer is advanced by the number of read bytes.
+     * A type whose size is variable reads all the remaining bytes of the buffer.
+     * By default decoding is not supported.
+     * 
+     * @param buffer the buffer to read from (not null)
+     * @return the decoded value (may be null)
+     * @throws java.nio.BufferUnderflowException if the buffer is too small
+     * @throws UnsupportedOperationException if this type cannot be decoded
+     */
+    default T decode(ByteBuffer buffer) {
+        throw new UnsupportedOperationException("decoding not supported by " + getName());
+    }
+    
+    /**
+     * Returns the size in bytes of every encoded value of this type.
+     * 
+     * @return the size in bytes or {@link #VARIABLE_SIZE} if it depends on the value
+     */
+    default int fixedSize() {
+        return VARIABLE_SIZE;
+    }
+    
+    /**
+     * Returns the exact size in bytes of the given encoded value.
+     * By default the value is encoded when the size of this type is variable.
+     * 
+     * @param value the value (may be null)
+     * @return the size in bytes
+     */
+    default int sizeOf(T value) {
+        final int size = fixedSize();
+        return size == VARIABLE_SIZE ? encode(value).length : size;
+    }
+    
+    /**
+     * Returns true if the encoded value only depends on the value itself, so that it can be memoized.
+     * A type encoding the current time for instance is not deterministic.
+     * 
+     * @return true by default
+     */
+    default boolean isDeterministic() {
+        return true;
+    }
+    
+    /**
+     * Returns the name of this type like expected in text.
+     * 
+     * @return the name (not null)
+     */
+    String getName();
+    
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Offset table of a content whose encoded parameters always have the same position.
+ * <p>
+ * Such a content is only made of parameters with a fixed size, of sub-contents with a fixed layout
+ * and of fixed-size contents. The last parameter of a fixed-size content may have a variable
+ * size: it occupies the remaining bytes of the fixed-size content.
+ * </p>
+ * <p>
+ * Each parameter is identified by a path made of the names of the sub-contents and of the label
+ * of the parameter separated by dots (<code>subContent.msgSize</code>). The name of a sub-content
+ * is the name of the getter declared to return it in its parent, or its position in the parent if there is
+ * no such getter or if its type is shared with another sub-content. The getters are never called.
+ * </p>
+ * <p>
+ * A layout only depends on the structure of a content so it can be shared by all the contents
+ * with the same structure.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class Layout {
+
+    /**
+     * Separator of the names in a path.
+     */
+    public static final char SEPARATOR = '.';
+
+    /**
+     * Position of a parameter in the encoded content.
+     *
+     * @author c.fauch
+     *
+     */
+    public static final class Field {
+
+        /**
+         * The path of the parameter.
+         */
+        private final String path;
+
+        /**
+         * The index of the parameter in the layout.
+         */
+        private final int index;
+
+        /**
+         * The offset of the first byte of the parameter.
+         */
+        private final int offset;
+
+        /**
+         * The number of bytes of the parameter in the encoded content.
+         */
+        private final int length;
+
+        /**
+         * The type of the parameter.
+         */
+        private final IType<?> type;
+
+        /**
+         * Constructor.
+         *
+         * @param path the path of the parameter (not null)
+         * @param index the index of the parameter in the layout
+         * @param offset the offset of the first byte
+         * @param length the number of bytes in the encoded content
+         * @param type the type of the parameter (not null)
+         */
+        private Field(final String path, final int index, final int offset, final int length, final IType<?> type) {
+            this.path = path;
+            this.index = index;
+            this.offset = offset;
+            this.length = length;
+            this.type = type;
+        }
+
+        /**
+         * Returns the path of the parameter.
+         *
+         * @return the path
+         */
+        public String getPath() {
+            return this.path;
+        }
+
+        /**
+         * Returns the index of the parameter in the layout (depth-first order).
+         *
+         * @return the index
+         */
+        public int getIndex() {
+            return this.index;
+        }
+
+        /**
+         * Returns the offset of the first byte of the parameter in the encoded content.
+         *
+         * @return the offset in bytes
+         */
+        public int getOffset() {
+            return this.offset;
+        }
+
+        /**
+         * Returns the number of bytes of the parameter in the encoded content.
+         * It may be less than the size of the type when the parameter is truncated by a fixed-size content.
+         *
+         * @return the length in bytes
+         */
+        public int getLength() {
+            return this.length;
+        }
+
+        /**
+         * Returns the type of the parameter.
+         *
+         * @return the type
+         */
+        public IType<?> getType() {
+            return this.type;
+        }
+
+        /**
+         * Returns true if the whole encoded value is available in the encoded content.
+         *
+         * @return true if all the bytes of the type are there
+         */
+        public boolean isComplete() {
+            return this.type.fixedSize() == this.length;
+        }
+
+        @Override
+        public String toString() {
+            return "Field [path=" + path + ", offset=" + offset + ", length=" + length + ", type=" + type.getName() + "]";
+        }
+
+    }
+
+    /**
+     * All the fields in depth-first order.
+     */
+    private final List<Field> fields;
+
+    /**
+     * The fields by path.
+     */
+    private final Map<String, Field> paths;
+
+    /**
+     * The size in bytes of the encoded content.
+     */
+    private final int size;
+
+    /**
+     * Constructor.
+     *
+     * @param fields the fields in depth-first order (not null)
+     * @param size the size of the encoded content
+     */
+    private Layout(final List<Field> fields, final int size) {
+        this.fields = Collections.unmodifiableList(fields);
+        final Map<String, Field> paths = new LinkedHashMap<>();
+        for (Field field : fields) {
+            paths.putIfAbsent(field.getPath(), field);
+        }
+        this.paths = Collections.unmodifiableMap(paths);
+        this.size = size;
+    }
+
+    /**
+     * Computes the layout of a content.
+     *
+     * @param content the content (not null)
+     * @return the layout
+     * @throws IllegalArgumentException if the position of the parameters may change
+     */
+    public static Layout of(final IContent content) {
+        final Walker walker = new Walker();
+        walker.walk(Objects.requireNonNull(content, "content is missing"), null, Integer.MAX_VALUE);
+        return new Layout(walker.fields, walker.offset);
+    }
+
+    /**
+     * Returns the size in bytes of the encoded content.
+     *
+     * @return the size in bytes
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns all the fields in depth-first order.
+     *
+     * @return the fields (unmodifiable)
+     */
+    public List<Field> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * Returns the field of the given path.
+     *
+     * @param path the path of the parameter
+     * @return the field or null if not found
+     */
+    public Field getField(final String path) {
+        return this.paths.get(path);
+    }
+
+    /**
+     * Returns all the parameters of a content in depth-first order, that is in the same order
+     * as the fields of its layout.
+     *
+     * @param content the content (not null)
+     * @return the parameters
+     */
+    static List<Parameter<?>> parametersOf(final IContent content) {
+        final List<Parameter<?>> parameters = new ArrayList<>();
+        collect(content, parameters);
+        return parameters;
+    }
+
+    /**
+     * Collect the parameters of a content.
+     *
+     * @param content the content (may be null)
+     * @param parameters the list to fill (not null)
+     */
+    private static void collect(final IContent content, final List<Parameter<?>> parameters) {
+        if (content instanceof Parameter) {
+            parameters.add((Parameter<?>) content);
+        } else if (content instanceof AbsContent) {
+            for (IContent child : ((AbsContent) content).getOrderedContents()) {
+                collect(child, parameters);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Layout [size=" + size + ", fields=" + fields + "]";
+    }
+
+    /**
+     * Walk through a content to compute the offsets of its parameters.
+     *
+     * @author c.fauch
+     *
+     */
+    private static final class Walker {
+
+        /**
+         * The computed fields.
+         */
+        private final List<Field> fields = new ArrayList<>();
+
+        /**
+         * The current offset.
+         */
+        private int offset;
+
+        /**
+         * The end of the fixed-size content closed by a parameter with a variable size (-1 if none).
+         */
+        private int closed = -1;
+
+        /**
+         * Compute the fields of a content.
+         *
+         * @param content the content (may be null)
+         * @param path the path of the content (null for the root)
+         * @param limit the end of the enclosing fixed-size content
+         */
+        private void walk(final IContent content, final String path, final int limit) {
+            if (content == null) {
+                return;
+            }
+            if (content instanceof Parameter) {
+                add((Parameter<?>) content, path, limit);
+            } else if (content instanceof AbsFixedSizeContent && ((AbsFixedSizeContent) content).getExpectedSize() != null) {
+                final int start = this.offset;
+                final int end = start + ((AbsFixedSizeContent) content).getExpectedSize();
+                walkChildren((AbsContent) content, path, Math.min(limit, end));
+                this.offset = end;
+            } else if (content instanceof AbsContent) {
+                walkChildren((AbsContent) content, path, limit);
+            } else {
+                throw new IllegalArgumentException("no fixed layout for " + content.getClass().getName()
+                        + (path == null ? "" : " at " + path));
+            }
+        }
+
+        /**
+         * Compute the fields of the contents of a composite content.
+         *
+         * @param content the content (not null)
+         * @param path the path of the content (null for the root)
+         * @param limit the end of the enclosing fixed-size content
+         */
+        private void walkChildren(final AbsContent content, final String path, final int limit) {
+            final List<IContent> children = content.getOrderedContents();
+            for (int i = 0; i < children.size(); i++) {
+                final IContent child = children.get(i);
+                walk(child, child instanceof Parameter ? path : join(path, nameOf(content, child, i)), limit);
+            }
+        }
+
+        /**
+         * Add the field of a parameter.
+         *
+         * @param parameter the parameter (not null)
+         * @param path the path of the enclosing content (null for the root)
+         * @param limit the end of the enclosing fixed-size content
+         */
+        private void add(final Parameter<?> parameter, final String path, final int limit) {
+            final String fullPath = join(path, parameter.getLabel());
+            if (this.closed == limit) {
+                throw new IllegalArgumentException("parameter after a variable size parameter: " + fullPath);
+            }
+            final int width = parameter.getType().fixedSize();
+            final int length;
+            if (width != IType.VARIABLE_SIZE) {
+                length = Math.max(0, Math.min(width, limit - this.offset));
+            } else if (limit != Integer.MAX_VALUE) {
+                length = Math.max(0, limit - this.offset);
+                this.closed = limit;
+            } else {
+                throw new IllegalArgumentException("variable size parameter out of a fixed-size content: " + fullPath);
+            }
+            this.fields.add(new Field(fullPath, this.fields.size(), this.offset, length, parameter.getType()));
+            this.offset += width == IType.VARIABLE_SIZE ? length : width;
+        }
+
+        /**
+         * Join the path of a content with a name.
+         *
+         * @param path the path (may be null)
+         * @param name the name (not null)
+         * @return the joined path
+         */
+        private static String join(final String path, final String name) {
+            return path == null ? name : path + SEPARATOR + name;
+        }
+
+        /**
+         * Research the name of a sub-content, that is the name of the getter declared to return it.
+         * The getters are not called: a getter names the sub-content only if it is the only getter whose
+         * declared type matches it, and if no other sub-content matches this type.
+         *
+         * @param parent the parent content (not null)
+         * @param child the sub-content (not null)
+         * @param index the position of the sub-content in the parent
+         * @return the name of the getter without prefix or the index if not found
+         */
+        private static String nameOf(final AbsContent parent, final IContent child, final int index) {
+            String found = null;
+            for (Method method : parent.getClass().getMethods()) {
+                final String name = method.getName();
+                if (name.length() > 3 && name.startsWith("get") && method.getParameterCount() == 0
+                        && !Modifier.isStatic(method.getModifiers()) && !method.isBridge()
+                        && IContent.class.isAssignableFrom(method.getReturnType())
+                        && method.getReturnType().isInstance(child)) {
+                    if (found != null || matchesOther(parent, child, method.getReturnType())) {
+                        return String.valueOf(index);
+                    }
+                    found = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+                }
+            }
+            return found == null ? String.valueOf(index) : found;
+        }
+
+        /**
+         * Check if another sub-content has the given type.
+         *
+         * @param parent the parent content (not null)
+         * @param child the sub-content (not null)
+         * @param type the type (not null)
+         * @return true if another sub-content is an instance of the type
+         */
+        private static boolean matchesOther(final AbsContent parent, final IContent child, final Class<?> type) {
+            for (IContent other : parent.getOrderedContents()) {
+                if (other != child && type.isInstance(other)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Copy-on-write list of listeners.
+ * <p>
+ * Each listener is registered under a key, usually the listener itself. A key is registered only once,
+ * according to its <code>equals</code> method, checked in constant time.
+ * The listeners are notified by iterating over {@link #array()}, which is neither copied nor locked:
+ * registering or unregistering a listener while an event is dispatched does not affect it.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ * @param <L> the type of listener
+ */
+final class ListenerList<L> {
+
+    /**
+     * Array without listener.
+     */
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * The listeners by key (guarded by this, null until the first registration).
+     */
+    private Map<Object, L> listeners;
+
+    /**
+     * The listeners in registration order.
+     */
+    private volatile Object[] array;
+
+    /**
+     * Constructor of an empty list.
+     */
+    ListenerList() {
+        this.array = EMPTY;
+    }
+
+    /**
+     * Register a listener under a key if the key is not registered yet.
+     *
+     * @param key the key (not null)
+     * @param listener the listener (not null)
+     * @return true if the listener has been registered
+     */
+    synchronized boolean add(final Object key, final L listener) {
+        Objects.requireNonNull(listener, "listener is missing");
+        if (this.listeners == null) {
+            this.listeners = new HashMap<>(4);
+        }
+        if (this.listeners.putIfAbsent(Objects.requireNonNull(key, "key is missing"), listener) != null) {
+            return false;
+        }
+        final Object[] current = this.array;
+        final Object[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        this.array = updated;
+        return true;
+    }
+
+    /**
+     * Unregister the listener of a key.
+     *
+     * @param key the key
+     * @return the unregistered listener or null if the key is not registered
+     */
+    synchronized L remove(final Object key) {
+        final L listener = this.listeners == null ? null : this.listeners.remove(key);
+        if (listener != null) {
+            final Object[] current = this.array;
+            final Object[] updated = new Object[current.length - 1];
+            int j = 0;
+            for (Object l : current) {
+                if (l != listener) {
+                    updated[j++] = l;
+                }
+            }
+            this.array = updated;
+        }
+        return listener;
+    }
+
+    /**
+     * Returns true if a key is registered.
+     *
+     * @param key the key
+     * @return true if registered
+     */
+    synchronized boolean contains(final Object key) {
+        return this.listeners != null && this.listeners.containsKey(key);
+    }
+
+    /**
+     * Returns true if there is no listener.
+     *
+     * @return true if empty
+     */
+    boolean isEmpty() {
+        return this.array.length == 0;
+    }
+
+    /**
+     * Returns the current listeners in registration order.
+     * The returned array must not be modified: its elements are of type <code>L</code>.
+     *
+     * @return the listeners
+     */
+    Object[] array() {
+        return this.array;
+    }
+
+}
@@ -0,0 +1,574 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Definition of a parameter.
+ * The value of a parameter may change along its life.
+ * It is possible for client code to subscribe to parameter changes
+ * <p>
+ * In lazy decoding mode (see {@link #setLazyDecoding(boolean)}), {@link #readFrom(ByteBuffer)} only
+ * keeps a reference to the encoded bytes in the source buffer: the value is decoded on the first
+ * access and the bytes are copied verbatim by {@link #writeTo(ByteBuffer)} as long as the value
+ * is not changed. The source buffer must not be modified in the meantime. A parameter with
+ * listeners is always decoded immediately so that the listeners are notified of the new value.
+ * </p>
+ * <p>
+ * The changes are notified to {@link ValueListener}s without creating any event. For the
+ * {@link ChangeListener}s, a single event is created at each change; it then bubbles up to the
+ * change listeners of the contents holding this parameter.
+ * </p>
+ * 
+ * @author c.fauch
+ *
+ */
+public class Parameter<T> implements IContent {
+
+    /**
+     * Name of the event raised when value change.
+     */
+    public static final String VALUE = "parameter-value";
+
+    /**
+     * The label of this parameter.
+     */
+    private final String label;
+    
+    /**
+     * The type of this parameter.
+     */
+    private final IType<T> type;
+    
+    /**
+     * The current value.
+     */
+    private T value;
+    
+    /**
+     * Indicates whether the value can change or not
+     */
+    private final boolean isReadOnly;
+    
+    /**
+     * The registered value listeners.
+     */
+    private final ListenerList<ValueListener<? super T>> valueListeners;
+    
+    /**
+     * The registered change listeners.
+     */
+    private final ListenerList<ChangeListener> listeners;
+    
+    /**
+     * The node through which the changes bubble up to the parents.
+     */
+    private final EventNode eventNode;
+    
+    /**
+     * The cache of the encoded value (null if disabled).
+     */
+    private EncodingCache cache;
+    
+    /**
+     * Indicates whether the value is decoded on the first access or not.
+     */
+    private boolean lazyDecoding;
+    
+    /**
+     * The buffer holding the encoded value as read (null if the value has changed since).
+     */
+    private ByteBuffer source;
+    
+    /**
+     * The offset of the encoded value in the source buffer.
+     */
+    private int sourceOffset;
+    
+    /**
+     * The size in bytes of the encoded value in the source buffer.
+     */
+    private int sourceLength;
+    
+    /**
+     * Indicates whether the encoded value of the source buffer remains to be decoded.
+     */
+    private boolean pending;
+    
+    /**
+     * The update in progress recording the changes instead of the listeners (null if none).
+     */
+    private UpdateScope updateScope;
+    
+    /**
+     * Constructor.
+     * 
+     * @param label the label of the parameter (not null)
+     * @param type the type of the parameter (not null)
+     * @param value the value of the parameter
+     * @param isReadOnly true for constant parameter
+     */
+    protected Parameter(final String label, final IType<T> type, T value, final boolean isReadOnly) {
+        this.label = Objects.requireNonNull(label, "label is missing");
+        this.type = Objects.requireNonNull(type, "type is missing");
+        this.value = value;
+        this.isReadOnly = isReadOnly;
+        this.valueListeners = new ListenerList<>();
+        this.listeners = new ListenerList<>();
+        this.eventNode = new EventNode(this.listeners);
+    }
+    
+    /**
+     * Creates a new parameter.
+     * 
+     * @param <U>
+     * @param label the label of the parameter (not null)
+     * @param type the type of the parameter (not null)
+     * @param value the value of the parameter
+     * @param readOnly true for a constant
+     * @return the new parameter
+     */
+    public static <U> Parameter<U> newParameter(final String label, final IType<U> type, 
+            final U value, final boolean readOnly) {
+        return new Parameter<U>(label, type, value, readOnly);
+    }
+    
+    /**
+     * Creates a new constant.
+     * 
+     * @param <U>
+     * @param label the label of the constant parameter (not null)
+     * @param type the type of the constant parameter (not null)
+     * @param value the value of the constant parameter
+     * @return the new constant parameter
+     */
+    public static <U> Parameter<U> newConstant(final String label, final IType<U> type, 
+            final U value) {
+        return new Parameter<U>(label, type, value, true);
+    }
+    
+
+    /**
+     * The label of this parameter
+     * 
+     * @return the label
+     */
+    public final String getLabel() {
+        return label;
+    }
+
+    /**
+     * The type of thus parameter.
+     * 
+     * @return the type
+     */
+    public final IType<T> getType() {
+        return type;
+    }
+
+    /**
+     * Return true only if it's a constant so that the value cannot change.
+     * 
+     * @return the isReadOnly
+     */
+    public final boolean isReadOnly() {
+        return isReadOnly;
+    }
+    
+    /**
+     * Returns the current value of this parameter
+     * 
+     * @return the value
+     */
+    public T getValue() {
+        resolve();
+        return this.value;
+    }
+
+    /**
+     * Set a new value to this parameter.
+     * 
+     * @param value the new value
+     */
+    public void setValue(final T value) {
+        if (!this.isReadOnly) {
+            resolveIfListened();
+            final T old = this.value;
+            this.value = value;
+            if (valueChanged()) {
+                fireValueChange(old, value);
+            }
+        }
+    }
+    
+    /**
+     * Encode this parameter into a sequence of bytes.
+     * 
+     * @return the encoded parameter
+     */
+    @Override
+    public byte[] getBytes() {
+        return this.cache == null && this.source == null ? this.type.encode(getValue())
+                : Frames.toBytes(encodedSize(), this::writeTo);
+    }
+    
+    /**
+     * Encode this parameter directly into the given buffer.
+     * The bytes read in lazy decoding mode are copied as is while the value has not changed.
+     * The memoized bytes are used if the cache is enabled and valid.
+     */
+    @Override
+    public void writeTo(final ByteBuffer buffer) {
+        if (this.source != null) {
+            copySource(buffer);
+        } else if (this.cache == null) {
+            encodeValue(buffer);
+        } else if (!this.cache.writeTo(buffer)) {
+            final int start = buffer.position();
+            encodeValue(buffer);
+            this.cache.store(this, buffer, start);
+        }
+    }
+    
+    /**
+     * Decode the value of this parameter from the given buffer and set it.
+     * A type whose size is variable reads all the remaining bytes of the buffer.
+     * The listeners are notified as with {@link #setValue(Object)}.
+     * In lazy decoding mode, a parameter without listeners only keeps a reference to the bytes.
+     * Nothing changes if this parameter is a constant, but the bytes are consumed anyway.
+     * 
+     * @throws BufferUnderflowException if the buffer is too short
+     * @throws UnsupportedOperationException if the type cannot be decoded
+     */
+    @Override
+    public void readFrom(final ByteBuffer buffer) {
+        final int size = this.type.fixedSize();
+        final int length = size == IType.VARIABLE_SIZE ? buffer.remaining() : size;
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (this.isReadOnly) {
+            buffer.position(buffer.position() + length);
+        } else if (this.lazyDecoding && !isListened()) {
+            valueChanged();
+            this.source = buffer;
+            this.sourceOffset = buffer.position();
+            this.sourceLength = length;
+            this.pending = true;
+            buffer.position(this.sourceOffset + length);
+        } else {
+            decodeNow(buffer);
+        }
+    }
+    
+    /**
+     * Decode the value of this parameter immediately, whatever the decoding mode, and notify the listeners.
+     * 
+     * @param buffer the buffer holding the encoded value (not null)
+     */
+    final void decodeNow(final ByteBuffer buffer) {
+        if (!this.isReadOnly) {
+            final T old = isListened() ? getValue() : null;
+            decodeValue(buffer);
+            if (valueChanged()) {
+                fireValueChange(old, getValue());
+            }
+        }
+    }
+    
+    /**
+     * Returns the size in bytes of the encoded value.
+     */
+    @Override
+    public int encodedSize() {
+        if (this.source != null) {
+            return this.sourceLength;
+        }
+        return this.cache != null && this.cache.isValid() ? this.cache.size() : valueSize();
+    }
+    
+    /**
+     * Encode the current value into the given buffer.
+     * 
+     * @param buffer the buffer to write into (not null)
+     */
+    protected void encodeValue(final ByteBuffer buffer) {
+        this.type.encodeInto(this.value, buffer);
+    }
+    
+    /**
+     * Returns the size in bytes of the current encoded value.
+     * 
+     * @return the size in bytes
+     */
+    protected int valueSize() {
+        return this.type.sizeOf(this.value);
+    }
+    
+    /**
+     * Decode a new value from the given buffer and store it without notifying the listeners.
+     * 
+     * @param buffer the buffer to read from (not null)
+     * @throws UnsupportedOperationException if the type cannot be decoded
+     */
+    protected void decodeValue(final ByteBuffer buffer) {
+        this.value = this.type.decode(buffer);
+    }
+    
+    /**
+     * Decode the value kept in the source buffer if not done yet.
+     * Must be called before any access to the current value.
+     * 
+     * @throws UnsupportedOperationException if the type cannot be decoded
+     */
+    protected final void resolve() {
+        if (this.pending) {
+            final ByteBuffer bytes = this.source.duplicate().order(this.source.order());
+            decodeValue(bytes.limit(this.sourceOffset + this.sourceLength).position(this.sourceOffset));
+            this.pending = false;
+        }
+    }
+    
+    /**
+     * Decode the value kept in the source buffer if some listeners have to be notified of its change,
+     * so that they receive the decoded value as previous value.
+     * Must be called before setting a new value.
+     */
+    protected final void resolveIfListened() {
+        if (this.pending && isListened()) {
+            resolve();
+        }
+    }
+    
+    /**
+     * Copy the bytes of the source buffer.
+     * The limit of the source buffer may have changed since: a view of it is used.
+     * 
+     * @param buffer the buffer to write into (not null)
+     */
+    private void copySource(final ByteBuffer buffer) {
+        if (this.source.hasArray()) {
+            buffer.put(this.source.array(), this.source.arrayOffset() + this.sourceOffset, this.sourceLength);
+        } else {
+            final ByteBuffer bytes = this.source.duplicate();
+            buffer.put(bytes.limit(this.sourceOffset + this.sourceLength).position(this.sourceOffset));
+        }
+    }
+    
+    /**
+     * Invalidate the encoded value after a change of the value, and the caches of the parents.
+     * The bytes read in lazy decoding mode are forgotten.
+     * 
+     * @return true if some listeners have to be notified of the change
+     */
+    protected final boolean valueChanged() {
+        this.source = null;
+        this.pending = false;
+        this.eventNode.dirty(false);
+        return isListened();
+    }
+    
+    /**
+     * Returns true if some listeners have to be notified of the changes.
+     * 
+     * @return true if this parameter or one of its ancestors has listeners
+     */
+    private boolean isListened() {
+        return !this.valueListeners.isEmpty() || this.eventNode.isListened();
+    }
+    
+    /**
+     * Enable or disable the memoization of the encoded value.
+     * The cache is invalidated each time the value changes.
+     * 
+     * @param enabled true to enable the cache
+     */
+    public final void setCaching(final boolean enabled) {
+        if (!enabled) {
+            this.cache = null;
+        } else if (this.cache == null) {
+            this.cache = new EncodingCache();
+        }
+        this.eventNode.setCache(this.cache);
+    }
+    
+    /**
+     * Returns the cache of the encoded value.
+     * 
+     * @return the cache or null if disabled
+     */
+    public final EncodingCache getEncodingCache() {
+        return this.cache;
+    }
+    
+    /**
+     * Returns a read-only view of the encoded value if it is already available as bytes: the bytes
+     * read in lazy decoding mode or the memoized bytes. The view must be used before any change.
+     * 
+     * @return the view or null if the value has to be encoded
+     */
+    public final ByteBuffer getEncodedBytes() {
+        if (this.source != null) {
+            return this.source.asReadOnlyBuffer().limit(this.sourceOffset + this.sourceLength)
+                    .position(this.sourceOffset);
+        }
+        return this.cache == null ? null : this.cache.asReadOnlyBuffer();
+    }
+    
+    /**
+     * Enable or disable the lazy decoding mode.
+     * Only the next calls to {@link #readFrom(ByteBuffer)} are concerned.
+     * 
+     * @param enabled true to decode the value on the first access
+     */
+    public final void setLazyDecoding(final boolean enabled) {
+        this.lazyDecoding = enabled;
+    }
+    
+    /**
+     * Returns true if the value is decoded on the first access.
+     * 
+     * @return true in lazy decoding mode
+     */
+    public final boolean isLazyDecoding() {
+        return this.lazyDecoding;
+    }
+    
+    /**
+     * Register a listener to listen changes on this parameter.
+     * It is notified of {@link #VALUE} events.
+     */
+    @Override
+    public final ChangeListener addChangeListener(final ChangeListener listener) {
+        this.listeners.add(listener, listener);
+        return listener;
+    }
+
+    /**
+     * Unregister a listener.
+     */
+    @Override
+    public final void removeChangeListener(final ChangeListener listener) {
+        this.listeners.remove(listener);
+    }
+    
+    /**
+     * Register a listener to listen changes on this parameter.
+     * Nothing changes if the listener is already registered.
+     * 
+     * @param listener the listener to register (not null)
+     * @return true if the listener has been registered
+     */
+    public final boolean addValueListener(final ValueListener<? super T> listener) {
+        return this.valueListeners.add(listener, listener);
+    }
+    
+    /**
+     * Unregister a listener.
+     * 
+     * @param listener the listener to unregister
+     * @return true if the listener was registered
+     */
+    public final boolean removeValueListener(final ValueListener<? super T> listener) {
+        return this.valueListeners.remove(listener) != null;
+    }
+    
+    /**
+     * Reports parameter change to listeners, then to the listeners of the parents.
+     * A single event is created for all the change listeners, only if there are some.
+     * During an update, the change is recorded instead.
+     * 
+     * @param oldValue the previous value
+     * @param newValue the new value
+     */
+    @SuppressWarnings("unchecked")
+    protected final void fireValueChange(final T oldValue, final T newValue) {
+        if (this.updateScope != null) {
+            this.updateScope.changed(this, oldValue);
+            return;
+        }
+        for (Object listener : this.valueListeners.array()) {
+            ((ValueListener<? super T>) listener).onChange(this, oldValue, newValue);
+        }
+        if (this.eventNode.isListened()) {
+            this.eventNode.fire(new ChangeEvent(this, VALUE, oldValue, newValue));
+        }
+    }
+
+    /**
+     * Returns the node through which the changes bubble up to the parents.
+     * 
+     * @return the node
+     */
+    final EventNode getEventNode() {
+        return this.eventNode;
+    }
+
+    /**
+     * Returns the current value listeners.
+     * 
+     * @return the listeners (must not be modified)
+     */
+    final Object[] getValueListeners() {
+        return this.valueListeners.array();
+    }
+    
+    /**
+     * Join or leave an update in progress.
+     * 
+     * @param scope the update to join or null to leave it
+     */
+    final void setUpdateScope(final UpdateScope scope) {
+        this.updateScope = scope;
+    }
+    
+    @Override
+    public final int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + ((label == null) ? 0 : label.hashCode());
+        return result;
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        Parameter<?> other = (Parameter<?>) obj;
+        if (label == null) {
+            if (other.label != null)
+                return false;
+        } else if (!label.equals(other.label))
+            return false;
+        return true;
+    }
+
+    /**
+     * A value not decoded yet in lazy decoding mode is not decoded: it is printed as <code>&lt;pending&gt;</code>.
+     */
+    @Override
+    public String toString() {
+        return "Parameter [label=" + label + ", type=" + type + ", value=" + (this.pending ? "<pending>" : getValue())
+                + "]";
+    }
+     
+}
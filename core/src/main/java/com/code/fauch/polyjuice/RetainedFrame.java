@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Encoded frame of a content with a fixed layout, kept in sync with the content.
+ * <p>
+ * The content is encoded once. Then, each time the value of a parameter changes, only the bytes
+ * of this parameter are rewritten at the offset given by the layout. So getting the current frame
+ * does not require to encode the whole content again. Parameters whose type is not deterministic
+ * (like clocks) are rewritten each time the current frame is requested.
+ * </p>
+ * <p>
+ * A retained frame is not thread-safe. It must be closed to stop listening to the content.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class RetainedFrame implements AutoCloseable {
+
+    /**
+     * The layout of the content.
+     */
+    private final Layout layout;
+
+    /**
+     * The parameters of the content in the order of the layout.
+     */
+    private final List<Parameter<?>> parameters;
+
+    /**
+     * The listener registered on each parameter: no event is created to patch the frame.
+     */
+    private final List<ValueListener<Object>> listeners;
+
+    /**
+     * Indexes of the fields to rewrite each time the frame is requested.
+     */
+    private final int[] volatiles;
+
+    /**
+     * The encoded frame.
+     */
+    private final ByteBuffer frame;
+
+    /**
+     * Read-only view on the encoded frame.
+     */
+    private final ByteBuffer view;
+
+    /**
+     * Constructor.
+     *
+     * @param content the content to encode (not null)
+     * @throws IllegalArgumentException if the content has no fixed layout
+     */
+    public RetainedFrame(final IContent content) {
+        this(content, Layout.of(content));
+    }
+
+    /**
+     * Constructor with a layout shared by several contents.
+     *
+     * @param content the content to encode (not null)
+     * @param layout the layout of the content (not null)
+     * @throws IllegalArgumentException if the layout does not match the content
+     */
+    public RetainedFrame(final IContent content, final Layout layout) {
+        this.layout = Objects.requireNonNull(layout, "layout is missing");
+        this.parameters = Layout.parametersOf(Objects.requireNonNull(content, "content is missing"));
+        if (this.parameters.size() != layout.getFields().size() || content.encodedSize() != layout.size()) {
+            throw new IllegalArgumentException("layout does not match the content");
+        }
+        this.frame = ByteBuffer.allocate(layout.size());
+        content.writeTo(this.frame);
+        this.view = this.frame.asReadOnlyBuffer();
+        this.listeners = new ArrayList<>(this.parameters.size());
+        final List<Integer> volatiles = new ArrayList<>();
+        for (int i = 0; i < this.parameters.size(); i++) {
+            final int index = i;
+            final ValueListener<Object> listener = (parameter, oldValue, newValue) -> patch(index);
+            this.parameters.get(i).addValueListener(listener);
+            this.listeners.add(listener);
+            if (!this.parameters.get(i).getType().isDeterministic()) {
+                volatiles.add(i);
+            }
+        }
+        this.volatiles = volatiles.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns the layout of the frame.
+     *
+     * @return the layout
+     */
+    public Layout getLayout() {
+        return this.layout;
+    }
+
+    /**
+     * Returns the current encoded frame.
+     * The returned buffer is a read-only view reused from one call to another: its position is 0
+     * and its limit is the size of the frame.
+     *
+     * @return the current frame
+     */
+    public ByteBuffer current() {
+        for (int index : this.volatiles) {
+            patch(index);
+        }
+        return this.view.clear();
+    }
+
+    /**
+     * Stop listening to the content.
+     */
+    @Override
+    public void close() {
+        for (int i = 0; i < this.parameters.size(); i++) {
+            this.parameters.get(i).removeValueListener(this.listeners.get(i));
+        }
+    }
+
+    /**
+     * Rewrite the bytes of a parameter.
+     *
+     * @param index the index of the parameter in the layout
+     */
+    private void patch(final int index) {
+        final Layout.Field field = this.layout.getFields().get(index);
+        if (field.getLength() == 0) {
+            return;
+        }
+        final Parameter<?> parameter = this.parameters.get(index);
+        this.frame.position(field.getOffset());
+        if (field.isComplete()) {
+            parameter.writeTo(this.frame);
+        } else {
+            final byte[] bytes = parameter.getBytes();
+            final int length = Math.min(bytes.length, field.getLength());
+            this.frame.put(bytes, 0, length);
+            for (int i = length; i < field.getLength(); i++) {
+                this.frame.put((byte) 0);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,880 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.code.fauch.polyjuice.spi.ITypeProvider;
+
+/**
+ * Standard types provider.
+ * 
+ * @author c.fauch
+ *
+ */
+public final class StdType implements ITypeProvider {
+    
+    private static final String DATE_NAME = "DATE";
+    private static final String TIME_NAME = "TIME";
+    private static final String OFFSET_CLOCK_NAME = "OFFSET_CLOCK";
+    private static final String FIXED_CLOCK_NAME = "FIXED_CLOCK";
+    private static final String SHORT_NAME = "SHORT";
+    private static final String STRING_NAME = "STRING";
+    private static final String INT_NAME = "INT";
+    private static final String LONG_NAME = "LONG";
+    private static final String FLOAT_NAME = "FLOAT";
+    private static final String DOUBLE_NAME = "DOUBLE";
+    private static final String UNSIGNED_INT_NAME = "UNSIGNED_INT";
+    private static final String UNSIGNED_LONG_NAME = "UNSIGNED_LONG";
+
+    /**
+     * A date in ISO 8601 format encode with 3 x 4 bytes in big endian:
+     * <ul>
+     * <li>[1-4]: year </li>
+     * <li>[5-8]: month </li>
+     * <li>[9-12]: day </li>
+     * </ul>
+     * If the time is null then all field are set to 0 (and decoded as null).
+     */
+    public static final IType<LocalDate> DATE = new IType<LocalDate>() {
+
+        @Override
+        public Class<LocalDate> getValueClass() {
+            return LocalDate.class;
+        }
+
+        @Override
+        public byte[] encode(final LocalDate value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final LocalDate value, final ByteBuffer buffer) {
+            if (value != null) {
+                putInt(buffer, value.getYear() - 2000);
+                putInt(buffer, value.getMonthValue());
+                putInt(buffer, value.getDayOfMonth());
+            } else {
+                putZeros(buffer, 12);
+            }
+        }
+
+        @Override
+        public LocalDate decode(final ByteBuffer buffer) {
+            final int year = getInt(buffer);
+            final int month = getInt(buffer);
+            final int day = getInt(buffer);
+            return year == 0 && month == 0 && day == 0 ? null : LocalDate.of(year + 2000, month, day);
+        }
+
+        @Override
+        public int fixedSize() {
+            return 12;
+        }
+
+        @Override
+        public String getName() {
+            return DATE_NAME;
+        }
+        
+    };
+
+    /**
+     * A time in ISO 8601 format encode with 3 x 4 bytes in big endian:
+     * <ul>
+     * <li>[1-4]: hours </li>
+     * <li>[5-8]: minutes </li>
+     * <li>[9-12]: seconds </li>
+     * </ul>
+     * If the time is null then all field are set to 0 (and decoded as midnight).
+     */
+    public static final IType<LocalTime> TIME = new IType<LocalTime>() {
+
+        @Override
+        public Class<LocalTime> getValueClass() {
+            return LocalTime.class;
+        }
+
+        @Override
+        public byte[] encode(final LocalTime value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final LocalTime value, final ByteBuffer buffer) {
+            if (value != null) {
+                putInt(buffer, value.getHour());
+                putInt(buffer, value.getMinute());
+                putInt(buffer, value.getSecond());
+            } else {
+                putZeros(buffer, 12);
+            }
+        }
+
+        @Override
+        public LocalTime decode(final ByteBuffer buffer) {
+            final int hour = getInt(buffer);
+            final int minute = getInt(buffer);
+            return LocalTime.of(hour, minute, getInt(buffer));
+        }
+
+        @Override
+        public int fixedSize() {
+            return 12;
+        }
+
+        @Override
+        public String getName() {
+            return TIME_NAME;
+        }
+        
+    };
+    
+    /**
+     * A clock based on the system clock with an offset (positive or negative) encode with 6 x 4 bytes in big endian:
+     * <ul>
+     * <li>[1-4]: year </li>
+     * <li>[5-8]: month </li>
+     * <li>[9-12]: day </li>
+     * <li>[13-16]: hour </li>
+     * <li>[17-20]: minutes </li>
+     * <li>[21-24]: seconds </li>
+     * </ul>
+     * If the clock is null then all field are set to 0
+     * Clock instant is encoded in UTC.
+     * The decoded clock has the offset of the encoded instant from the current system clock.
+     */
+    public static final IType<? super AbsClock<Duration>> OFFSET_CLOCK = new IType<AbsClock<Duration>>() {
+
+        @Override
+        public byte[] encode(final AbsClock<Duration> value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final AbsClock<Duration> value, final ByteBuffer buffer) {
+            if (value != null) {
+                putDateTime(buffer, value.instant().atZone(ZoneOffset.UTC));
+            } else {
+                putZeros(buffer, 24);
+            }
+        }
+        
+        @Override
+        public AbsClock<Duration> decode(final ByteBuffer buffer) {
+            final ZonedDateTime dateTime = getDateTime(buffer);
+            return dateTime == null ? null : new OffsetClock(Duration.between(Instant.now(), dateTime.toInstant()));
+        }
+
+        @Override
+        public int fixedSize() {
+            return 24;
+        }
+
+        @Override
+        public boolean isDeterministic() {
+            return false;
+        }
+
+        @Override
+        public String getName() {
+            return OFFSET_CLOCK_NAME;
+        }
+
+        @Override
+        public Class<? extends AbsClock<Duration>> getValueClass() {
+            return OffsetClock.class;
+        }
+        
+    };
+    
+    /**
+     * A clock that always returns the same instant encode with 6 x 4 bytes in big endian:
+     * <ul>
+     * <li>[1-4]: year </li>
+     * <li>[5-8]: month </li>
+     * <li>[9-12]: day </li>
+     * <li>[13-16]: hours </li>
+     * <li>[17-20]: minutes </li>
+     * <li>[21-24]: seconds </li>
+     * </ul>
+     * If the clock is null then all field are set to 0
+     * Clock instant is encoded in UTC.
+     */
+    public static final IType<? super AbsClock<?>> FIXED_CLOCK = new IType<AbsClock<?>>() {
+
+        @Override
+        public Class<? extends AbsClock<?>> getValueClass() {
+            return FixedClock.class;
+        }
+
+        @Override
+        public byte[] encode(final AbsClock<?> value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final AbsClock<?> value, final ByteBuffer buffer) {
+            if (value != null) {
+                putDateTime(buffer, value.instant().atZone(ZoneOffset.UTC));
+            } else {
+                putZeros(buffer, 24);
+            }
+        }
+
+        @Override
+        public AbsClock<?> decode(final ByteBuffer buffer) {
+            final ZonedDateTime dateTime = getDateTime(buffer);
+            return dateTime == null ? null : new FixedClock(ZoneOffset.UTC, dateTime.toInstant());
+        }
+
+        @Override
+        public int fixedSize() {
+            return 24;
+        }
+
+        @Override
+        public String getName() {
+            return FIXED_CLOCK_NAME;
+        }
+        
+    };
+    
+    /**
+     * A double encoded as a big-endian 64-bit real number.
+     * If double is null then 0 is encoded
+     */
+    public static final IDoubleType DOUBLE = new IDoubleType() {
+
+        @Override
+        public Class<Double> getValueClass() {
+            return Double.class;
+        }
+
+        @Override
+        public byte[] encode(final Double value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final Double value, final ByteBuffer buffer) {
+            encodeDouble(value == null ? 0.0 : value, buffer);
+        }
+
+        @Override
+        public void encodeDouble(final double value, final ByteBuffer buffer) {
+            putLong(buffer, Double.doubleToRawLongBits(value));
+        }
+
+        @Override
+        public Double decode(final ByteBuffer buffer) {
+            return decodeDouble(buffer);
+        }
+
+        @Override
+        public double decodeDouble(final ByteBuffer buffer) {
+            return Double.longBitsToDouble(getLong(buffer));
+        }
+
+        @Override
+        public int fixedSize() {
+            return 8;
+        }
+
+        @Override
+        public String getName() {
+            return DOUBLE_NAME;
+        }
+        
+    };
+    
+    /**
+     * A float encoded as a big-endian 32-bit real number.
+     * If float is null then 0 is encoded
+     */
+    public static final IFloatType FLOAT = new IFloatType() {
+
+        @Override
+        public Class<Float> getValueClass() {
+            return Float.class;
+        }
+
+        @Override
+        public byte[] encode(final Float value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final Float value, final ByteBuffer buffer) {
+            encodeFloat(value == null ? 0.0f : value, buffer);
+        }
+
+        @Override
+        public void encodeFloat(final float value, final ByteBuffer buffer) {
+            putInt(buffer, Float.floatToRawIntBits(value));
+        }
+
+        @Override
+        public Float decode(final ByteBuffer buffer) {
+            return decodeFloat(buffer);
+        }
+
+        @Override
+        public float decodeFloat(final ByteBuffer buffer) {
+            return Float.intBitsToFloat(getInt(buffer));
+        }
+
+        @Override
+        public int fixedSize() {
+            return 4;
+        }
+
+        @Override
+        public String getName() {
+            return FLOAT_NAME;
+        }
+        
+    };
+    
+    /**
+     * An String encoded as a big-endian 64-bit unsigned integer.
+     */
+    public static final IType<String> UNSIGNED_LONG = new IType<String>() {
+        
+        @Override
+        public Class<String> getValueClass() {
+            return String.class;
+        }
+        
+        @Override
+        public byte[] encode(final String value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final String value, final ByteBuffer buffer) {
+            putLong(buffer, value == null ? 0L : Long.parseUnsignedLong(value));
+        }
+        
+        @Override
+        public String decode(final ByteBuffer buffer) {
+            return Long.toUnsignedString(getLong(buffer));
+        }
+
+        @Override
+        public int fixedSize() {
+            return 8;
+        }
+
+        @Override
+        public String getName() {
+            return UNSIGNED_LONG_NAME;
+        }
+        
+    };
+    
+    /**
+     * A Long encoded as a big-endian 64-bit integer.
+     * If long is null then 0 is encoded
+     */
+    public static final ILongType LONG = new ILongType() {
+
+        @Override
+        public Class<Long> getValueClass() {
+            return Long.class;
+        }
+
+        @Override
+        public byte[] encode(final Long value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final Long value, final ByteBuffer buffer) {
+            encodeLong(value == null ? 0L : value, buffer);
+        }
+
+        @Override
+        public void encodeLong(final long value, final ByteBuffer buffer) {
+            putLong(buffer, value);
+        }
+
+        @Override
+        public Long decode(final ByteBuffer buffer) {
+            return decodeLong(buffer);
+        }
+
+        @Override
+        public long decodeLong(final ByteBuffer buffer) {
+            return getLong(buffer);
+        }
+
+        @Override
+        public int fixedSize() {
+            return 8;
+        }
+
+        @Override
+        public String getName() {
+            return LONG_NAME;
+        }
+        
+    };
+    
+    /**
+     * An Long encoded as a big-endian 32-bit unsigned integer.
+     * If long is null then 0 is encoded
+     */
+    public static final ILongType UNSIGNED_INT = new ILongType() {
+
+        @Override
+        public Class<Long> getValueClass() {
+            return Long.class;
+        }
+
+        @Override
+        public byte[] encode(final Long value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final Long value, final ByteBuffer buffer) {
+            encodeLong(value == null ? 0L : value, buffer);
+        }
+
+        @Override
+        public void encodeLong(final long value, final ByteBuffer buffer) {
+            putInt(buffer, (int) value);
+        }
+
+        @Override
+        public Long decode(final ByteBuffer buffer) {
+            return decodeLong(buffer);
+        }
+
+        @Override
+        public long decodeLong(final ByteBuffer buffer) {
+            return Integer.toUnsignedLong(getInt(buffer));
+        }
+
+        @Override
+        public int fixedSize() {
+            return 4;
+        }
+
+        @Override
+        public String getName() {
+            return UNSIGNED_INT_NAME;
+        }
+        
+    };
+    
+    /**
+     * An Integer encoded as a big-endian 32-bit integer.
+     * If integer is null then 0 is encoded
+     */
+    public static final IIntType INT = new IIntType() {
+        
+        @Override
+        public Class<Integer> getValueClass() {
+            return Integer.class;
+        }
+        
+        @Override
+        public byte[] encode(final Integer value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final Integer value, final ByteBuffer buffer) {
+            encodeInt(value == null ? 0 : value, buffer);
+        }
+
+        @Override
+        public void encodeInt(final int value, final ByteBuffer buffer) {
+            putInt(buffer, value);
+        }
+        
+        @Override
+        public Integer decode(final ByteBuffer buffer) {
+            return decodeInt(buffer);
+        }
+
+        @Override
+        public int decodeInt(final ByteBuffer buffer) {
+            return getInt(buffer);
+        }
+
+        @Override
+        public int fixedSize() {
+            return 4;
+        }
+
+        @Override
+        public String getName() {
+            return INT_NAME;
+        }
+        
+    };
+    
+    /**
+     * A Short encoded as big-endian 16-bit integer.
+     * If short is null then 0 is encoded
+     */
+    public static final IShortType SHORT = new IShortType() {
+
+        @Override
+        public Class<Short> getValueClass() {
+            return Short.class;
+        }
+
+        @Override
+        public byte[] encode(final Short value) {
+            byte[] frame = new byte[fixedSize()];
+            encodeInto(value, ByteBuffer.wrap(frame));
+            return frame;
+        }
+
+        @Override
+        public void encodeInto(final Short value, final ByteBuffer buffer) {
+            encodeShort(value == null ? 0 : value, buffer);
+        }
+
+        @Override
+        public void encodeShort(final short value, final ByteBuffer buffer) {
+            putShort(buffer, value);
+        }
+
+        @Override
+        public Short decode(final ByteBuffer buffer) {
+            return decodeShort(buffer);
+        }
+
+        @Override
+        public short decodeShort(final ByteBuffer buffer) {
+            return getShort(buffer);
+        }
+
+        @Override
+        public int fixedSize() {
+            return 2;
+        }
+
+        @Override
+        public String getName() {
+            return SHORT_NAME;
+        }
+        
+    };
+    
+    /**
+     * A String encoded with UTF_8 charset.
+     * Empty string is encoded if null.
+     * All the remaining bytes are decoded except the trailing zeros (padding).
+     */
+    public static final IType<String> STRING = new IType<String>() {
+
+        @Override
+        public Class<String> getValueClass() {
+            return String.class;
+        }
+
+        @Override
+        public byte[] encode(String value) {
+            return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void encodeInto(final String value, final ByteBuffer buffer) {
+            if (value != null) {
+                putUtf8(buffer, value);
+            }
+        }
+
+        @Override
+        public String decode(final ByteBuffer buffer) {
+            int length = buffer.remaining();
+            while (length > 0 && buffer.get(buffer.position() + length - 1) == 0) {
+                length--;
+            }
+            final String value;
+            if (buffer.hasArray()) {
+                value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            } else {
+                final byte[] bytes = new byte[length];
+                buffer.get(buffer.position(), bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+            buffer.position(buffer.limit());
+            return value;
+        }
+
+        @Override
+        public int sizeOf(final String value) {
+            return value == null ? 0 : utf8Length(value);
+        }
+
+        @Override
+        public String getName() {
+            return STRING_NAME;
+        }
+        
+    };
+    
+    /**
+     * All the standard types by name.
+     */
+    private static final Map<String, IType<?>> TYPES = index(STRING, OFFSET_CLOCK, FIXED_CLOCK, DATE, TIME,
+            SHORT, INT, LONG, FLOAT, DOUBLE, UNSIGNED_INT, UNSIGNED_LONG);
+    
+    /**
+     * Index types by name.
+     * 
+     * @param types the types to index (not null)
+     * @return the immutable map of the types by name
+     */
+    private static Map<String, IType<?>> index(final IType<?>... types) {
+        final Map<String, IType<?>> index = new HashMap<>();
+        for (IType<?> type : types) {
+            index.put(type.getName(), type);
+        }
+        return Collections.unmodifiableMap(index);
+    }
+    
+    /**
+     * Write a 16-bit integer in big endian whatever the order of the buffer.
+     * 
+     * @param buffer the buffer to write into (not null)
+     * @param value the value to write
+     */
+    private static void putShort(final ByteBuffer buffer, final short value) {
+        buffer.putShort(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Short.reverseBytes(value));
+    }
+    
+    /**
+     * Write a 32-bit integer in big endian whatever the order of the buffer.
+     * 
+     * @param buffer the buffer to write into (not null)
+     * @param value the value to write
+     */
+    private static void putInt(final ByteBuffer buffer, final int value) {
+        buffer.putInt(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value));
+    }
+    
+    /**
+     * Write a 64-bit integer in big endian whatever the order of the buffer.
+     * 
+     * @param buffer the buffer to write into (not null)
+     * @param value the value to write
+     */
+    private static void putLong(final ByteBuffer buffer, final long value) {
+        buffer.putLong(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+    }
+    
+    /**
+     * Read a 16-bit integer in big endian whatever the order of the buffer.
+     * 
+     * @param buffer the buffer to read from (not null)
+     * @return the read value
+     */
+    private static short getShort(final ByteBuffer buffer) {
+        final short value = buffer.getShort();
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Short.reverseBytes(value);
+    }
+    
+    /**
+     * Read a 32-bit integer in big endian whatever the order of the buffer.
+     * 
+     * @param buffer the buffer to read from (not null)
+     * @return the read value
+     */
+    private static int getInt(final ByteBuffer buffer) {
+        final int value = buffer.getInt();
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+    
+    /**
+     * Read a 64-bit integer in big endian whatever the order of the buffer.
+     * 
+     * @param buffer the buffer to read from (not null)
+     * @return the read value
+     */
+    private static long getLong(final ByteBuffer buffer) {
+        final long value = buffer.getLong();
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+    
+    /**
+     * Write a date-time as 6 x 4 bytes in big endian (year, month, day, hour, minutes, seconds).
+     * 
+     * @param buffer the buffer to write into (not null)
+     * @param dateTime the date-time to write (not null)
+     */
+    private static void putDateTime(final ByteBuffer buffer, final ZonedDateTime dateTime) {
+        putInt(buffer, dateTime.getYear() - 2000);
+        putInt(buffer, dateTime.getMonthValue());
+        putInt(buffer, dateTime.getDayOfMonth());
+        putInt(buffer, dateTime.getHour());
+        putInt(buffer, dateTime.getMinute());
+        putInt(buffer, dateTime.getSecond());
+    }
+    
+    /**
+     * Read a date-time encoded as 6 x 4 bytes in big endian in UTC.
+     * 
+     * @param buffer the buffer to read from (not null)
+     * @return the read date-time or null if all the fields are 0
+     */
+    private static ZonedDateTime getDateTime(final ByteBuffer buffer) {
+        final int year = getInt(buffer);
+        final int month = getInt(buffer);
+        final int day = getInt(buffer);
+        final int hour = getInt(buffer);
+        final int minute = getInt(buffer);
+        final int second = getInt(buffer);
+        if (year == 0 && month == 0 && day == 0 && hour == 0 && minute == 0 && second == 0) {
+            return null;
+        }
+        return ZonedDateTime.of(year + 2000, month, day, hour, minute, second, 0, ZoneOffset.UTC);
+    }
+    
+    /**
+     * Returns the number of bytes of the UTF-8 encoding of the given string without encoding it.
+     * Malformed surrogates are counted as the one byte replacement used by the encoder.
+     * 
+     * @param value the string (not null)
+     * @return the size in bytes
+     */
+    private static int utf8Length(final String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() 
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+    
+    /**
+     * Write the UTF-8 encoding of the given string without any intermediate array.
+     * Malformed surrogates are replaced by '?' like the encoder does.
+     * Nothing is written if the buffer is too small.
+     * 
+     * @param buffer the buffer to write into (not null)
+     * @param value the string (not null)
+     * @throws BufferOverflowException if the buffer is too small
+     */
+    private static void putUtf8(final ByteBuffer buffer, final String value) {
+        if (buffer.remaining() < 3 * value.length() && buffer.remaining() < utf8Length(value)) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() 
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int code = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | code >> 18));
+                buffer.put((byte) (0x80 | code >> 12 & 0x3F));
+                buffer.put((byte) (0x80 | code >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | code & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+    
+    /**
+     * Write a sequence of zeros.
+     * 
+     * @param buffer the buffer to write into (not null)
+     * @param length the number of zeros to write
+     */
+    private static void putZeros(final ByteBuffer buffer, final int length) {
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+    
+    /**
+     * Returns the standard type corresponding to the given name.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public IType<?> getInstance(String name) {
+        return name == null ? null : TYPES.get(name);
+    }
+    
+    /**
+     * Returns all the standard types.
+     */
+    @Override
+    public Collection<IType<?>> getTypes() {
+        return TYPES.values();
+    }
+    
+}
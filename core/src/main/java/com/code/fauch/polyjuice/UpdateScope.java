@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Update in progress of a content (see {@link AbsContent#update(Runnable)}).
+ * <p>
+ * All the parameters of the updated content belong to the scope until it is committed: instead of
+ * notifying their listeners, they record the change. At commit, each {@link ValueListener} is notified
+ * once per changed parameter, from the value before the update to the current value, and each
+ * {@link ChangeListener} of the changed parameters or of their ancestors receives a single
+ * {@link AbsContent#UPDATE} event listing the changed parameters.
+ * </p>
+ * <p>
+ * When an update starts on an ancestor of a content already being updated, the scope of the ancestor
+ * absorbs the scope in progress: its changes and its pending updates are merged, so that all the changes
+ * are notified at the end of the last update, with the ancestor as source.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+final class UpdateScope {
+
+    /**
+     * The updated content.
+     */
+    private final AbsContent source;
+    
+    /**
+     * The scope that absorbed this one (null if none).
+     */
+    private UpdateScope absorbedBy;
+
+    /**
+     * The changed parameters, in order of first change.
+     */
+    private final List<Parameter<?>> changed;
+
+    /**
+     * The value before the update of each changed parameter (by identity).
+     */
+    private final Map<Parameter<?>, Object> oldValues;
+
+    /**
+     * The number of updates not committed yet.
+     */
+    private int depth;
+
+    /**
+     * Constructor.
+     *
+     * @param source the updated content (not null)
+     */
+    UpdateScope(final AbsContent source) {
+        this.source = source;
+        this.changed = new ArrayList<>();
+        this.oldValues = new IdentityHashMap<>();
+        this.depth = 1;
+    }
+
+    /**
+     * Add a content and all its descendants to a scope or remove them from their scope.
+     *
+     * @param content the content (may be null)
+     * @param scope the scope to join or null to leave it
+     */
+    static void join(final IContent content, final UpdateScope scope) {
+        if (content instanceof Parameter) {
+            ((Parameter<?>) content).setUpdateScope(scope);
+        } else if (content instanceof AbsContent) {
+            ((AbsContent) content).setUpdateScope(scope);
+        } else if (content instanceof DynamicArray) {
+            ((DynamicArray<?>) content).setUpdateScope(scope);
+        }
+    }
+
+    /**
+     * Returns the updated content.
+     *
+     * @return the content
+     */
+    AbsContent getSource() {
+        return this.source;
+    }
+
+    /**
+     * Start a nested update.
+     */
+    void begin() {
+        this.depth++;
+    }
+
+    /**
+     * End an update.
+     *
+     * @return true if it was the outermost update
+     */
+    boolean end() {
+        return --this.depth == 0;
+    }
+
+    /**
+     * Merge the changes and the pending updates of another scope into this one.
+     * Nothing changes if the other scope has already been absorbed.
+     *
+     * @param other the scope to absorb (not null)
+     */
+    void absorb(final UpdateScope other) {
+        if (other == this || other.absorbedBy != null) {
+            return;
+        }
+        other.absorbedBy = this;
+        for (Parameter<?> parameter : other.changed) {
+            changed(parameter, other.oldValues.get(parameter));
+        }
+        this.depth += other.depth;
+    }
+
+    /**
+     * Record the change of a parameter instead of notifying its listeners.
+     *
+     * @param parameter the changed parameter (not null)
+     * @param oldValue the previous value
+     */
+    void changed(final Parameter<?> parameter, final Object oldValue) {
+        if (!this.oldValues.containsKey(parameter)) {
+            this.oldValues.put(parameter, oldValue);
+            this.changed.add(parameter);
+        }
+    }
+
+    /**
+     * Notify the listeners of the changed parameters.
+     * The scope must have been left before, so that the listeners may change the parameters.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    void commit() {
+        if (this.changed.isEmpty()) {
+            return;
+        }
+        final List<Parameter<?>> parameters = Collections.unmodifiableList(this.changed);
+        final Map<Object, Boolean> visited = new IdentityHashMap<>();
+        final List<ChangeListener> notified = new ArrayList<>();
+        for (Parameter parameter : parameters) {
+            for (Object listener : parameter.getValueListeners()) {
+                ((ValueListener) listener).onChange(parameter, this.oldValues.get(parameter), parameter.getValue());
+            }
+            parameter.getEventNode().collect(visited, notified);
+        }
+        if (!notified.isEmpty()) {
+            final ChangeEvent event = new ChangeEvent(this.source, AbsContent.UPDATE, null, parameters);
+            for (ChangeListener listener : notified) {
+                listener.onChange(event);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+/**
+ * Listener of the changes of value of a {@link Parameter}.
+ * <p>
+ * Unlike a {@link ChangeListener}, it is notified without creating any event:
+ * the values are given as is (boxed only for the parameters holding a primitive value).
+ * </p>
+ *
+ * @author c.fauch
+ *
+ * @param <T> the type of value
+ * @see Parameter#addValueListener(ValueListener)
+ */
+@FunctionalInterface
+public interface ValueListener<T> {
+
+    /**
+     * Called each time a new value is set or decoded, even if it is equal to the previous one.
+     *
+     * @param parameter the changed parameter
+     * @param oldValue the previous value
+     * @param newValue the new value
+     */
+    void onChange(Parameter<? extends T> parameter, T oldValue, T newValue);
+
+}
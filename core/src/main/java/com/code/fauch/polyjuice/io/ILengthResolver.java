@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.io;
+
+import com.code.fauch.polyjuice.AbsColumn;
+import com.code.fauch.polyjuice.DynamicArray;
+import com.code.fauch.polyjuice.IContent;
+import com.code.fauch.polyjuice.Parameter;
+
+/**
+ * Gives the structure of a frame that cannot be deduced from the types, usually from the values
+ * already decoded (like a length or a number of elements sent before).
+ * <p>
+ * A resolver is called by an {@link IncrementalDecoder} when it reaches a parameter whose size
+ * is variable (like a string) and before decoding the elements of a dynamic array or of a column.
+ * </p>
+ *
+ * @param <T> the type of the decoded frames
+ *
+ * @author c.fauch
+ *
+ */
+@FunctionalInterface
+public interface ILengthResolver<T extends IContent> {
+
+    /**
+     * Returns the size in bytes of the encoded value of a parameter whose size is variable.
+     * All the contents preceding the parameter in the frame are already decoded.
+     *
+     * @param frame the frame being decoded
+     * @param parent the content holding the parameter
+     * @param parameter the parameter to decode
+     * @return the size in bytes (positive or zero)
+     */
+    int lengthOf(T frame, IContent parent, Parameter<?> parameter);
+
+    /**
+     * Adds or removes elements so that the given array holds the elements to decode.
+     * All the contents preceding the array in the frame are already decoded.
+     * By default, the current elements are decoded.
+     *
+     * @param frame the frame being decoded
+     * @param parent the content holding the array
+     * @param array the array to decode
+     */
+    default void resize(final T frame, final IContent parent, final DynamicArray<?> array) {
+        // Nothing to do
+    }
+
+    /**
+     * Resizes the given column so that it holds the number of values to decode.
+     * All the contents preceding the column in the frame are already decoded.
+     * By default, the current number of values is decoded.
+     *
+     * @param frame the frame being decoded
+     * @param parent the content holding the column
+     * @param column the column to decode
+     */
+    default void resize(final T frame, final IContent parent, final AbsColumn column) {
+        // Nothing to do
+    }
+
+}
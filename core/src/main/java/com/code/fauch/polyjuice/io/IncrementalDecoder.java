@@ -0,0 +1,384 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.code.fauch.polyjuice.AbsColumn;
+import com.code.fauch.polyjuice.AbsContent;
+import com.code.fauch.polyjuice.AbsFixedSizeContent;
+import com.code.fauch.polyjuice.DynamicArray;
+import com.code.fauch.polyjuice.IContent;
+import com.code.fauch.polyjuice.IType;
+import com.code.fauch.polyjuice.Parameter;
+
+/**
+ * Resumable decoder of a stream of frames received in chunks split at arbitrary boundaries.
+ * <p>
+ * The decoder walks the tree of contents of the current frame like a state machine: each chunk
+ * is decoded as far as possible and the decoding is resumed on the next chunk where it stopped.
+ * Each leaf (a parameter or a content with an expected size) is decoded directly from the chunk
+ * when it holds all its bytes, else only the bytes of this leaf are kept until the next chunk.
+ * So the stream is never buffered. Each complete frame is given to the handler.
+ * </p>
+ * <p>
+ * The size of a parameter whose size is variable (like a string) and the number of elements of a
+ * dynamic array or of a column are not encoded by their types: they are given by a {@link ILengthResolver},
+ * usually from the values decoded before. The values are decoded immediately: the lazy decoding mode is
+ * disabled on the decoded contents since the chunks are reused.
+ * </p>
+ * <p>
+ * A decoder is not thread-safe: it is meant to be used by a single connection, for instance by
+ * a selector thread which reads each ready channel into a shared buffer with
+ * {@link #read(ReadableByteChannel, ByteBuffer)}. After an exception, the decoder must be reset.
+ * </p>
+ *
+ * @param <T> the type of the decoded frames
+ *
+ * @author c.fauch
+ *
+ */
+public final class IncrementalDecoder<T extends IContent> {
+
+    /**
+     * Initial depth of the stack of the composite contents.
+     */
+    private static final int INITIAL_DEPTH = 8;
+
+    /**
+     * Supplies the content to decode each frame into.
+     */
+    private final Supplier<? extends T> supplier;
+
+    /**
+     * Gives the sizes that cannot be deduced from the types.
+     */
+    private final ILengthResolver<? super T> resolver;
+
+    /**
+     * Receives each complete frame.
+     */
+    private final Consumer<? super T> handler;
+
+    /**
+     * The composite contents being decoded, from the frame to the deepest one.
+     */
+    private IContent[] nodes;
+
+    /**
+     * For each composite content being decoded, the index of the next child to decode.
+     */
+    private int[] indexes;
+
+    /**
+     * The number of composite contents being decoded.
+     */
+    private int depth;
+
+    /**
+     * The frame being decoded (null between two frames).
+     */
+    private T frame;
+
+    /**
+     * The leaf being decoded (null if none).
+     */
+    private IContent leaf;
+
+    /**
+     * The size in bytes of the leaf being decoded.
+     */
+    private int length;
+
+    /**
+     * The bytes of the leaf received so far when the leaf is split between chunks.
+     */
+    private ByteBuffer scratch;
+
+    /**
+     * Constructor.
+     *
+     * @param supplier supplies the content to decode each frame into, either a new one or the same one (not null)
+     * @param resolver gives the sizes that cannot be deduced from the types (not null)
+     * @param handler receives each complete frame (not null)
+     */
+    public IncrementalDecoder(final Supplier<? extends T> supplier, final ILengthResolver<? super T> resolver,
+            final Consumer<? super T> handler) {
+        this.supplier = Objects.requireNonNull(supplier, "supplier is missing");
+        this.resolver = Objects.requireNonNull(resolver, "resolver is missing");
+        this.handler = Objects.requireNonNull(handler, "handler is missing");
+        this.nodes = new IContent[INITIAL_DEPTH];
+        this.indexes = new int[INITIAL_DEPTH];
+        this.scratch = ByteBuffer.allocate(0);
+    }
+
+    /**
+     * Decode all the remaining bytes of a chunk.
+     * The handler is called for each frame completed by this chunk.
+     *
+     * @param chunk the next bytes of the stream (not null)
+     * @return the number of completed frames
+     * @throws IllegalArgumentException if a resolved size is negative
+     * @throws IllegalStateException if a frame has no bytes to decode
+     * @throws UnsupportedOperationException if a type cannot be decoded
+     */
+    public int feed(final ByteBuffer chunk) {
+        int count = 0;
+        while (chunk.hasRemaining()) {
+            if (this.frame == null) {
+                begin();
+            }
+            if (fill(chunk) && advance()) {
+                final T complete = this.frame;
+                this.frame = null;
+                this.handler.accept(complete);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Read the available bytes of a channel into the given buffer and decode them.
+     * The buffer is cleared first, so it can be shared by several decoders of the same thread.
+     *
+     * @param channel the channel to read (not null)
+     * @param buffer the buffer to read into (not null)
+     * @return the number of completed frames or -1 at the end of the stream
+     * @throws IOException if the channel fails
+     * @throws IllegalArgumentException if a resolved size is negative
+     * @throws IllegalStateException if a frame has no bytes to decode
+     * @throws UnsupportedOperationException if a type cannot be decoded
+     */
+    public int read(final ReadableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        if (channel.read(buffer) < 0) {
+            return -1;
+        }
+        return feed(buffer.flip());
+    }
+
+    /**
+     * Returns true if a frame is partially decoded, waiting for the next bytes.
+     *
+     * @return true if a frame is pending
+     */
+    public boolean hasPendingFrame() {
+        return this.frame != null;
+    }
+
+    /**
+     * Forget the partially decoded frame: the next bytes are decoded as the start of a new frame.
+     */
+    public void reset() {
+        this.frame = null;
+        this.leaf = null;
+        Arrays.fill(this.nodes, 0, this.depth, null);
+        this.depth = 0;
+    }
+
+    /**
+     * Start a new frame and move to its first leaf.
+     *
+     * @throws IllegalStateException if the frame has no bytes to decode
+     */
+    private void begin() {
+        this.frame = Objects.requireNonNull(this.supplier.get(), "frame is missing");
+        enter(this.frame, null);
+        if (this.leaf == null ? advance() : this.length == 0) {
+            reset();
+            throw new IllegalStateException("empty frame");
+        }
+    }
+
+    /**
+     * Move to the next leaf to decode, decoding on the way the leaves without bytes.
+     *
+     * @return true if the frame is complete
+     */
+    private boolean advance() {
+        while (this.depth > 0) {
+            final IContent node = this.nodes[this.depth - 1];
+            final int index = this.indexes[this.depth - 1];
+            if (index < childCount(node)) {
+                this.indexes[this.depth - 1]++;
+                final IContent child = child(node, index);
+                if (child != null) {
+                    enter(child, node);
+                    if (this.leaf != null && this.length == 0) {
+                        decode(this.scratch.clear().limit(0));
+                    } else if (this.leaf != null) {
+                        return false;
+                    }
+                }
+            } else {
+                this.nodes[--this.depth] = null;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Start the decoding of a content, either as a leaf or as a composite content.
+     *
+     * @param content the content to decode (not null)
+     * @param parent the content holding it (null for the frame)
+     */
+    private void enter(final IContent content, final IContent parent) {
+        if (content instanceof DynamicArray) {
+            this.resolver.resize(this.frame, parent, (DynamicArray<?>) content);
+            push(content);
+        } else if (content instanceof AbsContent && !isSized(content)) {
+            push(content);
+        } else {
+            if (content instanceof AbsColumn) {
+                this.resolver.resize(this.frame, parent, (AbsColumn) content);
+            }
+            this.leaf = content;
+            this.length = lengthOf(content, parent);
+            if (this.scratch.capacity() < this.length) {
+                this.scratch = ByteBuffer.allocate(this.length);
+            }
+            this.scratch.clear().limit(this.length);
+        }
+    }
+
+    /**
+     * Decode the bytes of the current leaf available in the chunk.
+     *
+     * @param chunk the chunk (not null)
+     * @return true if the leaf is decoded
+     */
+    private boolean fill(final ByteBuffer chunk) {
+        final int limit = chunk.limit();
+        if (this.scratch.position() == 0 && chunk.remaining() >= this.length) {
+            final int end = chunk.position() + this.length;
+            chunk.limit(end);
+            try {
+                decode(chunk);
+            } finally {
+                chunk.limit(limit);
+                chunk.position(end);
+            }
+            return true;
+        }
+        chunk.limit(chunk.position() + Math.min(chunk.remaining(), this.scratch.remaining()));
+        this.scratch.put(chunk);
+        chunk.limit(limit);
+        if (this.scratch.hasRemaining()) {
+            return false;
+        }
+        decode(this.scratch.flip().order(chunk.order()));
+        return true;
+    }
+
+    /**
+     * Decode the current leaf from the given bytes.
+     *
+     * @param bytes the bytes of the leaf (not null)
+     */
+    private void decode(final ByteBuffer bytes) {
+        if (this.leaf instanceof Parameter) {
+            ((Parameter<?>) this.leaf).setLazyDecoding(false);
+        } else if (this.leaf instanceof AbsContent) {
+            ((AbsContent) this.leaf).setLazyDecoding(false);
+        }
+        final IContent decoded = this.leaf;
+        this.leaf = null;
+        decoded.readFrom(bytes);
+    }
+
+    /**
+     * Returns the size in bytes of a leaf.
+     *
+     * @param content the leaf (not null)
+     * @param parent the content holding it (null for the frame)
+     * @return the size in bytes
+     * @throws IllegalArgumentException if the resolved size is negative
+     */
+    private int lengthOf(final IContent content, final IContent parent) {
+        if (isSized(content)) {
+            return ((AbsFixedSizeContent) content).getExpectedSize();
+        }
+        if (!(content instanceof Parameter)) {
+            return content.encodedSize();
+        }
+        final Parameter<?> parameter = (Parameter<?>) content;
+        final int size = parameter.getType().fixedSize();
+        if (size != IType.VARIABLE_SIZE) {
+            return size;
+        }
+        final int resolved = this.resolver.lengthOf(this.frame, parent, parameter);
+        if (resolved < 0) {
+            throw new IllegalArgumentException("invalid size of " + parameter.getLabel() + ": " + resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Push a composite content onto the stack.
+     *
+     * @param content the composite content (not null)
+     */
+    private void push(final IContent content) {
+        if (this.depth == this.nodes.length) {
+            this.nodes = Arrays.copyOf(this.nodes, this.depth * 2);
+            this.indexes = Arrays.copyOf(this.indexes, this.depth * 2);
+        }
+        this.nodes[this.depth] = content;
+        this.indexes[this.depth] = 0;
+        this.depth++;
+    }
+
+    /**
+     * Check if a content is decoded as a whole with its expected size.
+     *
+     * @param content the content (not null)
+     * @return true for a content with an expected size
+     */
+    private static boolean isSized(final IContent content) {
+        return content instanceof AbsFixedSizeContent && ((AbsFixedSizeContent) content).getExpectedSize() != null;
+    }
+
+    /**
+     * Returns the number of children of a composite content.
+     *
+     * @param node the composite content (not null)
+     * @return the number of children
+     */
+    private static int childCount(final IContent node) {
+        return node instanceof DynamicArray ? ((DynamicArray<?>) node).size()
+                : ((AbsContent) node).getOrderedContents().size();
+    }
+
+    /**
+     * Returns a child of a composite content.
+     *
+     * @param node the composite content (not null)
+     * @param index the index of the child
+     * @return the child (may be null)
+     */
+    private static IContent child(final IContent node, final int index) {
+        return node instanceof DynamicArray ? ((DynamicArray<?>) node).get(index)
+                : ((AbsContent) node).getOrderedContents().get(index);
+    }
+
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import com.code.fauch.polyjuice.FrameView;
+import com.code.fauch.polyjuice.IContent;
+
+/**
+ * Store of records of the same size, appended to memory-mapped segment files.
+ * <p>
+ * The records are stored one after the other in segment files of a fixed number of records,
+ * named by their position (<code>00000000.seg</code>, <code>00000001.seg</code>, ...) in the directory
+ * of the store. A new segment is created each time the current one is full. Each segment is mapped
+ * in memory so that a record is encoded directly into the file and can be read back by its index,
+ * either decoded into an existing content or through a {@link FrameView}, without any copy.
+ * </p>
+ * <p>
+ * Each segment file has the size of all its records from its creation. It starts with a header holding
+ * the size of the records and the number of records written, updated after each record: the unwritten
+ * slots of the last segment are never taken as records, even if the store has not been closed. The
+ * files are never truncated, so that the mapped records remain readable after the store is closed.
+ * </p>
+ * <p>
+ * The store is typically used with fixed-size contents (see
+ * {@link com.code.fauch.polyjuice.AbsFixedSizeContent#getExpectedSize()}) or with contents
+ * with a fixed layout. A store is not thread-safe.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class RecordStore implements AutoCloseable {
+
+    /**
+     * Suffix of the segment files.
+     */
+    private static final String SUFFIX = ".seg";
+
+    /**
+     * Size in bytes of the header of each segment.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Offset in the header of the size of the records.
+     */
+    private static final int RECORD_SIZE_OFFSET = 0;
+
+    /**
+     * Offset in the header of the number of records written.
+     */
+    private static final int COUNT_OFFSET = 4;
+
+    /**
+     * A mapped segment file.
+     *
+     * @author c.fauch
+     *
+     */
+    private static final class Segment {
+
+        /**
+         * The mapped content used to write the records.
+         */
+        private final MappedByteBuffer writer;
+
+        /**
+         * The mapped content used to read the records.
+         */
+        private final ByteBuffer reader;
+
+        /**
+         * Constructor.
+         *
+         * @param path the path of the segment file (not null)
+         * @param capacity the size in bytes of the segment
+         * @throws IOException if the file cannot be mapped
+         */
+        private Segment(final Path path, final int capacity) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                this.writer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            }
+            this.reader = this.writer.duplicate();
+        }
+
+    }
+
+    /**
+     * The directory of the segment files.
+     */
+    private final Path directory;
+
+    /**
+     * The size in bytes of each record.
+     */
+    private final int recordSize;
+
+    /**
+     * The number of records of each segment.
+     */
+    private final int recordsPerSegment;
+
+    /**
+     * The mapped segments.
+     */
+    private final List<Segment> segments;
+
+    /**
+     * The number of records.
+     */
+    private long size;
+
+    /**
+     * True once closed.
+     */
+    private boolean closed;
+
+    /**
+     * Constructor.
+     *
+     * @param directory the directory of the segment files (not null)
+     * @param recordSize the size in bytes of each record
+     * @param recordsPerSegment the number of records of each segment
+     */
+    private RecordStore(final Path directory, final int recordSize, final int recordsPerSegment) {
+        this.directory = directory;
+        this.recordSize = recordSize;
+        this.recordsPerSegment = recordsPerSegment;
+        this.segments = new ArrayList<>();
+    }
+
+    /**
+     * Open a store, creating the directory if needed.
+     * The records of the existing segment files are available.
+     *
+     * @param directory the directory of the segment files (not null)
+     * @param recordSize the size in bytes of each record (strictly positive)
+     * @param recordsPerSegment the number of records of each segment (strictly positive)
+     * @return the opened store
+     * @throws IOException if the segment files cannot be opened or do not match the size of the records
+     */
+    public static RecordStore open(final Path directory, final int recordSize, final int recordsPerSegment)
+            throws IOException {
+        Objects.requireNonNull(directory, "directory is missing");
+        if (recordSize <= 0) {
+            throw new IllegalArgumentException("record size must be strictly positive: " + recordSize);
+        }
+        if (recordsPerSegment <= 0 || (long) recordSize * recordsPerSegment + HEADER_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("invalid number of records per segment: " + recordsPerSegment);
+        }
+        Files.createDirectories(directory);
+        final List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(paths::add);
+        }
+        paths.sort(null);
+        final RecordStore store = new RecordStore(directory, recordSize, recordsPerSegment);
+        for (int i = 0; i < paths.size(); i++) {
+            final Path path = paths.get(i);
+            if (!path.getFileName().toString().equals(segmentName(i))) {
+                throw new IOException("missing segment: " + directory.resolve(segmentName(i)));
+            }
+            if (Files.size(path) != store.capacity()) {
+                throw new IOException("segment does not match the size of the records: " + path);
+            }
+            final Segment segment = new Segment(path, store.capacity());
+            final int count = segment.writer.getInt(COUNT_OFFSET);
+            if (segment.writer.getInt(RECORD_SIZE_OFFSET) != recordSize || count < 0 || count > recordsPerSegment
+                    || (i < paths.size() - 1 && count != recordsPerSegment)) {
+                throw new IOException("segment does not match the size of the records: " + path);
+            }
+            store.segments.add(segment);
+            store.size += count;
+        }
+        return store;
+    }
+
+    /**
+     * Returns the size in bytes of each record.
+     *
+     * @return the size in bytes
+     */
+    public int getRecordSize() {
+        return this.recordSize;
+    }
+
+    /**
+     * Returns the number of records.
+     *
+     * @return the number of records
+     */
+    public long size() {
+        return this.size;
+    }
+
+    /**
+     * Append a record at the end of the store.
+     *
+     * @param content the content to encode (not null)
+     * @return the index of the record
+     * @throws IllegalArgumentException if the encoded content has not the size of the records
+     * @throws IOException if a new segment cannot be created
+     * @throws IllegalStateException if the store is closed
+     */
+    public long append(final IContent content) throws IOException {
+        checkOpen();
+        if (content.encodedSize() != this.recordSize) {
+            throw new IllegalArgumentException("record size mismatch: " + content.encodedSize());
+        }
+        final long index = this.size;
+        final int segment = (int) (index / this.recordsPerSegment);
+        if (segment == this.segments.size()) {
+            final Segment created = new Segment(this.directory.resolve(segmentName(segment)), capacity());
+            created.writer.putInt(RECORD_SIZE_OFFSET, this.recordSize);
+            this.segments.add(created);
+        }
+        final int offset = offset(index);
+        final ByteBuffer writer = this.segments.get(segment).writer;
+        writer.limit(offset + this.recordSize).position(offset);
+        content.writeTo(writer);
+        writer.putInt(COUNT_OFFSET, (int) (index % this.recordsPerSegment) + 1);
+        this.size++;
+        return index;
+    }
+
+    /**
+     * Decode a record into an existing content.
+     *
+     * @param index the index of the record
+     * @param content the content to update (not null)
+     * @throws IndexOutOfBoundsException if there is no such record
+     * @throws IllegalStateException if the store is closed
+     */
+    public void read(final long index, final IContent content) {
+        content.readFrom(record(index));
+    }
+
+    /**
+     * Move a view to a record.
+     *
+     * @param index the index of the record
+     * @param view the view to move (not null)
+     * @return the view
+     * @throws IndexOutOfBoundsException if there is no such record
+     * @throws IllegalArgumentException if the layout of the view has not the size of the records
+     * @throws IllegalStateException if the store is closed
+     */
+    public FrameView view(final long index, final FrameView view) {
+        if (view.getLayout().size() != this.recordSize) {
+            throw new IllegalArgumentException("record size mismatch: " + view.getLayout().size());
+        }
+        final ByteBuffer reader = record(index);
+        return view.wrap(reader, reader.position());
+    }
+
+    /**
+     * Decode each record one after the other into the same content.
+     *
+     * @param content the content to update (not null)
+     * @param action the action to perform on the content after each record (not null)
+     * @throws IllegalStateException if the store is closed
+     */
+    public void scan(final IContent content, final Consumer<? super IContent> action) {
+        checkOpen();
+        for (long i = 0; i < this.size; i++) {
+            read(i, content);
+            action.accept(content);
+        }
+    }
+
+    /**
+     * Move the same view from one record to the next.
+     *
+     * @param view the view to move (not null)
+     * @param action the action to perform on the view at each record (not null)
+     * @throws IllegalArgumentException if the layout of the view has not the size of the records
+     * @throws IllegalStateException if the store is closed
+     */
+    public void scan(final FrameView view, final Consumer<? super FrameView> action) {
+        checkOpen();
+        for (long i = 0; i < this.size; i++) {
+            action.accept(view(i, view));
+        }
+    }
+
+    /**
+     * Force the written records to be stored on disk.
+     */
+    public void flush() {
+        for (Segment segment : this.segments) {
+            segment.writer.force();
+        }
+    }
+
+    /**
+     * Flush the records. The store cannot be used anymore, but the contents lazily decoded from
+     * its records remain readable: the segments are released once they are not referenced anymore.
+     */
+    @Override
+    public void close() {
+        flush();
+        this.segments.clear();
+        this.size = 0;
+        this.closed = true;
+    }
+
+    /**
+     * Check that the store is not closed.
+     *
+     * @throws IllegalStateException if the store is closed
+     */
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("store closed: " + this.directory);
+        }
+    }
+
+    /**
+     * Bound the reader of a segment to a record.
+     *
+     * @param index the index of the record
+     * @return the reader positioned on the record
+     * @throws IndexOutOfBoundsException if there is no such record
+     * @throws IllegalStateException if the store is closed
+     */
+    private ByteBuffer record(final long index) {
+        checkOpen();
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("no record " + index);
+        }
+        final int offset = offset(index);
+        final ByteBuffer reader = this.segments.get((int) (index / this.recordsPerSegment)).reader;
+        return reader.limit(offset + this.recordSize).position(offset);
+    }
+
+    /**
+     * Returns the offset of a record in its segment.
+     *
+     * @param index the index of the record
+     * @return the offset in bytes
+     */
+    private int offset(final long index) {
+        return HEADER_SIZE + (int) (index % this.recordsPerSegment) * this.recordSize;
+    }
+
+    /**
+     * Returns the size in bytes of a segment, header included.
+     *
+     * @return the size in bytes
+     */
+    private int capacity() {
+        return HEADER_SIZE + this.recordSize * this.recordsPerSegment;
+    }
+
+    /**
+     * Returns the name of the file of a segment.
+     *
+     * @param segment the position of the segment
+     * @return the file name
+     */
+    private static String segmentName(final int segment) {
+        return String.format("%08d%s", segment, SUFFIX);
+    }
+
+}
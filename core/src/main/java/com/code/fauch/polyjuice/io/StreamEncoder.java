@@ -0,0 +1,495 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import com.code.fauch.polyjuice.AbsColumn;
+import com.code.fauch.polyjuice.AbsContent;
+import com.code.fauch.polyjuice.AbsFixedSizeContent;
+import com.code.fauch.polyjuice.DynamicArray;
+import com.code.fauch.polyjuice.EncodingCache;
+import com.code.fauch.polyjuice.IContent;
+import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.StdType;
+
+/**
+ * Encoder streaming contents to a channel through a bounded set of scratch segments.
+ * <p>
+ * The tree of contents is walked: each leaf is encoded directly into the current segment
+ * and the segments are written to the channel once they are all full, with a single gathering
+ * write when the channel supports it. A leaf larger than a segment is written piece by piece, so the
+ * memory used to encode a content does not depend on its size: only a parameter of a custom type
+ * larger than a segment is encoded on its own.
+ * </p>
+ * <p>
+ * The written bytes are always the ones of {@link IContent#getBytes()}: a composite whose cache is valid
+ * is copied from it, and a composite overriding {@link AbsContent#writeTo(ByteBuffer)} is encoded through
+ * it instead of being walked.
+ * </p>
+ * <p>
+ * An encoder is not thread-safe: it should be used by one thread at a time.
+ * The channel is expected to be in blocking mode.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class StreamEncoder {
+
+    /**
+     * Maximum number of bytes of a character encoded in UTF-8.
+     */
+    private static final int MAX_CHAR_SIZE = 4;
+
+    /**
+     * Indicates for each class of composite content whether it keeps the encoding of {@link AbsContent}.
+     */
+    private static final ClassValue<Boolean> PLAIN_ENCODING = new ClassValue<>() {
+
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                final Class<?> declaring = type.getMethod("writeTo", ByteBuffer.class).getDeclaringClass();
+                return declaring == AbsContent.class || declaring == AbsFixedSizeContent.class;
+            } catch (NoSuchMethodException e) {
+                return Boolean.FALSE;
+            }
+        }
+
+    };
+
+    /**
+     * The scratch segments.
+     */
+    private final ByteBuffer[] segments;
+
+    /**
+     * The size in bytes of each segment.
+     */
+    private final int segmentSize;
+
+    /**
+     * The encoder of the strings larger than a segment.
+     */
+    private final CharsetEncoder encoder;
+
+    /**
+     * The bytes of a character truncated by a fixed-size content.
+     */
+    private final ByteBuffer scratch;
+
+    /**
+     * Index of the segment currently filled.
+     */
+    private int current;
+
+    /**
+     * The channel to write into during encoding.
+     */
+    private WritableByteChannel channel;
+
+    /**
+     * Number of bytes written to the channel during encoding.
+     */
+    private long written;
+
+    /**
+     * Constructor.
+     *
+     * @param segmentSize the size in bytes of each scratch segment (strictly positive)
+     * @param segments the number of scratch segments (strictly positive)
+     */
+    public StreamEncoder(final int segmentSize, final int segments) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("segment size must be strictly positive: " + segmentSize);
+        }
+        if (segments <= 0) {
+            throw new IllegalArgumentException("number of segments must be strictly positive: " + segments);
+        }
+        this.segmentSize = segmentSize;
+        this.segments = new ByteBuffer[segments];
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = ByteBuffer.allocateDirect(segmentSize);
+        }
+        this.encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.scratch = ByteBuffer.allocate(MAX_CHAR_SIZE);
+    }
+
+    /**
+     * Constructor with a single scratch segment.
+     *
+     * @param segmentSize the size in bytes of the scratch segment (strictly positive)
+     */
+    public StreamEncoder(final int segmentSize) {
+        this(segmentSize, 1);
+    }
+
+    /**
+     * Encode the given contents one after the other into the given channel.
+     *
+     * @param channel the channel to write into (not null)
+     * @param contents the contents to encode
+     * @return the number of written bytes
+     * @throws IOException if the channel fails
+     */
+    public long encode(final WritableByteChannel channel, final IContent... contents) throws IOException {
+        this.channel = Objects.requireNonNull(channel, "channel is missing");
+        this.written = 0;
+        try {
+            for (IContent content : contents) {
+                write(content);
+            }
+            flush();
+            return this.written;
+        } finally {
+            clear();
+            this.channel = null;
+        }
+    }
+
+    /**
+     * Encode the given contents one after the other into the given stream.
+     *
+     * @param output the stream to write into (not null)
+     * @param contents the contents to encode
+     * @return the number of written bytes
+     * @throws IOException if the stream fails
+     */
+    public long encode(final OutputStream output, final IContent... contents) throws IOException {
+        return encode(Channels.newChannel(Objects.requireNonNull(output, "output is missing")), contents);
+    }
+
+    /**
+     * Encode a content walking through its contents.
+     * A composite whose cache is valid or which overrides {@link AbsContent#writeTo(ByteBuffer)} is
+     * encoded as a whole, so that the written bytes are always the ones of {@link IContent#getBytes()}.
+     *
+     * @param content the content to encode (may be null)
+     * @throws IOException if the channel fails
+     */
+    private void write(final IContent content) throws IOException {
+        if (content == null) {
+            return;
+        }
+        if (content instanceof AbsContent && isWalkable((AbsContent) content)) {
+            for (IContent child : ((AbsContent) content).getOrderedContents()) {
+                write(child);
+            }
+        } else if (content instanceof DynamicArray && !isCached(content)) {
+            for (IContent element : (DynamicArray<?>) content) {
+                write(element);
+            }
+        } else {
+            writeLeaf(content, content.encodedSize());
+        }
+    }
+
+    /**
+     * Encode the first bytes of the contents of a fixed-size content as they are truncated to its
+     * expected size (see {@link AbsFixedSizeContent#writeTo(ByteBuffer)}).
+     *
+     * @param content the content to encode (may be null)
+     * @param length the number of bytes that remain to be written
+     * @return the number of bytes that remain to be written after the content
+     * @throws IOException if the channel fails
+     */
+    private int writeTruncated(final IContent content, final int length) throws IOException {
+        if (content == null || length == 0) {
+            return length;
+        }
+        int left = length;
+        if (content instanceof AbsContent && !isFixed(content) && !isCached(content)) {
+            for (IContent child : ((AbsContent) content).getOrderedContents()) {
+                left = writeTruncated(child, left);
+            }
+        } else if (content instanceof DynamicArray && !isCached(content)) {
+            for (IContent element : (DynamicArray<?>) content) {
+                left = writeTruncated(element, left);
+            }
+        } else {
+            final int size = Math.min(content.encodedSize(), left);
+            writeLeaf(content, size);
+            left -= size;
+        }
+        return left;
+    }
+
+    /**
+     * Encode the first bytes of a content as a whole into the scratch segments. A content larger than a
+     * segment is written piece by piece: the bytes already encoded are copied, a fixed-size content is
+     * walked through, a column is encoded by ranges of values and a string through a charset encoder.
+     * Only a value of another type is encoded on its own.
+     *
+     * @param content the content to encode (not null)
+     * @param length the number of bytes to write (at most the encoded size of the content)
+     * @throws IOException if the channel fails
+     */
+    private void writeLeaf(final IContent content, final int length) throws IOException {
+        final int size = content.encodedSize();
+        if (size <= this.segmentSize) {
+            if (size > this.segments[this.current].remaining()) {
+                next();
+            }
+            final ByteBuffer segment = this.segments[this.current];
+            final int start = segment.position();
+            content.writeTo(segment);
+            segment.position(start + length);
+            return;
+        }
+        final ByteBuffer bytes = encodedBytes(content);
+        if (bytes != null) {
+            copy(bytes.limit(bytes.position() + length));
+        } else if (isFixed(content)) {
+            int left = length;
+            for (IContent child : ((AbsContent) content).getOrderedContents()) {
+                left = writeTruncated(child, left);
+            }
+            pad(left);
+        } else if (content instanceof AbsColumn && ((AbsColumn) content).getElementSize() <= this.segmentSize) {
+            writeColumn((AbsColumn) content, length);
+        } else if (content instanceof Parameter && ((Parameter<?>) content).getType() == StdType.STRING
+                && this.segmentSize >= MAX_CHAR_SIZE) {
+            writeString((String) ((Parameter<?>) content).getValue(), length);
+        } else {
+            copy(ByteBuffer.wrap(content.getBytes(), 0, length));
+        }
+    }
+
+    /**
+     * Encode the first bytes of a column by ranges of values fitting into the scratch segments.
+     *
+     * @param column the column to encode (not null)
+     * @param length the number of bytes to write
+     * @throws IOException if the channel fails
+     */
+    private void writeColumn(final AbsColumn column, final int length) throws IOException {
+        final int elementSize = column.getElementSize();
+        int from = 0;
+        int left = length;
+        while (left > 0) {
+            if (this.segments[this.current].remaining() < elementSize) {
+                next();
+            }
+            final ByteBuffer segment = this.segments[this.current];
+            final int count = Math.min(column.size() - from, segment.remaining() / elementSize);
+            final int start = segment.position();
+            column.writeTo(segment, from, count);
+            final int written = Math.min(left, count * elementSize);
+            segment.position(start + written);
+            from += count;
+            left -= written;
+        }
+    }
+
+    /**
+     * Encode the first bytes of a string in UTF-8 directly into the scratch segments.
+     *
+     * @param value the string to encode (may be null)
+     * @param length the number of bytes to write
+     * @throws IOException if the channel fails
+     */
+    private void writeString(final String value, final int length) throws IOException {
+        final CharBuffer chars = CharBuffer.wrap(value == null ? "" : value);
+        this.encoder.reset();
+        int left = length;
+        while (left > 0) {
+            final ByteBuffer segment = this.segments[this.current];
+            final int window = Math.min(segment.remaining(), left);
+            final int start = segment.position();
+            final int limit = segment.limit();
+            segment.limit(start + window);
+            this.encoder.encode(chars, segment, true);
+            segment.limit(limit);
+            final int written = segment.position() - start;
+            left -= written;
+            if (written == 0 && !chars.hasRemaining()) {
+                throw new IllegalStateException("string shorter than its encoded size");
+            } else if (written == 0 && window < segment.remaining()) {
+                // the next character does not fit into the bytes that remain to be written: truncate it
+                this.scratch.clear();
+                this.encoder.encode(chars, this.scratch, true);
+                copy(this.scratch.flip().limit(left));
+                left = 0;
+            } else if (written == 0) {
+                next();
+            }
+        }
+    }
+
+    /**
+     * Copy the remaining bytes of a buffer into the scratch segments.
+     *
+     * @param bytes the bytes to copy (not null)
+     * @throws IOException if the channel fails
+     */
+    private void copy(final ByteBuffer bytes) throws IOException {
+        final int limit = bytes.limit();
+        while (bytes.hasRemaining()) {
+            if (!this.segments[this.current].hasRemaining()) {
+                next();
+            }
+            final ByteBuffer segment = this.segments[this.current];
+            bytes.limit(bytes.position() + Math.min(bytes.remaining(), segment.remaining()));
+            segment.put(bytes);
+            bytes.limit(limit);
+        }
+    }
+
+    /**
+     * Write zeros into the scratch segments.
+     *
+     * @param length the number of zeros
+     * @throws IOException if the channel fails
+     */
+    private void pad(final int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            if (!this.segments[this.current].hasRemaining()) {
+                next();
+            }
+            this.segments[this.current].put((byte) 0);
+        }
+    }
+
+    /**
+     * Returns the bytes of a content when they are already encoded.
+     *
+     * @param content the content (not null)
+     * @return a view of the bytes or null if the content has to be encoded
+     */
+    private static ByteBuffer encodedBytes(final IContent content) {
+        if (content instanceof Parameter) {
+            return ((Parameter<?>) content).getEncodedBytes();
+        }
+        final EncodingCache cache = encodingCache(content);
+        return cache == null ? null : cache.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the cache of a composite content.
+     *
+     * @param content the content (not null)
+     * @return the cache or null if none
+     */
+    private static EncodingCache encodingCache(final IContent content) {
+        if (content instanceof AbsContent) {
+            return ((AbsContent) content).getEncodingCache();
+        } else if (content instanceof DynamicArray) {
+            return ((DynamicArray<?>) content).getEncodingCache();
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if a composite content holds its encoded bytes.
+     *
+     * @param content the content (not null)
+     * @return true if its cache is valid
+     */
+    private static boolean isCached(final IContent content) {
+        final EncodingCache cache = encodingCache(content);
+        return cache != null && cache.isValid();
+    }
+
+    /**
+     * Returns true if a content is a fixed-size content whose expected size is defined.
+     *
+     * @param content the content (not null)
+     * @return true if the size is fixed
+     */
+    private static boolean isFixed(final IContent content) {
+        return content instanceof AbsFixedSizeContent && ((AbsFixedSizeContent) content).getExpectedSize() != null;
+    }
+
+    /**
+     * Returns true if a composite content is encoded by encoding its contents one after the other.
+     *
+     * @param content the content (not null)
+     * @return true if its contents can be walked through
+     */
+    private static boolean isWalkable(final AbsContent content) {
+        return !isFixed(content) && !isCached(content) && PLAIN_ENCODING.get(content.getClass());
+    }
+
+    /**
+     * Move to the next segment, writing all the segments into the channel if they are all full.
+     *
+     * @throws IOException if the channel fails
+     */
+    private void next() throws IOException {
+        if (this.current + 1 < this.segments.length) {
+            this.current++;
+        } else {
+            flush();
+        }
+    }
+
+    /**
+     * Write all the filled segments into the channel.
+     *
+     * @throws IOException if the channel fails
+     */
+    private void flush() throws IOException {
+        final int count = this.current + 1;
+        for (int i = 0; i < count; i++) {
+            this.segments[i].flip();
+        }
+        if (count > 1 && this.channel instanceof GatheringByteChannel) {
+            final GatheringByteChannel gathering = (GatheringByteChannel) this.channel;
+            while (this.segments[this.current].hasRemaining()) {
+                this.written += gathering.write(this.segments, 0, count);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                drain(this.segments[i]);
+            }
+        }
+        clear();
+    }
+
+    /**
+     * Write the whole remaining bytes of a buffer into the channel.
+     *
+     * @param buffer the buffer to write (not null)
+     * @throws IOException if the channel fails
+     */
+    private void drain(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            this.written += this.channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reset all the segments.
+     */
+    private void clear() {
+        for (ByteBuffer segment : this.segments) {
+            segment.clear();
+        }
+        this.current = 0;
+    }
+
+}
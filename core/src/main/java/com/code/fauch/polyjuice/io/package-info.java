@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * This package allows to transfer contents through channels and streams.
+ * <p>
+ * Here is how to stream a content to a socket without building the whole sequence of bytes:
+ * <pre>
+ *      final StreamEncoder encoder = new StreamEncoder(8192, 4);
+ *      try (SocketChannel channel = SocketChannel.open(address)) {
+ *          encoder.encode(channel, content);
+ *      }
+ * </pre>
+ * </p>
+ * <p>
+ * Here is how to capture records into memory-mapped files and to read one field of each of them:
+ * <pre>
+ *      try (RecordStore store = RecordStore.open(directory, status.encodedSize(), 100000)) {
+ *          store.append(status);
+ *          store.scan(FrameView.of(Status.class), view -&gt; process(view.getInt("header.counter")));
+ *      }
+ * </pre>
+ * </p>
+ * <p>
+ * Here is how to decode frames received in chunks by a non-blocking channel, the length of each message
+ * being given by the parameter sent before it:
+ * <pre>
+ *      final IncrementalDecoder&lt;Item&gt; decoder = new IncrementalDecoder&lt;&gt;(Item::new,
+ *              (item, parent, parameter) -&gt; item.getSize().getValue(), this::process);
+ *      if (decoder.read(channel, buffer) &lt; 0) {
+ *          channel.close();
+ *      }
+ * </pre>
+ * </p>
+ * 
+ * @author c.fauch
+ *
+ */
+package com.code.fauch.polyjuice.io;
@@ -14,6 +14,9 @@
  */
 package com.code.fauch.polyjuice.spi;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import com.code.fauch.polyjuice.IType;
 
 /**
@@ -33,4 +36,14 @@ public interface ITypeProvider {
      */
     <U> IType<U> getInstance(String name);
     
+    /**
+     * Returns all the types of this provider, so that they are registered once by {@link Providers}.
+     * A provider that does not list its types is asked each time an unknown name is researched.
+     * 
+     * @return the types (empty by default)
+     */
+    default Collection<IType<?>> getTypes() {
+        return Collections.emptyList();
+    }
+    
 }
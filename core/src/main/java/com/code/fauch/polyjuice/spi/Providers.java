@@ -0,0 +1,190 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.spi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.code.fauch.polyjuice.IType;
+
+/**
+ * Utility class to make easier the research of types and content-types providers using SPI.
+ * <p>
+ * The providers are loaded once, on first use, and their types are registered by name in an immutable
+ * registry so that a type is found in constant time. The types of the providers that do not list them
+ * are memoized on first research. Whether they list their types or not, the first provider in the
+ * {@link ServiceLoader} order that knows a name takes precedence. The research is thread-safe. The registry is built again on demand,
+ * for instance after a new module layer is created (see {@link #refresh(ModuleLayer)}).
+ * </p>
+ * 
+ * @author c.fauch
+ *
+ */
+public final class Providers {
+
+    /**
+     * The registry of the types (null until first use).
+     */
+    private static volatile Registry registry;
+
+    /**
+     * No constructor
+     */
+    private Providers() {
+        // Nothing to do
+    }
+    
+    /**
+     * Research a type corresponding to a given name.
+     * 
+     * @param name the name of the type to research
+     * @return the corresponding type or null if not found
+     */
+    @SuppressWarnings("unchecked")
+    public static <U> IType<U> getTypeInstance(final String name) {
+        return name == null ? null : (IType<U>) registry().find(name);
+    }
+    
+    /**
+     * Load again the providers with the context class loader of the current thread.
+     */
+    public static void refresh() {
+        registry = new Registry(ServiceLoader.load(ITypeProvider.class));
+    }
+    
+    /**
+     * Load again the providers of a module layer and of its parents.
+     * 
+     * @param layer the module layer (not null)
+     */
+    public static void refresh(final ModuleLayer layer) {
+        registry = new Registry(ServiceLoader.load(Objects.requireNonNull(layer, "layer is missing"), ITypeProvider.class));
+    }
+    
+    /**
+     * Returns the registry, loaded on first call.
+     * 
+     * @return the registry
+     */
+    private static Registry registry() {
+        Registry current = registry;
+        if (current == null) {
+            synchronized (Providers.class) {
+                current = registry;
+                if (current == null) {
+                    current = new Registry(ServiceLoader.load(ITypeProvider.class));
+                    registry = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Types of a set of providers.
+     * 
+     * @author c.fauch
+     *
+     */
+    static final class Registry {
+        
+        /**
+         * The listed types by name.
+         */
+        private final Map<String, IType<?>> types;
+        
+        /**
+         * The providers that do not list their types.
+         */
+        private final List<ITypeProvider> others;
+        
+        /**
+         * The types already found with the providers that do not list them.
+         */
+        private final Map<String, IType<?>> found;
+        
+        /**
+         * Constructor.
+         * The first provider knowing a name takes precedence: a listed type is replaced by the one of a
+         * previous provider that does not list its types, if any.
+         * 
+         * @param providers the providers in order (not null)
+         */
+        Registry(final Iterable<ITypeProvider> providers) {
+            final Map<String, IType<?>> types = new HashMap<>();
+            final List<ITypeProvider> others = new ArrayList<>();
+            for (ITypeProvider provider : providers) {
+                if (provider.getTypes().isEmpty()) {
+                    others.add(provider);
+                }
+                for (IType<?> type : provider.getTypes()) {
+                    if (!types.containsKey(type.getName())) {
+                        final IType<?> previous = findOther(others, type.getName());
+                        types.put(type.getName(), previous == null ? type : previous);
+                    }
+                }
+            }
+            this.types = Map.copyOf(types);
+            this.others = List.copyOf(others);
+            this.found = new ConcurrentHashMap<>();
+        }
+        
+        /**
+         * Research a type.
+         * 
+         * @param name the name of the type (not null)
+         * @return the type or null if not found
+         */
+        IType<?> find(final String name) {
+            final IType<?> type = this.types.get(name);
+            if (type != null || this.others.isEmpty()) {
+                return type;
+            }
+            final IType<?> known = this.found.get(name);
+            if (known != null) {
+                return known;
+            }
+            final IType<?> other = findOther(this.others, name);
+            if (other != null) {
+                this.found.putIfAbsent(name, other);
+            }
+            return other;
+        }
+        
+        /**
+         * Research a type with the providers that do not list their types.
+         * 
+         * @param others the providers in order (not null)
+         * @param name the name of the type (not null)
+         * @return the type of the first provider knowing it or null if not found
+         */
+        private static IType<?> findOther(final List<ITypeProvider> others, final String name) {
+            for (ITypeProvider provider : others) {
+                final IType<?> type = provider.getInstance(name);
+                if (type != null) {
+                    return type;
+                }
+            }
+            return null;
+        }
+        
+    }
+    
+}
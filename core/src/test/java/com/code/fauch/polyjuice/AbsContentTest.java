@@ -0,0 +1,326 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.code.fauch.polyjuice.ContentImpl.Item;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class AbsContentTest {
+
+    /**
+     * EXPECTED:
+     * +---2bytes---+---2bytes---+---3bytes---+---2bytes---+---5bytes---+---2bytes---+---4bytes---+
+     * |     3      |     3      |    red     |     5      |    green   |     4      |    blue    |
+     * +------------+------------+------------+------------+------------+------------+------------+
+     */
+    @Test
+    public void testEncode() {
+        final ContentImpl content = new ContentImpl();
+        content.newItem().message("red");
+        content.newItem().message("green");
+        content.newItem().message("blue");
+        byte[] red = "red".getBytes(StandardCharsets.UTF_8);
+        byte[] green = "green".getBytes(StandardCharsets.UTF_8);
+        byte[] blue = "blue".getBytes(StandardCharsets.UTF_8);
+        byte[] expecteds = new byte[] {0, 3, 0, 3, red[0], red[1], red[2], 
+                0, 5, green[0], green[1], green[2], green[3], green[4], 
+                0, 4, blue[0], blue[1], blue[2], blue[3]};
+        Assert.assertArrayEquals(expecteds, content.getBytes());
+    }
+    
+    @Test
+    public void testWriteTo() {
+        final ContentImpl content = new ContentImpl();
+        content.newItem().message("red");
+        content.newItem().message("green");
+        final ByteBuffer buffer = ByteBuffer.allocate(32);
+        content.writeTo(buffer);
+        buffer.flip();
+        final byte[] actuals = new byte[buffer.remaining()];
+        buffer.get(actuals);
+        Assert.assertArrayEquals(content.getBytes(), actuals);
+        Assert.assertEquals(14, actuals.length);
+    }
+    
+    @Test
+    public void testEncodeLargeContent() {
+        final ContentImpl content = new ContentImpl();
+        for (int i = 0; i < 100; i++) {
+            content.newItem().message("item");
+        }
+        Assert.assertEquals(2 + 100 * 6, content.getBytes().length);
+        Assert.assertEquals(2 + 100 * 6, content.encodedSize());
+    }
+    
+    @Test
+    public void testAddListener() {
+        final ArrayList<String> events = new ArrayList<>();
+        final ContentImpl content = new ContentImpl();
+        final Item red = content.newItem().message("red");
+        content.newItem().message("green");
+        content.newItem().message("blue");
+        content.addChangeListener(e -> events.add(e.getPropertyName()));
+        red.message("yello");
+        Assert.assertArrayEquals(new String[] {Parameter.VALUE,  Parameter.VALUE}, events.toArray());
+    }
+    
+    @Test
+    public void testRemoveListener() {
+        final ArrayList<String> events = new ArrayList<>();
+        final ContentImpl content = new ContentImpl();
+        final Item red = content.newItem().message("red");
+        content.newItem().message("green");
+        content.newItem().message("blue");
+        final ChangeListener l = content.addChangeListener(e -> events.add(e.getPropertyName()));
+        content.removeChangeListener(l);
+        red.message("yello");
+        Assert.assertArrayEquals(new String[] {}, events.toArray());
+    }
+
+    @Test
+    public void testAddItem() {
+        final ArrayList<String> events = new ArrayList<>();
+        final ContentImpl content = new ContentImpl();
+        final Item red = content.newItem().message("red");
+        content.addChangeListener(e -> events.add(e.getPropertyName()));
+        content.newItem().message("green");
+        content.newItem().message("blue");
+        red.message("yello");
+        Assert.assertArrayEquals(new String[] {
+                DynamicArray.NEW, Parameter.VALUE, Parameter.VALUE, Parameter.VALUE, 
+                DynamicArray.NEW, Parameter.VALUE, Parameter.VALUE, Parameter.VALUE,
+                Parameter.VALUE,  Parameter.VALUE
+            }, events.toArray());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBubbling() {
+        final ArrayList<String> events = new ArrayList<>();
+        final ContentImpl content = new ContentImpl();
+        final Item red = content.newItem().message("red");
+        final Parameter<Short> first = (Parameter<Short>) red.getOrderedContents().get(0);
+        content.addChangeListener(e -> events.add("content:" + e.getPropertyName()));
+        first.addChangeListener(e -> events.add("size:" + e.getPropertyName()));
+        first.setValue((short) 4);
+        Assert.assertEquals(Arrays.asList("size:" + Parameter.VALUE, "content:" + Parameter.VALUE), events);
+    }
+    
+    @Test
+    public void testSeveralParents() {
+        final ArrayList<Object> events = new ArrayList<>();
+        final Parameter<Integer> shared = Parameter.newParameter("shared", StdType.INT, 0, false);
+        final DynamicArray<Parameter<Integer>> first = new DynamicArray<>();
+        final DynamicArray<Parameter<Integer>> second = new DynamicArray<>();
+        first.add(shared);
+        first.add(shared);
+        second.add(shared);
+        first.addChangeListener(e -> events.add("first"));
+        second.addChangeListener(e -> events.add("second"));
+        shared.setValue(1);
+        Assert.assertEquals(Arrays.asList("first", "second"), events);
+        events.clear();
+        first.remove(0);
+        shared.setValue(2);
+        Assert.assertEquals(Arrays.asList("first", "first", "second"), events);
+        first.remove(0);
+        second.remove(0);
+        events.clear();
+        shared.setValue(3);
+        Assert.assertTrue(events.isEmpty());
+    }
+    
+    @Test
+    public void testListenedAncestor() {
+        final StatusContent status = new StatusContent();
+        final Parameter<Integer> counter = status.getHeader().getCounter();
+        Assert.assertFalse(counter.getEventNode().isListened());
+        final ChangeListener l = status.addChangeListener(e -> {});
+        Assert.assertTrue(counter.getEventNode().isListened());
+        status.removeChangeListener(l);
+        Assert.assertFalse(counter.getEventNode().isListened());
+    }
+    
+    @Test
+    public void testUpdate() {
+        final List<ChangeEvent> events = new ArrayList<>();
+        final ContentImpl content = new ContentImpl();
+        final Item red = content.newItem().message("red");
+        content.setCaching(true);
+        final byte[] before = content.getBytes();
+        content.addChangeListener(events::add);
+        content.update(() -> {
+            red.message("yellow");
+            red.message("orange");
+            content.newItem().message("blue");
+            Assert.assertTrue(red.isUpdating());
+        });
+        Assert.assertFalse(red.isUpdating());
+        Assert.assertEquals(Arrays.asList(DynamicArray.NEW, AbsContent.UPDATE),
+                events.stream().map(ChangeEvent::getPropertyName).collect(Collectors.toList()));
+        final ChangeEvent update = events.get(1);
+        Assert.assertSame(content, update.getSource());
+        Assert.assertEquals(Arrays.asList("msg", "size", "nb", "msg", "size"), ((List<?>) update.getNewValue())
+                .stream().map(p -> ((Parameter<?>) p).getLabel()).collect(Collectors.toList()));
+        Assert.assertFalse(Arrays.equals(before, content.getBytes()));
+        final ContentImpl expected = new ContentImpl();
+        expected.newItem().message("orange");
+        expected.newItem().message("blue");
+        Assert.assertArrayEquals(expected.getBytes(), content.getBytes());
+    }
+    
+    @Test
+    public void testNestedUpdate() {
+        final List<String> changes = new ArrayList<>();
+        final ContentImpl content = new ContentImpl();
+        final Item item = content.newItem().message("a");
+        content.getOrderedContents().forEach(c -> {
+            if (c instanceof Parameter) {
+                ((Parameter<?>) c).addValueListener((p, o, n) -> changes.add(o + "->" + n));
+            }
+        });
+        content.beginUpdate();
+        try {
+            content.newItem();
+            item.update(() -> item.message("b"));
+            content.newItem();
+            Assert.assertTrue(changes.isEmpty());
+        } finally {
+            content.commitUpdate();
+        }
+        Assert.assertEquals(Arrays.asList("1->3"), changes);
+    }
+    
+    @Test
+    public void testAncestorUpdateAfterChild() {
+        final List<ChangeEvent> events = new ArrayList<>();
+        final List<String> changes = new ArrayList<>();
+        final ContentImpl content = new ContentImpl();
+        final Item item = content.newItem().message("a");
+        @SuppressWarnings("unchecked")
+        final Parameter<String> msg = (Parameter<String>) item.getOrderedContents().get(1);
+        msg.addValueListener((p, o, n) -> changes.add(o + "->" + n));
+        content.addChangeListener(events::add);
+        item.beginUpdate();
+        item.message("b");
+        content.beginUpdate();
+        item.message("c");
+        item.commitUpdate();
+        Assert.assertTrue(content.isUpdating());
+        Assert.assertTrue(events.isEmpty());
+        content.commitUpdate();
+        Assert.assertFalse(item.isUpdating());
+        Assert.assertEquals(Arrays.asList("a->c"), changes);
+        Assert.assertEquals(1, events.size());
+        Assert.assertSame(content, events.get(0).getSource());
+        Assert.assertEquals(AbsContent.UPDATE, events.get(0).getPropertyName());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testCommitOfAncestorUpdate() {
+        final ContentImpl content = new ContentImpl();
+        final Item item = content.newItem();
+        content.beginUpdate();
+        item.commitUpdate();
+    }
+    
+    @Test
+    public void testCustomContent() {
+        final IContent custom = new IContent() {
+
+            @Override
+            public ChangeListener addChangeListener(final ChangeListener listener) {
+                return listener;
+            }
+
+            @Override
+            public void removeChangeListener(final ChangeListener listener) {
+            }
+
+            @Override
+            public byte[] getBytes() {
+                return new byte[] {1, 2, 3};
+            }
+
+        };
+        Assert.assertEquals(3, custom.encodedSize());
+        final ContentImpl content = new ContentImpl();
+        content.addOrderedContents(Arrays.asList(custom));
+        final ByteBuffer buffer = ByteBuffer.allocate(content.encodedSize());
+        content.writeTo(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertArrayEquals(content.getBytes(), buffer.array());
+        Assert.assertEquals(3, buffer.get(buffer.limit() - 1));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testCommitWithoutUpdate() {
+        new ContentImpl().commitUpdate();
+    }
+
+    @Test
+    public void testReadFrom() {
+        final StatusContent status = new StatusContent();
+        status.getHeader().getCounter().setValue(12);
+        status.getDate().setValue(LocalDate.of(2021, 6, 30));
+        status.getMeasure().setValue(-1.5);
+        status.getLabel().message("abcd");
+        final ByteBuffer buffer = ByteBuffer.allocate(40);
+        status.writeTo(buffer);
+        buffer.flip();
+        final StatusContent decoded = new StatusContent();
+        decoded.readFrom(buffer);
+        Assert.assertEquals(32, buffer.position());
+        Assert.assertEquals(12, decoded.getHeader().getCounter().getValue().intValue());
+        Assert.assertEquals(LocalDate.of(2021, 6, 30), decoded.getDate().getValue());
+        Assert.assertEquals(-1.5, decoded.getMeasure().getValue(), 0.0);
+        Assert.assertArrayEquals(status.getBytes(), decoded.getBytes());
+    }
+    
+    @Test
+    public void testLazyReadFrom() {
+        final StatusContent status = new StatusContent();
+        status.getHeader().getCounter().setValue(12);
+        status.getMeasure().setValue(-1.5);
+        status.getLabel().message("abcd");
+        final ByteBuffer buffer = ByteBuffer.wrap(status.getBytes());
+        final StatusContent decoded = new StatusContent();
+        decoded.setLazyDecoding(true);
+        Assert.assertTrue(decoded.getHeader().getCounter().isLazyDecoding());
+        decoded.readFrom(buffer);
+        Assert.assertEquals(32, buffer.position());
+        Assert.assertArrayEquals(buffer.array(), decoded.getBytes());
+        Assert.assertEquals(-1.5, decoded.getMeasure().getValue(), 0.0);
+        decoded.getHeader().getCounter().setValue(13);
+        status.getHeader().getCounter().setValue(13);
+        Assert.assertArrayEquals(status.getBytes(), decoded.getBytes());
+    }
+    
+}
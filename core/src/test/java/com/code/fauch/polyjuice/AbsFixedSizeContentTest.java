@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class AbsFixedSizeContentTest {
+
+    /**
+     * EXPECTED:
+     * +---2bytes---+---3bytes---+
+     * |     3      |     yes    |
+     * +------------+------------+
+     */
+    @Test
+    public void testEncodeWithNullExpectedSize() {
+        final FixedSizeContentImpl fixedSizeContent = new FixedSizeContentImpl();
+        fixedSizeContent.message("yes");
+        byte[] yes = "yes".getBytes(StandardCharsets.UTF_8);
+        byte[] expecteds = new byte[] {0, 3, yes[0], yes[1], yes[2]};
+        Assert.assertArrayEquals(expecteds, fixedSizeContent.getBytes());
+        Assert.assertEquals(5, fixedSizeContent.encodedSize());
+    }
+
+    @Test
+    public void testEncodeWithSizeLess() {
+        final FixedSizeContentImpl fixedSizeContent = new FixedSizeContentImpl();
+        fixedSizeContent.message("yes");
+        fixedSizeContent.setExpectedSize(3);
+        byte[] yes = "yes".getBytes(StandardCharsets.UTF_8);
+        byte[] expecteds = new byte[] {0, 3, yes[0]};
+        Assert.assertArrayEquals(expecteds, fixedSizeContent.getBytes());
+    }
+    
+    @Test
+    public void testWriteToWithSizeLess() {
+        final FixedSizeContentImpl fixedSizeContent = new FixedSizeContentImpl();
+        fixedSizeContent.message("yes");
+        fixedSizeContent.setExpectedSize(3);
+        final ByteBuffer buffer = ByteBuffer.allocate(4);
+        fixedSizeContent.writeTo(buffer);
+        Assert.assertEquals(3, buffer.position());
+        Assert.assertEquals(3, fixedSizeContent.encodedSize());
+        Assert.assertArrayEquals(new byte[] {0, 3, "y".getBytes(StandardCharsets.UTF_8)[0], 0}, buffer.array());
+    }
+    
+    @Test
+    public void testWriteToWithSizeMore() {
+        final FixedSizeContentImpl fixedSizeContent = new FixedSizeContentImpl();
+        fixedSizeContent.message("yes");
+        fixedSizeContent.setExpectedSize(7);
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {9, 9, 9, 9, 9, 9, 9, 9, 9});
+        buffer.position(1);
+        fixedSizeContent.writeTo(buffer);
+        Assert.assertEquals(8, buffer.position());
+        Assert.assertEquals(9, buffer.limit());
+        byte[] yes = "yes".getBytes(StandardCharsets.UTF_8);
+        Assert.assertArrayEquals(new byte[] {9, 0, 3, yes[0], yes[1], yes[2], 0, 0, 9}, buffer.array());
+    }
+    
+    @Test(expected = BufferOverflowException.class)
+    public void testWriteToWithoutRoom() {
+        final FixedSizeContentImpl fixedSizeContent = new FixedSizeContentImpl();
+        fixedSizeContent.setExpectedSize(7);
+        fixedSizeContent.writeTo(ByteBuffer.allocate(6));
+    }
+    
+    @Test
+    public void testEncodeFrame() {
+        final FixedSizeContentImpl fixedSizeContent = new FixedSizeContentImpl();
+        fixedSizeContent.setExpectedSize(4);
+        final ByteBuffer frame = fixedSizeContent.encodeFrame();
+        Assert.assertEquals(4, frame.remaining());
+        Assert.assertEquals(2, frame.getShort(0));
+        fixedSizeContent.message("yes");
+        Assert.assertSame(frame, fixedSizeContent.encodeFrame());
+        Assert.assertEquals(4, frame.remaining());
+        Assert.assertEquals(3, frame.getShort(0));
+    }
+    
+    @Test
+    public void testEncodeWithSizeMore() {
+        final FixedSizeContentImpl fixedSizeContent = new FixedSizeContentImpl();
+        fixedSizeContent.message("yes");
+        fixedSizeContent.setExpectedSize(7);
+        byte[] yes = "yes".getBytes(StandardCharsets.UTF_8);
+        byte[] expecteds = new byte[] {0, 3, yes[0], yes[1], yes[2], 0, 0};
+        Assert.assertArrayEquals(expecteds, fixedSizeContent.getBytes());
+    }
+
+    @Test
+    public void testReadFrom() {
+        final FixedSizeContentImpl content = new FixedSizeContentImpl().message("hello");
+        content.setExpectedSize(10);
+        final ByteBuffer buffer = ByteBuffer.wrap(content.getBytes());
+        final FixedSizeContentImpl decoded = new FixedSizeContentImpl();
+        decoded.setExpectedSize(10);
+        decoded.readFrom(buffer);
+        Assert.assertEquals(10, buffer.position());
+        Assert.assertArrayEquals(content.getBytes(), decoded.getBytes());
+        decoded.setExpectedSize(null);
+        Assert.assertArrayEquals(new byte[] {0, 5, 'h', 'e', 'l', 'l', 'o'}, decoded.getBytes());
+    }
+    
+    @Test
+    public void testReadFromTruncated() {
+        final FixedSizeContentImpl content = new FixedSizeContentImpl().message("hello");
+        content.setExpectedSize(3);
+        final FixedSizeContentImpl decoded = new FixedSizeContentImpl();
+        decoded.setExpectedSize(3);
+        decoded.readFrom(ByteBuffer.wrap(content.getBytes()));
+        decoded.setExpectedSize(null);
+        Assert.assertArrayEquals(new byte[] {0, 5, 'h'}, decoded.getBytes());
+        content.setExpectedSize(1);
+        decoded.setExpectedSize(1);
+        decoded.readFrom(ByteBuffer.wrap(content.getBytes()));
+        decoded.setExpectedSize(null);
+        Assert.assertArrayEquals(new byte[] {0, 0, 'h'}, decoded.getBytes());
+    }
+    
+    @Test(expected = BufferUnderflowException.class)
+    public void testReadFromUnderflow() {
+        final FixedSizeContentImpl content = new FixedSizeContentImpl();
+        content.setExpectedSize(10);
+        content.readFrom(ByteBuffer.allocate(9));
+    }
+    
+}
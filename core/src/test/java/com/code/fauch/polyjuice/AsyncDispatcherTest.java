@@ -0,0 +1,230 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.code.fauch.polyjuice.AsyncDispatcher.OverflowPolicy;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class AsyncDispatcherTest {
+
+    /**
+     * Executor running the submitted tasks on demand.
+     */
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+    private void runTasks() {
+        while (!this.tasks.isEmpty()) {
+            this.tasks.poll().run();
+        }
+    }
+
+    @Test
+    public void testDeferredDelivery() {
+        final List<Object> values = new ArrayList<>();
+        final Parameter<Integer> param = Parameter.newParameter("a", StdType.INT, 0, false);
+        try (AsyncDispatcher dispatcher = new AsyncDispatcher(param, e -> values.add(e.getNewValue()),
+                this.tasks::add, 10, OverflowPolicy.BLOCK)) {
+            param.setValue(1);
+            param.setValue(2);
+            Assert.assertTrue(values.isEmpty());
+            Assert.assertEquals(1, this.tasks.size());
+            Assert.assertEquals(2, dispatcher.getPendingCount());
+            runTasks();
+            Assert.assertEquals(Arrays.asList(1, 2), values);
+            Assert.assertEquals(0, dispatcher.getPendingCount());
+        }
+        param.setValue(3);
+        Assert.assertTrue(this.tasks.isEmpty());
+    }
+
+    @Test
+    public void testDropOldest() {
+        final List<Object> values = new ArrayList<>();
+        final Parameter<Integer> param = Parameter.newParameter("a", StdType.INT, 0, false);
+        try (AsyncDispatcher dispatcher = new AsyncDispatcher(param, e -> values.add(e.getNewValue()),
+                this.tasks::add, 2, OverflowPolicy.DROP_OLDEST)) {
+            for (int i = 1; i <= 5; i++) {
+                param.setValue(i);
+            }
+            runTasks();
+            Assert.assertEquals(Arrays.asList(4, 5), values);
+            Assert.assertEquals(3, dispatcher.getDroppedCount());
+        }
+    }
+
+    @Test
+    public void testConflate() {
+        final List<String> changes = new ArrayList<>();
+        final ContentImpl content = new ContentImpl();
+        final ContentImpl.Item item = content.newItem();
+        try (AsyncDispatcher dispatcher = new AsyncDispatcher(content,
+                e -> changes.add(((Parameter<?>) e.getSource()).getLabel() + "=" + e.getOldValue() + "->"
+                        + e.getNewValue()),
+                this.tasks::add, 2, OverflowPolicy.CONFLATE)) {
+            item.message("a");
+            item.message("bb");
+            item.message("ccc");
+            Assert.assertEquals(2, dispatcher.getPendingCount());
+            runTasks();
+            item.message("d");
+            runTasks();
+            Assert.assertEquals(Arrays.asList("msg=null->ccc", "size=null->3", "msg=ccc->d", "size=3->1"), changes);
+            Assert.assertEquals(4, dispatcher.getConflatedCount());
+        }
+    }
+
+    @Test
+    public void testConflateOnlyWhenFull() {
+        final List<Object> values = new ArrayList<>();
+        final Parameter<Integer> param = Parameter.newParameter("a", StdType.INT, 0, false);
+        try (AsyncDispatcher dispatcher = new AsyncDispatcher(param,
+                e -> values.add(e.getOldValue() + "->" + e.getNewValue()), this.tasks::add, 3,
+                OverflowPolicy.CONFLATE)) {
+            param.setValue(1);
+            param.setValue(2);
+            param.setValue(3);
+            Assert.assertEquals(0, dispatcher.getConflatedCount());
+            param.setValue(4);
+            param.setValue(5);
+            Assert.assertEquals(3, dispatcher.getPendingCount());
+            Assert.assertEquals(2, dispatcher.getConflatedCount());
+            runTasks();
+            Assert.assertEquals(Arrays.asList("0->1", "1->2", "2->5"), values);
+        }
+    }
+
+    @Test
+    public void testBlockingProducer() throws InterruptedException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Object> values = new ArrayList<>();
+        final Parameter<Integer> param = Parameter.newParameter("a", StdType.INT, 0, false);
+        try (AsyncDispatcher dispatcher = new AsyncDispatcher(param, e -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (values) {
+                values.add(e.getNewValue());
+            }
+        }, executor, 1, OverflowPolicy.BLOCK)) {
+            param.setValue(1);
+            started.await();
+            param.setValue(2);
+            final Thread producer = new Thread(() -> param.setValue(3));
+            producer.start();
+            producer.join(200);
+            Assert.assertTrue(producer.isAlive());
+            release.countDown();
+            producer.join(5000);
+            Assert.assertFalse(producer.isAlive());
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            Assert.assertEquals(0, dispatcher.getDroppedCount());
+        }
+        Assert.assertEquals(Arrays.asList(1, 2, 3), values);
+    }
+
+    @Test(timeout = 5000)
+    public void testBlockingListener() {
+        final List<Object> values = new ArrayList<>();
+        final Parameter<Integer> param = Parameter.newParameter("a", StdType.INT, 0, false);
+        try (AsyncDispatcher dispatcher = new AsyncDispatcher(param, e -> {
+            values.add(e.getNewValue());
+            if (values.size() == 1) {
+                param.setValue(2);
+                param.setValue(3);
+            }
+        }, this.tasks::add, 1, OverflowPolicy.BLOCK)) {
+            param.setValue(1);
+            runTasks();
+            Assert.assertEquals(Arrays.asList(1, 3), values);
+            Assert.assertEquals(1, dispatcher.getDroppedCount());
+        }
+    }
+
+    @Test
+    public void testFailingListener() {
+        final List<ChangeEvent> events = new ArrayList<>();
+        final Parameter<Integer> param = Parameter.newParameter("a", StdType.INT, 0, false);
+        final Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+        final List<Throwable> failures = new ArrayList<>();
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> failures.add(e));
+        try (AsyncDispatcher dispatcher = new AsyncDispatcher(param, e -> {
+            events.add(e);
+            if (events.size() == 1) {
+                throw new IllegalStateException("failure");
+            }
+        }, Runnable::run, 10, OverflowPolicy.BLOCK)) {
+            param.setValue(1);
+            param.setValue(2);
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals(1, failures.size());
+    }
+
+    @Test
+    public void testListenerError() {
+        final List<Object> values = new ArrayList<>();
+        final Parameter<Integer> param = Parameter.newParameter("a", StdType.INT, 0, false);
+        try (AsyncDispatcher dispatcher = new AsyncDispatcher(param, e -> {
+            values.add(e.getNewValue());
+            if (values.size() == 1) {
+                throw new AssertionError("failure");
+            }
+        }, this.tasks::add, 10, OverflowPolicy.BLOCK)) {
+            param.setValue(1);
+            param.setValue(2);
+            try {
+                runTasks();
+                Assert.fail("the error is expected");
+            } catch (AssertionError e) {
+                Assert.assertEquals("failure", e.getMessage());
+            }
+            Assert.assertEquals(1, this.tasks.size());
+            runTasks();
+            param.setValue(3);
+            runTasks();
+            Assert.assertEquals(Arrays.asList(1, 2, 3), values);
+            Assert.assertEquals(0, dispatcher.getPendingCount());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongCapacity() {
+        new AsyncDispatcher(new ContentImpl(), e -> {}, Runnable::run, 0, OverflowPolicy.BLOCK);
+    }
+
+}
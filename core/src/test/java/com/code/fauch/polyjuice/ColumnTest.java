@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class ColumnTest {
+
+    /**
+     * Little-endian int type, not copied in bulk.
+     */
+    private static final IIntType LE_INT = new IIntType() {
+
+        @Override
+        public byte[] encode(final Integer value) {
+            final ByteBuffer buffer = ByteBuffer.allocate(4);
+            encodeInt(value, buffer);
+            return buffer.array();
+        }
+
+        @Override
+        public int fixedSize() {
+            return 4;
+        }
+
+        @Override
+        public String getName() {
+            return "LE_INT";
+        }
+
+        @Override
+        public Class<Integer> getValueClass() {
+            return Integer.class;
+        }
+
+        @Override
+        public void encodeInt(final int value, final ByteBuffer buffer) {
+            buffer.put((byte) value).put((byte) (value >> 8)).put((byte) (value >> 16)).put((byte) (value >> 24));
+        }
+
+        @Override
+        public int decodeInt(final ByteBuffer buffer) {
+            return (buffer.get() & 0xFF) | (buffer.get() & 0xFF) << 8 | (buffer.get() & 0xFF) << 16
+                    | (buffer.get() & 0xFF) << 24;
+        }
+
+    };
+
+    @Test
+    public void testIntColumn() {
+        final IntColumn column = IntColumn.of(StdType.INT, 1, -2, 300);
+        final DynamicArray<IntParameter> array = new DynamicArray<>();
+        for (int value : column.toArray()) {
+            array.add(IntParameter.newParameter("v", StdType.INT, value, false));
+        }
+        Assert.assertEquals(12, column.encodedSize());
+        Assert.assertArrayEquals(array.getBytes(), column.getBytes());
+        final IntColumn decoded = new IntColumn(StdType.INT);
+        decoded.resize(3);
+        decoded.readFrom(ByteBuffer.wrap(column.getBytes()).order(ByteOrder.LITTLE_ENDIAN));
+        Assert.assertArrayEquals(new int[] {1, -2, 300}, decoded.toArray());
+    }
+
+    @Test
+    public void testLongAndDoubleColumns() {
+        final LongColumn longs = LongColumn.of(StdType.LONG, Long.MIN_VALUE, 0, 42);
+        final DoubleColumn doubles = DoubleColumn.of(StdType.DOUBLE, -1.5, 3.25);
+        final ByteBuffer buffer = ByteBuffer.allocate(longs.encodedSize() + doubles.encodedSize() + 1);
+        buffer.put((byte) 7);
+        longs.writeTo(buffer);
+        doubles.writeTo(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        Assert.assertEquals(42, ByteBuffer.wrap(buffer.array(), 17, 8).getLong());
+        Assert.assertEquals(3.25, ByteBuffer.wrap(buffer.array(), 33, 8).getDouble(), 0.0);
+        final LongColumn decodedLongs = new LongColumn(StdType.LONG);
+        final DoubleColumn decodedDoubles = new DoubleColumn(StdType.DOUBLE);
+        decodedLongs.resize(3);
+        decodedDoubles.resize(2);
+        buffer.position(1);
+        decodedLongs.readFrom(buffer);
+        decodedDoubles.readFrom(buffer);
+        Assert.assertArrayEquals(longs.toArray(), decodedLongs.toArray());
+        Assert.assertArrayEquals(doubles.toArray(), decodedDoubles.toArray(), 0.0);
+    }
+
+    @Test
+    public void testNonStandardType() {
+        final IntColumn column = IntColumn.of(LE_INT, 1, 0x01020304);
+        Assert.assertArrayEquals(new byte[] {1, 0, 0, 0, 4, 3, 2, 1}, column.getBytes());
+        final IntColumn decoded = new IntColumn(LE_INT);
+        decoded.resize(2);
+        decoded.readFrom(ByteBuffer.wrap(column.getBytes()));
+        Assert.assertEquals(0x01020304, decoded.getInt(1));
+    }
+
+    @Test
+    public void testEdit() {
+        final IntColumn column = new IntColumn(StdType.INT);
+        final List<Object> events = new ArrayList<>();
+        column.addChangeListener(e -> events.add(e.getNewValue()));
+        for (int i = 0; i < 20; i++) {
+            column.add(i);
+        }
+        column.setInt(3, 33);
+        column.resize(2);
+        column.resize(4);
+        Assert.assertArrayEquals(new int[] {0, 1, 0, 0}, column.toArray());
+        Assert.assertEquals(23, events.size());
+        Assert.assertEquals(33, events.get(20));
+        Assert.assertSame(column, events.get(22));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        IntColumn.of(StdType.INT, 1).getInt(1);
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testOverflow() {
+        final ByteBuffer buffer = ByteBuffer.allocate(7);
+        try {
+            IntColumn.of(StdType.INT, 1, 2).writeTo(buffer);
+        } finally {
+            Assert.assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    public void testCachedContent() {
+        final IntColumn column = IntColumn.of(StdType.INT, 1);
+        final ContentImpl content = new ContentImpl();
+        content.addOrderedContents(List.of(column));
+        content.setCaching(true);
+        Assert.assertArrayEquals(new byte[] {0, 0, 0, 0, 0, 1}, content.getBytes());
+        column.setInt(0, 2);
+        Assert.assertArrayEquals(new byte[] {0, 0, 0, 0, 0, 2}, content.getBytes());
+    }
+
+}
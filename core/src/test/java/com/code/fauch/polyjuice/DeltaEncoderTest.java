@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class DeltaEncoderTest {
+
+    @Test
+    public void testFirstDeltaHoldsAllParameters() {
+        final StatusContent status = new StatusContent();
+        status.getMeasure().setValue(12.5);
+        try (DeltaEncoder encoder = new DeltaEncoder(status)) {
+            Assert.assertEquals(6, encoder.getFieldCount());
+            Assert.assertTrue(encoder.hasChanges());
+            final byte[] delta = encoder.nextDelta();
+            // count + 6 indexes + variable length of msg + 2 + 4 + 12 + 8 + 2 + 2 bytes
+            Assert.assertEquals(2 + 6 * 2 + 2 + 30, delta.length);
+            Assert.assertFalse(encoder.hasChanges());
+            final StatusContent mirror = new StatusContent();
+            mirror.getDate().setValue(null);
+            Assert.assertEquals(6, new DeltaApplier(mirror).apply(delta));
+            Assert.assertArrayEquals(status.getBytes(), mirror.getBytes());
+            Assert.assertEquals(12.5, mirror.getMeasure().getValue(), 0.0);
+        }
+    }
+
+    @Test
+    public void testOnlyChangedParameters() {
+        final StatusContent status = new StatusContent();
+        final StatusContent mirror = new StatusContent();
+        final DeltaApplier applier = new DeltaApplier(mirror);
+        try (DeltaEncoder encoder = new DeltaEncoder(status)) {
+            applier.apply(encoder.nextDelta());
+            status.getHeader().getCounter().setValue(5);
+            status.getDate().setValue(LocalDate.of(2021, 3, 4));
+            final byte[] delta = encoder.nextDelta();
+            Assert.assertEquals(2 + 2 + 4 + 2 + 12, delta.length);
+            Assert.assertEquals(2, applier.apply(delta));
+            Assert.assertEquals(5, mirror.getHeader().getCounter().getValue().intValue());
+            Assert.assertEquals(LocalDate.of(2021, 3, 4), mirror.getDate().getValue());
+            Assert.assertArrayEquals(new byte[] {0, 0}, encoder.nextDelta());
+        }
+    }
+
+    @Test
+    public void testUpdate() {
+        final StatusContent status = new StatusContent();
+        final StatusContent mirror = new StatusContent();
+        final DeltaApplier applier = new DeltaApplier(mirror);
+        try (DeltaEncoder encoder = new DeltaEncoder(status)) {
+            applier.apply(encoder.nextDelta());
+            status.update(() -> {
+                status.getHeader().getCounter().setValue(5);
+                status.getHeader().getCounter().setValue(6);
+                status.getMeasure().setValue(1.5);
+                Assert.assertFalse(encoder.hasChanges());
+            });
+            Assert.assertEquals(2, applier.apply(encoder.nextDelta()));
+            Assert.assertEquals(6, mirror.getHeader().getCounter().getValue().intValue());
+            Assert.assertEquals(1.5, mirror.getMeasure().getValue(), 0.0);
+        }
+    }
+
+    @Test
+    public void testVariableSizeParameter() {
+        final StatusContent status = new StatusContent();
+        final StatusContent mirror = new StatusContent();
+        try (DeltaEncoder encoder = new DeltaEncoder(status)) {
+            encoder.nextDelta();
+            status.getLabel().message("hello");
+            final byte[] delta = encoder.nextDelta();
+            Assert.assertArrayEquals(new byte[] {0, 2, 0, 4, 0, 5, 0, 5, 0, 5, 'h', 'e', 'l', 'l', 'o'}, delta);
+            new DeltaApplier(mirror).apply(delta);
+            Assert.assertArrayEquals(status.getBytes(), mirror.getBytes());
+        }
+    }
+
+    @Test
+    public void testMarkAll() {
+        final StatusContent status = new StatusContent();
+        try (DeltaEncoder encoder = new DeltaEncoder(status)) {
+            final int size = encoder.nextDelta().length;
+            encoder.markAll();
+            Assert.assertEquals(size, encoder.deltaSize());
+        }
+    }
+
+    @Test
+    public void testBufferTooSmall() {
+        final StatusContent status = new StatusContent();
+        try (DeltaEncoder encoder = new DeltaEncoder(status)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(10);
+            try {
+                encoder.writeDelta(buffer);
+                Assert.fail();
+            } catch (BufferOverflowException e) {
+                Assert.assertEquals(0, buffer.position());
+            }
+            Assert.assertEquals(6, encoder.writeDelta(ByteBuffer.allocate(encoder.deltaSize())));
+        }
+    }
+
+    @Test
+    public void testClose() {
+        final StatusContent status = new StatusContent();
+        final DeltaEncoder encoder = new DeltaEncoder(status);
+        encoder.nextDelta();
+        encoder.close();
+        status.getMeasure().setValue(1.0);
+        Assert.assertFalse(encoder.hasChanges());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownIndex() {
+        new DeltaApplier(new StatusContent()).apply(new byte[] {0, 1, 0, 6});
+    }
+
+}
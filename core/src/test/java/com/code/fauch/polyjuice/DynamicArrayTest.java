@@ -14,9 +14,10 @@
  */
 package com.code.fauch.polyjuice;
 
-import java.beans.PropertyChangeListener;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Assert;
@@ -38,11 +39,23 @@ public class DynamicArrayTest {
         Assert.assertArrayEquals(new byte[] {0, 5, msg[0], msg[1], msg[2], msg[3], msg[4]}, array.getBytes());
     }
 
+    @Test
+    public void testWriteTo() {
+        final DynamicArray<Parameter<?>> array = new DynamicArray<>();
+        array.add(Parameter.newParameter("size", StdType.SHORT, (short)5, false));
+        array.add(Parameter.newParameter("msg", StdType.STRING, "Hello", false));
+        final ByteBuffer buffer = ByteBuffer.allocate(8);
+        array.writeTo(buffer);
+        Assert.assertEquals(7, buffer.position());
+        Assert.assertEquals(7, array.encodedSize());
+        Assert.assertArrayEquals(array.getBytes(), Arrays.copyOf(buffer.array(), 7));
+    }
+
     @Test
     public void testAddElement() {
         final List<String> labels = new ArrayList<>();
         final DynamicArray<Parameter<?>> array = new DynamicArray<>();
-        array.addPropertyChangeListener(e -> labels.add(e.getPropertyName()));
+        array.addChangeListener(e -> labels.add(e.getPropertyName()));
         final Parameter<Short> size = Parameter.newParameter("size", StdType.SHORT, (short)5, false);
         final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, "Hello", false);
         array.add(size);
@@ -55,7 +68,7 @@ public class DynamicArrayTest {
     public void testRemoveElement() {
         final List<String> labels = new ArrayList<>();
         final DynamicArray<Parameter<?>> array = new DynamicArray<>();
-        array.addPropertyChangeListener(e -> labels.add(e.getPropertyName()));
+        array.addChangeListener(e -> labels.add(e.getPropertyName()));
         final Parameter<Short> size = Parameter.newParameter("size", StdType.SHORT, (short)5, false);
         final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, "Hello", false);
         array.add(size);
@@ -75,7 +88,7 @@ public class DynamicArrayTest {
         final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, "Hello", false);
         array.add(size);
         array.add(msg);
-        array.addPropertyChangeListener(e -> labels.add(e.getPropertyName()));
+        array.addChangeListener(e -> labels.add(e.getPropertyName()));
         size.setValue((short)6);
         Assert.assertArrayEquals(new String[] {Parameter.VALUE}, labels.toArray());
     }
@@ -88,9 +101,50 @@ public class DynamicArrayTest {
         final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, "Hello", false);
         array.add(size);
         array.add(msg);
-        final PropertyChangeListener l = array.addPropertyChangeListener(e -> labels.add(e.getPropertyName()));
-        array.removePropertyChangeListener(l);
+        final ChangeListener l = array.addChangeListener(e -> labels.add(e.getPropertyName()));
+        array.removeChangeListener(l);
         size.setValue((short)6);
         Assert.assertArrayEquals(new String[] {}, labels.toArray());
     }
+
+    @Test
+    public void testArrayListener() {
+        final List<String> changes = new ArrayList<>();
+        final DynamicArray<Parameter<?>> array = new DynamicArray<>();
+        final ArrayListener<IContent> listener = new ArrayListener<>() {
+
+            @Override
+            public void onAdd(final DynamicArray<? extends IContent> source, final int index, final IContent element) {
+                changes.add("+" + index + ((Parameter<?>) element).getLabel());
+            }
+
+            @Override
+            public void onRemove(final DynamicArray<? extends IContent> source, final int index, final IContent element) {
+                changes.add("-" + index + ((Parameter<?>) element).getLabel());
+            }
+
+        };
+        Assert.assertTrue(array.addArrayListener(listener));
+        Assert.assertFalse(array.addArrayListener(listener));
+        final Parameter<Short> size = Parameter.newParameter("size", StdType.SHORT, (short)5, false);
+        array.add(size);
+        array.add(Parameter.newParameter("msg", StdType.STRING, "Hello", false));
+        array.remove(0);
+        size.setValue((short)6);
+        Assert.assertTrue(array.removeArrayListener(listener));
+        array.remove(0);
+        Assert.assertArrayEquals(new String[] {"+0size", "+1msg", "-0size"}, changes.toArray());
+    }
+
+    @Test
+    public void testReadFrom() {
+        final DynamicArray<Parameter<Short>> array = new DynamicArray<>();
+        array.add(Parameter.newParameter("a", StdType.SHORT, null, false));
+        array.add(Parameter.newParameter("b", StdType.SHORT, null, false));
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0, 1, 0, 2, 0, 3});
+        array.readFrom(buffer);
+        Assert.assertEquals(4, buffer.position());
+        Assert.assertArrayEquals(new byte[] {0, 1, 0, 2}, array.getBytes());
+    }
+    
 }
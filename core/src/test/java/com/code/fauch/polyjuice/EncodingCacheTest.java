@@ -0,0 +1,162 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.code.fauch.polyjuice.ContentImpl.Item;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class EncodingCacheTest {
+
+    @Test
+    public void testDisabledByDefault() {
+        final ContentImpl content = new ContentImpl();
+        Assert.assertNull(content.getEncodingCache());
+        Assert.assertNull(Parameter.newParameter("p", StdType.INT, 1, false).getEncodingCache());
+        Assert.assertNull(new DynamicArray<>().getEncodingCache());
+    }
+    
+    @Test
+    public void testHitsAndMisses() {
+        final ContentImpl content = new ContentImpl();
+        final Item red = content.newItem().message("red");
+        final Item green = content.newItem().message("green");
+        content.setCaching(true);
+        final byte[] expecteds = content.getBytes();
+        Assert.assertArrayEquals(expecteds, content.getBytes());
+        Assert.assertEquals(1, content.getEncodingCache().getMisses());
+        Assert.assertEquals(1, content.getEncodingCache().getHits());
+        Assert.assertEquals(1, red.getEncodingCache().getMisses());
+        Assert.assertEquals(0, red.getEncodingCache().getHits());
+    
+        red.message("yellow");
+        Assert.assertFalse(content.getEncodingCache().isValid());
+        Assert.assertFalse(red.getEncodingCache().isValid());
+        Assert.assertTrue(green.getEncodingCache().isValid());
+        final byte[] actuals = content.getBytes();
+        Assert.assertEquals(2, content.getEncodingCache().getMisses());
+        Assert.assertEquals(2, red.getEncodingCache().getMisses());
+        Assert.assertEquals(1, green.getEncodingCache().getHits());
+        
+        content.setCaching(false);
+        Assert.assertNull(content.getEncodingCache());
+        Assert.assertNull(red.getEncodingCache());
+        Assert.assertArrayEquals(content.getBytes(), actuals);
+    }
+    
+    @Test
+    public void testInvalidateDuringUpdate() {
+        final ContentImpl content = new ContentImpl();
+        final Item red = content.newItem().message("red");
+        content.setCaching(true);
+        content.getBytes();
+        content.beginUpdate();
+        try {
+            red.message("yellow");
+            Assert.assertFalse(content.getEncodingCache().isValid());
+            Assert.assertFalse(red.getEncodingCache().isValid());
+            final ContentImpl expected = new ContentImpl();
+            expected.newItem().message("yellow");
+            Assert.assertArrayEquals(expected.getBytes(), content.getBytes());
+        } finally {
+            content.commitUpdate();
+        }
+        Assert.assertTrue(content.getEncodingCache().isValid());
+    }
+    
+    @Test
+    public void testLazyDecoding() {
+        final Parameter<Integer> a = Parameter.newParameter("a", StdType.INT, 1, false);
+        final Parameter<Integer> b = Parameter.newParameter("b", StdType.INT, 2, false);
+        final DynamicArray<Parameter<Integer>> array = new DynamicArray<>();
+        array.add(a);
+        array.add(b);
+        array.setCaching(true);
+        array.setLazyDecoding(true);
+        Assert.assertArrayEquals(new byte[] {0, 0, 0, 1, 0, 0, 0, 2}, array.getBytes());
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0, 0, 0, 3, 0, 0, 0, 4});
+        array.readFrom(buffer);
+        Assert.assertFalse(array.getEncodingCache().isValid());
+        Assert.assertNotNull(a.getEncodedBytes());
+        buffer.put(3, (byte) 5);
+        Assert.assertEquals(5, a.getValue().intValue());
+        Assert.assertArrayEquals(new byte[] {0, 0, 0, 5, 0, 0, 0, 4}, array.getBytes());
+    }
+    
+    @Test
+    public void testInvalidateOnNewItem() {
+        final ContentImpl content = new ContentImpl();
+        content.newItem().message("red");
+        content.setCaching(true);
+        final byte[] before = content.getBytes();
+        final Item green = content.newItem().message("green");
+        Assert.assertNotNull(green.getEncodingCache());
+        Assert.assertFalse(content.getEncodingCache().isValid());
+        final byte[] after = content.getBytes();
+        Assert.assertEquals(before.length + 7, after.length);
+        Assert.assertEquals(after.length, content.encodedSize());
+        Assert.assertTrue(content.getEncodingCache().isValid());
+        Assert.assertArrayEquals(after, content.getBytes());
+    }
+    
+    @Test
+    public void testInvalidateOnRemovedElement() {
+        final DynamicArray<Parameter<Short>> array = new DynamicArray<>();
+        array.add(Parameter.newParameter("a", StdType.SHORT, (short) 1, false));
+        array.add(Parameter.newParameter("b", StdType.SHORT, (short) 2, false));
+        array.setCaching(true);
+        Assert.assertArrayEquals(new byte[] {0, 1, 0, 2}, array.getBytes());
+        array.remove(0);
+        Assert.assertArrayEquals(new byte[] {0, 2}, array.getBytes());
+    }
+    
+    @Test
+    public void testNotDeterministic() {
+        final Parameter<Short> size = Parameter.newParameter("size", StdType.SHORT, (short) 1, false);
+        @SuppressWarnings("unchecked")
+        final Parameter<AbsClock<Duration>> clock = Parameter.newParameter(
+                "clock", (IType<AbsClock<Duration>>) StdType.OFFSET_CLOCK, new OffsetClock(Duration.ZERO), false);
+        final DynamicArray<Parameter<?>> array = new DynamicArray<>();
+        array.add(size);
+        array.add(clock);
+        array.setCaching(true);
+        array.getBytes();
+        array.getBytes();
+        Assert.assertEquals(2, array.getEncodingCache().getMisses());
+        Assert.assertEquals(2, clock.getEncodingCache().getMisses());
+        Assert.assertEquals(1, size.getEncodingCache().getHits());
+    }
+    
+    @Test
+    public void testFixedSizeContent() {
+        final FixedSizeContentImpl content = new FixedSizeContentImpl().message("yes");
+        content.setExpectedSize(4);
+        content.setCaching(true);
+        Assert.assertArrayEquals(content.getBytes(), content.getBytes());
+        Assert.assertEquals(1, content.getEncodingCache().getHits());
+        content.setExpectedSize(6);
+        Assert.assertEquals(6, content.getBytes().length);
+        Assert.assertTrue(Arrays.equals(content.getBytes(), content.getBytes()));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class FrameViewTest {
+
+    /**
+     * Encode some status one after the other.
+     * 
+     * @param count the number of status
+     * @return the buffer of the records ready to be read
+     */
+    private static ByteBuffer records(final int count) {
+        final StatusContent status = new StatusContent();
+        final ByteBuffer buffer = ByteBuffer.allocate(count * status.encodedSize());
+        for (int i = 0; i < count; i++) {
+            status.getHeader().getCounter().setValue(i);
+            status.getMeasure().setValue(i * 0.5);
+            status.writeTo(buffer);
+        }
+        return buffer.flip();
+    }
+
+    @Test
+    public void testGetters() {
+        final FrameView view = FrameView.of(StatusContent.class).wrap(records(1));
+        Assert.assertEquals(1, view.getShort("header.id"));
+        Assert.assertEquals(0, view.getInt("header.counter"));
+        Assert.assertEquals(0.0, view.getDouble("measure"), 0.0);
+        Assert.assertEquals(LocalDate.of(2020, 1, 24), view.getValue("date"));
+        Assert.assertEquals(2, view.getShort("label.size"));
+        Assert.assertEquals("no", view.getValue("label.msg"));
+    }
+
+    @Test
+    public void testIterate() {
+        final FrameView view = FrameView.of(new StatusContent());
+        final Layout.Field counter = view.getLayout().getField("header.counter");
+        final Layout.Field measure = view.getLayout().getField("measure");
+        view.wrap(records(5));
+        int count = 0;
+        while (true) {
+            Assert.assertEquals(count * 32, view.getOffset());
+            Assert.assertEquals(count, view.getInt(counter));
+            Assert.assertEquals(count * 0.5, view.getDouble(measure), 0.0);
+            count++;
+            if (!view.hasNext()) {
+                break;
+            }
+            view.next();
+        }
+        Assert.assertEquals(5, count);
+    }
+
+    @Test
+    public void testMoveTo() {
+        final ByteBuffer buffer = records(3);
+        final FrameView view = FrameView.of(StatusContent.class).wrap(buffer, 64);
+        Assert.assertEquals(2, view.getInt("header.counter"));
+        Assert.assertEquals(1, view.moveTo(32).getInt("header.counter"));
+        Assert.assertEquals(0, buffer.position());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testNoRecord() {
+        FrameView.of(StatusContent.class).wrap(records(2), 40);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownField() {
+        FrameView.of(StatusContent.class).wrap(records(1)).getInt("header.unknown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() {
+        FrameView.of(StatusContent.class).wrap(records(1)).getInt("header.id");
+    }
+
+}
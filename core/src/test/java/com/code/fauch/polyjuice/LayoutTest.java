@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class LayoutTest {
+
+    /**
+     * Content whose getters must not be called.
+     */
+    public static final class Guarded extends AbsContent {
+
+        private final FixedSizeContentImpl label = new FixedSizeContentImpl();
+
+        public Guarded() {
+            this.label.setExpectedSize(4);
+            addOrderedContents(Arrays.asList(this.label));
+        }
+
+        public FixedSizeContentImpl getLabel() {
+            throw new IllegalStateException("getter called");
+        }
+
+    }
+
+    /**
+     * Content with two sub-contents of the same type.
+     */
+    public static final class Twins extends AbsContent {
+
+        private final FixedSizeContentImpl first = new FixedSizeContentImpl();
+
+        private final FixedSizeContentImpl second = new FixedSizeContentImpl();
+
+        public Twins() {
+            this.first.setExpectedSize(4);
+            this.second.setExpectedSize(4);
+            addOrderedContents(Arrays.asList(this.first, this.second));
+        }
+
+        public FixedSizeContentImpl getFirst() {
+            return this.first;
+        }
+
+        public FixedSizeContentImpl getSecond() {
+            return this.second;
+        }
+
+    }
+
+    @Test
+    public void testOffsets() {
+        final Layout layout = Layout.of(new StatusContent());
+        Assert.assertEquals(32, layout.size());
+        Assert.assertEquals(6, layout.getFields().size());
+        final String[] paths = {"header.id", "header.counter", "date", "measure", "label.size", "label.msg"};
+        final int[] offsets = {0, 2, 6, 18, 26, 28};
+        final int[] lengths = {2, 4, 12, 8, 2, 4};
+        for (int i = 0; i < paths.length; i++) {
+            final Layout.Field field = layout.getFields().get(i);
+            Assert.assertEquals(paths[i], field.getPath());
+            Assert.assertEquals(i, field.getIndex());
+            Assert.assertEquals(offsets[i], field.getOffset());
+            Assert.assertEquals(lengths[i], field.getLength());
+            Assert.assertSame(field, layout.getField(paths[i]));
+        }
+        Assert.assertSame(StdType.DATE, layout.getField("date").getType());
+        Assert.assertTrue(layout.getField("date").isComplete());
+        Assert.assertFalse(layout.getField("label.msg").isComplete());
+        Assert.assertNull(layout.getField("unknown"));
+    }
+    
+    @Test
+    public void testTruncated() {
+        final Parameter<Integer> first = Parameter.newParameter("first", StdType.INT, 1, false);
+        final Parameter<Integer> second = Parameter.newParameter("second", StdType.INT, 2, false);
+        final Parameter<Integer> third = Parameter.newParameter("third", StdType.INT, 3, false);
+        final AbsFixedSizeContent content = new AbsFixedSizeContent(Arrays.asList(first, second, third), 6) {};
+        final Layout layout = Layout.of(content);
+        Assert.assertEquals(6, layout.size());
+        Assert.assertEquals(4, layout.getField("first").getLength());
+        Assert.assertEquals(4, layout.getField("second").getOffset());
+        Assert.assertEquals(2, layout.getField("second").getLength());
+        Assert.assertEquals(0, layout.getField("third").getLength());
+    }
+    
+    @Test
+    public void testNamesFromDeclaredTypes() {
+        Assert.assertEquals(2, Layout.of(new Guarded()).getField("label.msg").getOffset());
+        final Layout layout = Layout.of(new Twins());
+        Assert.assertEquals(4, layout.getField("1.size").getOffset());
+        Assert.assertNull(layout.getField("first.size"));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testDynamicArray() {
+        Layout.of(new ContentImpl());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testVariableSize() {
+        Layout.of(new FixedSizeContentImpl());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testAfterVariableSize() {
+        final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, "hello", false);
+        final Parameter<Integer> size = Parameter.newParameter("size", StdType.INT, 5, false);
+        Layout.of(new AbsFixedSizeContent(Arrays.asList(msg, size), 10) {});
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class ParameterTest {
+    
+    @Test
+    public void testGetBytes() {
+        final Parameter<Short> param = Parameter.newParameter("label", StdType.SHORT, null, false);
+        param.setValue((short)42);
+        final byte[] buff = param.getBytes();
+        final ByteBuffer bb = ByteBuffer.wrap(buff);
+        Assert.assertEquals(42, bb.getShort());
+    }
+
+    @Test
+    public void testEncodeParameter() {
+        final byte[] buff = Parameter.newConstant("p", StdType.INT, 42).getBytes();
+        final ByteBuffer bb = ByteBuffer.wrap(buff);
+        Assert.assertEquals(42, bb.getInt());
+    }
+
+    @Test
+    public void testWriteTo() {
+        final Parameter<Short> param = Parameter.newParameter("label", StdType.SHORT, (short)42, false);
+        final ByteBuffer bb = ByteBuffer.allocate(3);
+        bb.put((byte) 1);
+        param.writeTo(bb);
+        Assert.assertArrayEquals(new byte[] {1, 0, 42}, bb.array());
+    }
+
+    @Test
+    public void testEncodedSize() {
+        Assert.assertEquals(2, Parameter.newParameter("label", StdType.SHORT, null, false).encodedSize());
+        Assert.assertEquals(5, Parameter.newParameter("label", StdType.STRING, "hello", false).encodedSize());
+    }
+
+    @Test
+    public void testValueChanges() {
+        int[] values = new int[] {58};
+        final Parameter<Integer> param = Parameter.newParameter("label", StdType.INT, 58, false);
+        param.addChangeListener(e -> values[0] = (int) e.getNewValue());
+        Assert.assertEquals(58, param.getValue().intValue());
+        Assert.assertEquals(58, values[0]);
+        param.setValue(42);
+        Assert.assertEquals(42, param.getValue().intValue());
+        Assert.assertEquals(42, values[0]);
+    }
+    
+    @Test
+    public void testValueListener() {
+        final List<String> changes = new ArrayList<>();
+        final Parameter<Integer> param = Parameter.newParameter("label", StdType.INT, 58, false);
+        final ValueListener<Object> listener = (p, o, n) -> changes.add(p.getLabel() + ":" + o + "->" + n);
+        Assert.assertTrue(param.addValueListener(listener));
+        Assert.assertFalse(param.addValueListener(listener));
+        param.setValue(42);
+        param.readFrom(ByteBuffer.wrap(new byte[] {0, 0, 0, 7}));
+        Assert.assertTrue(param.removeValueListener(listener));
+        param.setValue(1);
+        Assert.assertEquals(Arrays.asList("label:58->42", "label:42->7"), changes);
+    }
+    
+    @Test
+    public void testChangeListener() {
+        final List<ChangeEvent> events = new ArrayList<>();
+        final IntParameter param = IntParameter.newParameter("label", StdType.INT, 1, false);
+        final ChangeListener listener = events::add;
+        param.addChangeListener(listener);
+        param.addChangeListener(listener);
+        param.setInt(2);
+        param.removeChangeListener(listener);
+        param.setInt(3);
+        Assert.assertEquals(1, events.size());
+        Assert.assertSame(param, events.get(0).getSource());
+        Assert.assertEquals(Parameter.VALUE, events.get(0).getPropertyName());
+        Assert.assertEquals(1, events.get(0).getOldValue());
+        Assert.assertEquals(2, events.get(0).getNewValue());
+    }
+    
+    @Test
+    public void testConstantValueChanges() {
+        int[] values = new int[] {58};
+        final Parameter<Integer> param = Parameter.newConstant("label", StdType.INT, 58);
+        param.addChangeListener(e -> values[0] = (int) e.getNewValue());
+        Assert.assertEquals(58, param.getValue().intValue());
+        Assert.assertEquals(58, values[0]);
+        param.setValue(42);
+        Assert.assertEquals(58, param.getValue().intValue());
+        Assert.assertEquals(58, values[0]);
+    }
+
+    @Test
+    public void testReadFrom() {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 'h', 'i'});
+        final Parameter<Integer> size = Parameter.newParameter("size", StdType.INT, null, false);
+        final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, null, false);
+        final Parameter<Integer> constant = Parameter.newConstant("cst", StdType.INT, 5);
+        size.readFrom(buffer);
+        Assert.assertEquals(256, size.getValue().intValue());
+        msg.readFrom(buffer);
+        Assert.assertEquals("hi", msg.getValue());
+        Assert.assertFalse(buffer.hasRemaining());
+        constant.readFrom(ByteBuffer.wrap(new byte[] {0, 0, 0, 1}));
+        Assert.assertEquals(5, constant.getValue().intValue());
+    }
+    
+    @Test
+    public void testLazyReadFrom() {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 'h', 'i', 0});
+        final Parameter<Integer> size = Parameter.newParameter("size", StdType.INT, null, false);
+        final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, null, false);
+        size.setLazyDecoding(true);
+        msg.setLazyDecoding(true);
+        size.readFrom(buffer);
+        msg.readFrom(buffer);
+        Assert.assertFalse(buffer.hasRemaining());
+        buffer.put(2, (byte) 2);
+        Assert.assertEquals(512, size.getValue().intValue());
+        Assert.assertArrayEquals(new byte[] {'h', 'i', 0}, msg.getBytes());
+        Assert.assertEquals(3, msg.encodedSize());
+        Assert.assertEquals("hi", msg.getValue());
+        Assert.assertArrayEquals(new byte[] {'h', 'i', 0}, msg.getBytes());
+        msg.setValue("hi");
+        Assert.assertArrayEquals(new byte[] {'h', 'i'}, msg.getBytes());
+    }
+    
+    @Test
+    public void testLazyToString() {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0, 0, 1, 0});
+        final Parameter<Integer> size = Parameter.newParameter("size", StdType.INT, null, false);
+        size.setLazyDecoding(true);
+        size.readFrom(buffer);
+        Assert.assertTrue(size.toString().contains("value=<pending>"));
+        buffer.put(2, (byte) 2);
+        Assert.assertEquals(512, size.getValue().intValue());
+        Assert.assertTrue(size.toString().contains("value=512"));
+    }
+    
+    @Test
+    public void testLazyReadFromWithListener() {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0, 0, 1, 0});
+        final Parameter<Integer> size = Parameter.newParameter("size", StdType.INT, null, false);
+        final int[] values = new int[1];
+        size.addChangeListener(e -> values[0] = (int) e.getNewValue());
+        size.setLazyDecoding(true);
+        size.readFrom(buffer);
+        Assert.assertEquals(256, values[0]);
+        buffer.put(2, (byte) 2);
+        Assert.assertEquals(256, size.getValue().intValue());
+    }
+    
+    @Test
+    public void testLazyReadFromDirectBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+        buffer.putInt(0, 1).putInt(4, 2);
+        final Parameter<Integer> first = Parameter.newParameter("first", StdType.INT, null, false);
+        final Parameter<Integer> second = Parameter.newParameter("second", StdType.INT, null, false);
+        second.setLazyDecoding(true);
+        second.readFrom(buffer.position(4));
+        buffer.position(0).limit(4);
+        first.readFrom(buffer);
+        Assert.assertArrayEquals(new byte[] {0, 0, 0, 2}, second.getBytes());
+        Assert.assertEquals(2, second.getValue().intValue());
+    }
+    
+}
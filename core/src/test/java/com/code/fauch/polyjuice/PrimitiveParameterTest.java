@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class PrimitiveParameterTest {
+
+    @Test
+    public void testInt() {
+        final IntParameter p = IntParameter.newParameter("p", StdType.INT, 42, false);
+        Assert.assertEquals(42, p.getInt());
+        Assert.assertEquals(Integer.valueOf(42), p.getValue());
+        Assert.assertArrayEquals(StdType.INT.encode(42), p.getBytes());
+        p.setInt(-7);
+        Assert.assertEquals(-7, p.getInt());
+        Assert.assertArrayEquals(StdType.INT.encode(-7), p.getBytes());
+        Assert.assertEquals(4, p.encodedSize());
+    }
+
+    @Test
+    public void testAllTypes() {
+        final ShortParameter s = ShortParameter.newParameter("s", StdType.SHORT, (short) 3, false);
+        s.setShort((short) (s.getShort() + 1));
+        Assert.assertArrayEquals(StdType.SHORT.encode((short) 4), s.getBytes());
+        final LongParameter l = LongParameter.newParameter("l", StdType.LONG, 1L << 40, false);
+        Assert.assertArrayEquals(StdType.LONG.encode(1L << 40), l.getBytes());
+        final LongParameter u = LongParameter.newParameter("u", StdType.UNSIGNED_INT, 4294967295L, false);
+        Assert.assertArrayEquals(StdType.UNSIGNED_INT.encode(4294967295L), u.getBytes());
+        final FloatParameter f = FloatParameter.newParameter("f", StdType.FLOAT, 1.5f, false);
+        Assert.assertArrayEquals(StdType.FLOAT.encode(1.5f), f.getBytes());
+        final DoubleParameter d = DoubleParameter.newParameter("d", StdType.DOUBLE, -2.25, false);
+        Assert.assertArrayEquals(StdType.DOUBLE.encode(-2.25), d.getBytes());
+    }
+
+    @Test
+    public void testConstant() {
+        final IntParameter p = IntParameter.newConstant("p", StdType.INT, 42);
+        p.setInt(1);
+        p.setValue(2);
+        Assert.assertTrue(p.isReadOnly());
+        Assert.assertEquals(42, p.getInt());
+    }
+
+    @Test
+    public void testNullValue() {
+        final DoubleParameter p = DoubleParameter.newParameter("p", StdType.DOUBLE, 1.0, false);
+        p.setValue(null);
+        Assert.assertEquals(0.0, p.getDouble(), 0.0);
+        Assert.assertArrayEquals(StdType.DOUBLE.encode(null), p.getBytes());
+    }
+
+    @Test
+    public void testListener() {
+        final IntParameter p = IntParameter.newParameter("p", StdType.INT, 0, false);
+        final List<ChangeEvent> events = new ArrayList<>();
+        p.addChangeListener(events::add);
+        p.setInt(5);
+        p.setValue(6);
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals(Parameter.VALUE, events.get(0).getPropertyName());
+        Assert.assertSame(p, events.get(0).getSource());
+        Assert.assertEquals(5, events.get(0).getNewValue());
+        Assert.assertEquals(6, events.get(1).getNewValue());
+    }
+
+    @Test
+    public void testInContent() {
+        final IntParameter counter = IntParameter.newParameter("counter", StdType.INT, 0, false);
+        final ShortParameter id = ShortParameter.newConstant("id", StdType.SHORT, (short) 1);
+        final AbsContent content = new AbsContent(List.<IContent>of(id, counter)) {};
+        content.setCaching(true);
+        Assert.assertArrayEquals(new byte[] {0, 1, 0, 0, 0, 0}, content.getBytes());
+        counter.setInt(counter.getInt() + 1);
+        Assert.assertArrayEquals(new byte[] {0, 1, 0, 0, 0, 1}, content.getBytes());
+        final ByteBuffer buffer = ByteBuffer.allocate(6);
+        content.writeTo(buffer);
+        Assert.assertArrayEquals(new byte[] {0, 1, 0, 0, 0, 1}, buffer.array());
+    }
+
+    @Test
+    public void testLittleEndianBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        StdType.INT.encodeInt(0x01020304, buffer);
+        Assert.assertArrayEquals(new byte[] {1, 2, 3, 4}, buffer.array());
+    }
+
+    @Test
+    public void testLazyDecoding() {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[] {0, 0, 0, 7});
+        final IntParameter param = IntParameter.newParameter("p", StdType.INT, 0, false);
+        param.setLazyDecoding(true);
+        param.readFrom(buffer);
+        buffer.put(3, (byte) 8);
+        Assert.assertArrayEquals(new byte[] {0, 0, 0, 8}, param.getBytes());
+        Assert.assertEquals(8, param.getInt());
+        param.setInt(9);
+        Assert.assertArrayEquals(new byte[] {0, 0, 0, 9}, param.getBytes());
+    }
+
+    @Test
+    public void testLazyDecodingOldValue() {
+        final List<Integer> olds = new ArrayList<>();
+        final IntParameter param = IntParameter.newParameter("p", StdType.INT, 0, false);
+        param.setLazyDecoding(true);
+        param.readFrom(ByteBuffer.wrap(new byte[] {0, 0, 0, 7}));
+        param.addValueListener((p, o, n) -> olds.add(o));
+        param.setInt(9);
+        final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, null, false);
+        msg.setLazyDecoding(true);
+        msg.readFrom(ByteBuffer.wrap(new byte[] {'h', 'i'}));
+        msg.addValueListener((p, o, n) -> olds.add(o.length()));
+        msg.setValue("hello");
+        Assert.assertEquals(Arrays.asList(7, 2), olds);
+    }
+
+}
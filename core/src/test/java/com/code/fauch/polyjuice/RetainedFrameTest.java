@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class RetainedFrameTest {
+
+    private static byte[] toArray(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+    
+    @Test
+    public void testPatch() {
+        final StatusContent content = new StatusContent();
+        try (RetainedFrame frame = new RetainedFrame(content)) {
+            Assert.assertArrayEquals(content.getBytes(), toArray(frame.current()));
+            content.getHeader().getCounter().setValue(42);
+            content.getDate().setValue(LocalDate.of(2021, 3, 4));
+            content.getMeasure().setValue(3.5);
+            content.getLabel().message("abcdefgh");
+            Assert.assertArrayEquals(content.getBytes(), toArray(frame.current()));
+            content.getLabel().message("ab");
+            Assert.assertArrayEquals(content.getBytes(), toArray(frame.current()));
+            Assert.assertEquals(42, frame.current().getInt(2));
+        }
+    }
+    
+    @Test
+    public void testPatchAfterUpdate() {
+        final StatusContent content = new StatusContent();
+        try (RetainedFrame frame = new RetainedFrame(content)) {
+            content.update(() -> {
+                content.getHeader().getCounter().setValue(42);
+                content.getMeasure().setValue(3.5);
+            });
+            Assert.assertArrayEquals(content.getBytes(), toArray(frame.current()));
+            Assert.assertEquals(42, frame.current().getInt(2));
+        }
+    }
+    
+    @Test
+    public void testClose() {
+        final StatusContent content = new StatusContent();
+        final RetainedFrame frame = new RetainedFrame(content);
+        final byte[] before = toArray(frame.current());
+        frame.close();
+        content.getHeader().getCounter().setValue(42);
+        Assert.assertArrayEquals(before, toArray(frame.current()));
+    }
+    
+    @Test
+    public void testSharedLayout() {
+        final Layout layout = Layout.of(new StatusContent());
+        final StatusContent content = new StatusContent();
+        content.getMeasure().setValue(1.5);
+        try (RetainedFrame frame = new RetainedFrame(content, layout)) {
+            Assert.assertSame(layout, frame.getLayout());
+            Assert.assertEquals(1.5, frame.current().getDouble(18), 0);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testLayoutMismatch() {
+        new RetainedFrame(Parameter.newParameter("p", StdType.INT, 1, false), Layout.of(new StatusContent()));
+    }
+    
+    @Test
+    public void testVolatileField() {
+        @SuppressWarnings("unchecked")
+        final Parameter<AbsClock<Duration>> clock = Parameter.newParameter(
+                "clock", (IType<AbsClock<Duration>>) StdType.OFFSET_CLOCK, new OffsetClock(Duration.ZERO), false);
+        final Parameter<Short> id = Parameter.newParameter("id", StdType.SHORT, (short) 7, false);
+        final AbsContent content = new AbsContent(Arrays.asList(id, clock)) {};
+        try (RetainedFrame frame = new RetainedFrame(content)) {
+            final ByteBuffer current = frame.current();
+            Assert.assertEquals(26, current.remaining());
+            Assert.assertEquals(7, current.getShort(0));
+            Assert.assertEquals(clock.getBytes()[3], current.get(2 + 3));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Fake content with a fixed layout for test.
+ * 
+ * +--2bytes--+--4bytes--+--12bytes--+--8bytes--+--2bytes--+--4bytes--+
+ * |    id    | counter  |    date   | measure  |   size   |   msg    |
+ * +----------+----------+-----------+----------+----------+----------+
+ * 
+ * @author c.fauch
+ *
+ */
+public final class StatusContent extends AbsContent {
+
+    /**
+     * Header definition
+     * 
+     * @author c.fauch
+     *
+     */
+    public static final class Header extends AbsContent {
+        
+        /**
+         * Identifier of the status.
+         */
+        private final Parameter<Short> id;
+        
+        /**
+         * Number of emitted status.
+         */
+        private final Parameter<Integer> counter;
+        
+        /**
+         * Construct a new header.
+         */
+        private Header() {
+            this.id = Parameter.newParameter("id", StdType.SHORT, (short) 1, false);
+            this.counter = Parameter.newParameter("counter", StdType.INT, 0, false);
+            this.addOrderedContents(Arrays.asList(this.id, this.counter));
+        }
+
+        /**
+         * @return the id
+         */
+        public Parameter<Short> getId() {
+            return id;
+        }
+
+        /**
+         * @return the counter
+         */
+        public Parameter<Integer> getCounter() {
+            return counter;
+        }
+        
+    }
+    
+    /**
+     * The header.
+     */
+    private final Header header;
+    
+    /**
+     * The date of the measure.
+     */
+    private final Parameter<LocalDate> date;
+    
+    /**
+     * The measure.
+     */
+    private final Parameter<Double> measure;
+    
+    /**
+     * The label of the measure.
+     */
+    private final FixedSizeContentImpl label;
+    
+    /**
+     * Construct a new status.
+     */
+    public StatusContent() {
+        this.header = new Header();
+        this.date = Parameter.newParameter("date", StdType.DATE, LocalDate.of(2020, 1, 24), false);
+        this.measure = Parameter.newParameter("measure", StdType.DOUBLE, 0.0, false);
+        this.label = new FixedSizeContentImpl();
+        this.label.setExpectedSize(6);
+        this.addOrderedContents(Arrays.asList(this.header, this.date, this.measure, this.label));
+    }
+
+    /**
+     * @return the header
+     */
+    public Header getHeader() {
+        return header;
+    }
+
+    /**
+     * @return the date
+     */
+    public Parameter<LocalDate> getDate() {
+        return date;
+    }
+
+    /**
+     * @return the measure
+     */
+    public Parameter<Double> getMeasure() {
+        return measure;
+    }
+
+    /**
+     * @return the label
+     */
+    public FixedSizeContentImpl getLabel() {
+        return label;
+    }
+    
+}
@@ -15,7 +15,9 @@
 package com.code.fauch.polyjuice;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
@@ -237,5 +239,125 @@ public class StdTypeTest {
         Assert.assertEquals("0", s);
     }
 
+    @Test
+    public void testFixedSize() {
+        Assert.assertEquals(12, StdType.DATE.fixedSize());
+        Assert.assertEquals(12, StdType.TIME.fixedSize());
+        Assert.assertEquals(24, StdType.OFFSET_CLOCK.fixedSize());
+        Assert.assertEquals(24, StdType.FIXED_CLOCK.fixedSize());
+        Assert.assertEquals(8, StdType.DOUBLE.fixedSize());
+        Assert.assertEquals(4, StdType.FLOAT.fixedSize());
+        Assert.assertEquals(8, StdType.LONG.fixedSize());
+        Assert.assertEquals(8, StdType.UNSIGNED_LONG.fixedSize());
+        Assert.assertEquals(4, StdType.INT.fixedSize());
+        Assert.assertEquals(4, StdType.UNSIGNED_INT.fixedSize());
+        Assert.assertEquals(2, StdType.SHORT.fixedSize());
+        Assert.assertEquals(IType.VARIABLE_SIZE, StdType.STRING.fixedSize());
+    }
+    
+    @Test
+    public void testSizeOf() {
+        Assert.assertEquals(12, StdType.DATE.sizeOf(null));
+        Assert.assertEquals(0, StdType.STRING.sizeOf(null));
+        for (String value : new String[] {"", "hello", "épilogue", "\u20ac", "\uD83D\uDE00", "a\uD83Db"}) {
+            Assert.assertEquals(value, StdType.STRING.encode(value).length, StdType.STRING.sizeOf(value));
+        }
+    }
+    
+    @Test
+    public void testStringEncodeInto() {
+        for (String value : new String[] {"", "hello", "épilogue", "\u20ac", "\uD83D\uDE00", "a\uD83Db", "\uDE00"}) {
+            final ByteBuffer bb = ByteBuffer.allocate(StdType.STRING.sizeOf(value));
+            StdType.STRING.encodeInto(value, bb);
+            Assert.assertFalse(bb.hasRemaining());
+            Assert.assertArrayEquals(value, StdType.STRING.encode(value), bb.array());
+        }
+        final ByteBuffer bb = ByteBuffer.allocate(8);
+        try {
+            StdType.STRING.encodeInto("épilogue", bb);
+            Assert.fail("buffer too small");
+        } catch (BufferOverflowException e) {
+            Assert.assertEquals(0, bb.position());
+        }
+    }
+    
+    @Test
+    public void testEncodeIntoKeepsBigEndian() {
+        final ByteBuffer bb = ByteBuffer.allocate(6).order(ByteOrder.LITTLE_ENDIAN);
+        StdType.SHORT.encodeInto((short) 15150, bb);
+        StdType.INT.encodeInto(2147483646, bb);
+        Assert.assertEquals(6, bb.position());
+        Assert.assertEquals(ByteOrder.LITTLE_ENDIAN, bb.order());
+        Assert.assertArrayEquals(ByteBuffer.allocate(6).putShort((short) 15150).putInt(2147483646).array(), bb.array());
+    }
+
+    @Test
+    public void testEncodeIntoWithNull() {
+        final ByteBuffer bb = ByteBuffer.allocate(14);
+        bb.put(new byte[] {1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1});
+        bb.position(1);
+        StdType.DATE.encodeInto(null, bb);
+        StdType.STRING.encodeInto(null, bb);
+        Assert.assertEquals(13, bb.position());
+        Assert.assertArrayEquals(new byte[] {1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1}, bb.array());
+    }
+
+    @Test
+    public void testEncodeIntoSameAsEncode() {
+        final ByteBuffer bb = ByteBuffer.allocate(60);
+        final FixedClock clock = new FixedClock(ZoneOffset.UTC, Instant.parse("2020-01-24T07:41:03.00Z"));
+        StdType.FIXED_CLOCK.encodeInto(clock, bb);
+        StdType.DOUBLE.encodeInto(387850941.35821074, bb);
+        StdType.FLOAT.encodeInto(3.14159274f, bb);
+        StdType.UNSIGNED_INT.encodeInto(4294967294L, bb);
+        StdType.UNSIGNED_LONG.encodeInto("18446744073709551615", bb);
+        StdType.TIME.encodeInto(LocalTime.of(9, 25, 33), bb);
+        Assert.assertFalse(bb.hasRemaining());
+        bb.flip();
+        final ByteBuffer expected = ByteBuffer.allocate(60)
+                .put(StdType.FIXED_CLOCK.encode(clock))
+                .put(StdType.DOUBLE.encode(387850941.35821074))
+                .put(StdType.FLOAT.encode(3.14159274f))
+                .put(StdType.UNSIGNED_INT.encode(4294967294L))
+                .put(StdType.UNSIGNED_LONG.encode("18446744073709551615"))
+                .put(StdType.TIME.encode(LocalTime.of(9, 25, 33)));
+        Assert.assertArrayEquals(expected.array(), bb.array());
+    }
+
+
+    @Test
+    public void testDecode() {
+        Assert.assertEquals(LocalDate.of(2020, 1, 24), StdType.DATE.decode(ByteBuffer.wrap(StdType.DATE.encode(LocalDate.of(2020, 1, 24)))));
+        Assert.assertNull(StdType.DATE.decode(ByteBuffer.wrap(StdType.DATE.encode(null))));
+        Assert.assertEquals(LocalTime.of(9, 25, 33), StdType.TIME.decode(ByteBuffer.wrap(StdType.TIME.encode(LocalTime.of(9, 25, 33)))));
+        Assert.assertEquals(Short.valueOf((short) -3), StdType.SHORT.decode(ByteBuffer.wrap(StdType.SHORT.encode((short) -3))));
+        Assert.assertEquals(Integer.valueOf(-42), StdType.INT.decode(ByteBuffer.wrap(StdType.INT.encode(-42))));
+        Assert.assertEquals(Long.valueOf(4294967295L), StdType.UNSIGNED_INT.decode(ByteBuffer.wrap(StdType.UNSIGNED_INT.encode(4294967295L))));
+        Assert.assertEquals(Long.valueOf(-5L), StdType.LONG.decode(ByteBuffer.wrap(StdType.LONG.encode(-5L))));
+        Assert.assertEquals("18446744073709551615", StdType.UNSIGNED_LONG.decode(ByteBuffer.wrap(StdType.UNSIGNED_LONG.encode("18446744073709551615"))));
+        Assert.assertEquals(1.5f, StdType.FLOAT.decode(ByteBuffer.wrap(StdType.FLOAT.encode(1.5f))), 0f);
+        Assert.assertEquals(-2.25, StdType.DOUBLE.decode(ByteBuffer.wrap(StdType.DOUBLE.encode(-2.25))), 0.0);
+        Assert.assertEquals("héllo", StdType.STRING.decode(ByteBuffer.wrap(StdType.STRING.encode("héllo"))));
+    }
+    
+    @Test
+    public void testDecodeClock() {
+        final Instant instant = Instant.parse("2020-01-24T09:25:33Z");
+        final FixedClock clock = new FixedClock(ZoneOffset.UTC, instant);
+        final AbsClock<?> decoded = (AbsClock<?>) StdType.FIXED_CLOCK.decode(ByteBuffer.wrap(StdType.FIXED_CLOCK.encode(clock)));
+        Assert.assertEquals(instant, decoded.instant());
+        Assert.assertNull(StdType.FIXED_CLOCK.decode(ByteBuffer.wrap(StdType.FIXED_CLOCK.encode(null))));
+    }
+    
+    @Test
+    public void testDecodeLittleEndian() {
+        final ByteBuffer buffer = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        StdType.INT.encodeInto(7, buffer);
+        StdType.DOUBLE.encodeInto(0.5, buffer);
+        buffer.flip();
+        Assert.assertEquals(7, StdType.INT.decodeInt(buffer));
+        Assert.assertEquals(0.5, StdType.DOUBLE.decodeDouble(buffer), 0.0);
+        Assert.assertFalse(buffer.hasRemaining());
+    }
 
 }
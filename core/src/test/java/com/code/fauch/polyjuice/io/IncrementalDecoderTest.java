@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.code.fauch.polyjuice.AbsContent;
+import com.code.fauch.polyjuice.ContentImpl;
+import com.code.fauch.polyjuice.DynamicArray;
+import com.code.fauch.polyjuice.FixedSizeContentImpl;
+import com.code.fauch.polyjuice.IContent;
+import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.StdType;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class IncrementalDecoderTest {
+
+    /**
+     * Item decoded from the items of ContentImpl.
+     */
+    private static final class Item extends AbsContent {
+
+        private final Parameter<Short> size = Parameter.newParameter("size", StdType.SHORT, null, false);
+
+        private final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, null, false);
+
+        private Item() {
+            addOrderedContents(Arrays.asList(this.size, this.msg));
+        }
+
+    }
+
+    /**
+     * Frame decoded from ContentImpl.
+     */
+    private static final class Frame extends AbsContent {
+
+        private final Parameter<Short> nb = Parameter.newParameter("nb", StdType.SHORT, null, false);
+
+        private final DynamicArray<Item> items = new DynamicArray<>();
+
+        private Frame() {
+            addOrderedContents(Arrays.asList(this.nb, this.items));
+        }
+
+        private String messages() {
+            final StringBuilder builder = new StringBuilder();
+            for (Item item : this.items) {
+                builder.append(item.msg.getValue()).append(';');
+            }
+            return builder.toString();
+        }
+
+    }
+
+    private static final ILengthResolver<Frame> RESOLVER = new ILengthResolver<>() {
+
+        @Override
+        public int lengthOf(final Frame frame, final IContent parent, final Parameter<?> parameter) {
+            return ((Item) parent).size.getValue();
+        }
+
+        @Override
+        public void resize(final Frame frame, final IContent parent, final DynamicArray<?> array) {
+            while (frame.items.size() < frame.nb.getValue()) {
+                frame.items.add(new Item());
+            }
+            while (frame.items.size() > frame.nb.getValue()) {
+                frame.items.remove(frame.items.size() - 1);
+            }
+        }
+
+    };
+
+    private static byte[] stream(final String[]... frames) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (String[] messages : frames) {
+            final ContentImpl content = new ContentImpl();
+            for (String message : messages) {
+                content.newItem().message(message);
+            }
+            output.write(content.getBytes());
+        }
+        return output.toByteArray();
+    }
+
+    @Test
+    public void testSplitFrames() throws IOException {
+        final byte[] bytes = stream(new String[] {"hello", "", "world"}, new String[] {}, new String[] {"hi"});
+        for (int chunkSize : new int[] {1, 3, 7, bytes.length}) {
+            final List<String> decoded = new ArrayList<>();
+            final IncrementalDecoder<Frame> decoder = new IncrementalDecoder<>(Frame::new, RESOLVER,
+                    f -> decoded.add(f.messages()));
+            int count = 0;
+            for (int i = 0; i < bytes.length; i += chunkSize) {
+                count += decoder.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+            }
+            Assert.assertEquals(3, count);
+            Assert.assertEquals(Arrays.asList("hello;;world;", "", "hi;"), decoded);
+            Assert.assertFalse(decoder.hasPendingFrame());
+        }
+    }
+
+    @Test
+    public void testReuseFrame() throws IOException {
+        final byte[] bytes = stream(new String[] {"a", "b"}, new String[] {"c"});
+        final Frame frame = new Frame();
+        final List<String> decoded = new ArrayList<>();
+        final IncrementalDecoder<Frame> decoder = new IncrementalDecoder<>(() -> frame, RESOLVER,
+                f -> decoded.add(f.messages()));
+        decoder.feed(ByteBuffer.wrap(bytes, 0, 5));
+        Assert.assertTrue(decoder.hasPendingFrame());
+        decoder.feed(ByteBuffer.wrap(bytes, 5, bytes.length - 5));
+        Assert.assertEquals(Arrays.asList("a;b;", "c;"), decoded);
+        Assert.assertEquals(1, frame.items.size());
+    }
+
+    @Test
+    public void testReadChannel() throws IOException {
+        final byte[] bytes = stream(new String[] {"abc"}, new String[] {"de", "f"});
+        final List<String> decoded = new ArrayList<>();
+        final IncrementalDecoder<Frame> decoder = new IncrementalDecoder<>(Frame::new, RESOLVER,
+                f -> decoded.add(f.messages()));
+        final ByteBuffer buffer = ByteBuffer.allocate(4);
+        try (ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes))) {
+            while (decoder.read(channel, buffer) >= 0) {
+                // Nothing to do
+            }
+        }
+        Assert.assertEquals(Arrays.asList("abc;", "de;f;"), decoded);
+    }
+
+    @Test
+    public void testFixedSizeContent() {
+        final FixedSizeContentImpl content = new FixedSizeContentImpl();
+        content.setExpectedSize(6);
+        content.message("hello");
+        final byte[] bytes = content.getBytes();
+        final FixedSizeContentImpl decoded = new FixedSizeContentImpl();
+        decoded.setExpectedSize(6);
+        final List<IContent> frames = new ArrayList<>();
+        final IncrementalDecoder<FixedSizeContentImpl> decoder = new IncrementalDecoder<>(() -> decoded,
+                (f, p, c) -> 0, frames::add);
+        Assert.assertEquals(0, decoder.feed(ByteBuffer.wrap(bytes, 0, 4)));
+        Assert.assertEquals(1, decoder.feed(ByteBuffer.wrap(bytes, 4, 2)));
+        Assert.assertArrayEquals(bytes, decoded.getBytes());
+        Assert.assertEquals(1, frames.size());
+    }
+
+    @Test
+    public void testReset() throws IOException {
+        final byte[] bytes = stream(new String[] {"abc"});
+        final List<String> decoded = new ArrayList<>();
+        final IncrementalDecoder<Frame> decoder = new IncrementalDecoder<>(Frame::new, RESOLVER,
+                f -> decoded.add(f.messages()));
+        decoder.feed(ByteBuffer.wrap(bytes, 0, 3));
+        decoder.reset();
+        Assert.assertFalse(decoder.hasPendingFrame());
+        decoder.feed(ByteBuffer.wrap(bytes));
+        Assert.assertEquals(Arrays.asList("abc;"), decoded);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLength() throws IOException {
+        final IncrementalDecoder<Frame> decoder = new IncrementalDecoder<>(() -> {
+            final Frame frame = new Frame();
+            frame.items.add(new Item());
+            return frame;
+        }, (f, p, c) -> -1, f -> {});
+        decoder.feed(ByteBuffer.wrap(new byte[] {0, 1, 0, 0}));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEmptyFrame() {
+        final IncrementalDecoder<Frame> decoder = new IncrementalDecoder<>(() -> {
+            final Frame frame = new Frame();
+            frame.getOrderedContents().clear();
+            return frame;
+        }, RESOLVER, f -> {});
+        decoder.feed(ByteBuffer.wrap(new byte[] {0}));
+    }
+
+}
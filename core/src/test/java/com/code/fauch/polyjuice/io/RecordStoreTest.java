@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.code.fauch.polyjuice.FrameView;
+import com.code.fauch.polyjuice.StatusContent;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class RecordStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Append some status with a counter from 0 to count - 1.
+     * 
+     * @param store the store (not null)
+     * @param count the number of records
+     * @throws IOException
+     */
+    private static void fill(final RecordStore store, final int count) throws IOException {
+        final StatusContent status = new StatusContent();
+        for (int i = 0; i < count; i++) {
+            status.getHeader().getCounter().setValue(i);
+            Assert.assertEquals(i, store.append(status));
+        }
+    }
+
+    @Test
+    public void testAppendAndRead() throws IOException {
+        final Path dir = this.folder.getRoot().toPath();
+        try (RecordStore store = RecordStore.open(dir, 32, 4)) {
+            fill(store, 10);
+            Assert.assertEquals(10, store.size());
+            final StatusContent status = new StatusContent();
+            store.read(6, status);
+            Assert.assertEquals(6, status.getHeader().getCounter().getValue().intValue());
+            final FrameView view = FrameView.of(StatusContent.class);
+            Assert.assertEquals(9, store.view(9, view).getInt("header.counter"));
+            Assert.assertEquals(0, store.view(0, view).getInt("header.counter"));
+        }
+        Assert.assertEquals(136, Files.size(dir.resolve("00000000.seg")));
+        Assert.assertEquals(136, Files.size(dir.resolve("00000001.seg")));
+        Assert.assertEquals(136, Files.size(dir.resolve("00000002.seg")));
+    }
+
+    @Test
+    public void testReopenWithoutClose() throws IOException {
+        final Path dir = this.folder.getRoot().toPath();
+        final RecordStore store = RecordStore.open(dir, 32, 4);
+        fill(store, 5);
+        store.flush();
+        try (RecordStore reopened = RecordStore.open(dir, 32, 4)) {
+            Assert.assertEquals(5, reopened.size());
+        }
+        store.close();
+    }
+
+    @Test
+    public void testLazyRecordAfterClose() throws IOException {
+        final StatusContent status = new StatusContent();
+        status.setLazyDecoding(true);
+        final byte[] expecteds;
+        try (RecordStore store = RecordStore.open(this.folder.getRoot().toPath(), 32, 4)) {
+            fill(store, 3);
+            store.read(1, status);
+            store.read(2, new StatusContent());
+            expecteds = status.getBytes();
+        }
+        Assert.assertArrayEquals(expecteds, status.getBytes());
+        Assert.assertEquals(1, status.getHeader().getCounter().getValue().intValue());
+    }
+
+    @Test
+    public void testClosed() throws IOException {
+        final RecordStore store = RecordStore.open(this.folder.getRoot().toPath(), 32, 4);
+        fill(store, 2);
+        store.close();
+        try {
+            store.append(new StatusContent());
+            Assert.fail("closed store");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            store.read(0, new StatusContent());
+            Assert.fail("closed store");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            store.view(0, FrameView.of(StatusContent.class));
+            Assert.fail("closed store");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            store.scan(FrameView.of(StatusContent.class), v -> Assert.fail("no record expected"));
+            Assert.fail("closed store");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try (RecordStore reopened = RecordStore.open(this.folder.getRoot().toPath(), 32, 4)) {
+            Assert.assertEquals(2, reopened.size());
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        final Path dir = this.folder.getRoot().toPath();
+        try (RecordStore store = RecordStore.open(dir, 32, 4)) {
+            fill(store, 6);
+        }
+        try (RecordStore store = RecordStore.open(dir, 32, 4)) {
+            Assert.assertEquals(6, store.size());
+            final StatusContent status = new StatusContent();
+            status.getHeader().getCounter().setValue(6);
+            Assert.assertEquals(6, store.append(status));
+            final List<Integer> counters = new ArrayList<>();
+            store.scan(new StatusContent(), c -> counters.add(((StatusContent) c).getHeader().getCounter().getValue()));
+            Assert.assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), counters);
+        }
+    }
+
+    @Test
+    public void testScanView() throws IOException {
+        try (RecordStore store = RecordStore.open(this.folder.getRoot().toPath(), 32, 3)) {
+            fill(store, 7);
+            final long[] sum = new long[1];
+            store.scan(FrameView.of(StatusContent.class), v -> sum[0] += v.getInt("header.counter"));
+            Assert.assertEquals(21, sum[0]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongSize() throws IOException {
+        try (RecordStore store = RecordStore.open(this.folder.getRoot().toPath(), 16, 3)) {
+            store.append(new StatusContent());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testNoRecord() throws IOException {
+        try (RecordStore store = RecordStore.open(this.folder.getRoot().toPath(), 32, 3)) {
+            fill(store, 2);
+            store.read(2, new StatusContent());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptedSegment() throws IOException {
+        final Path dir = this.folder.getRoot().toPath();
+        Files.write(dir.resolve("00000000.seg"), new byte[10]);
+        RecordStore.open(dir, 32, 3);
+    }
+
+}
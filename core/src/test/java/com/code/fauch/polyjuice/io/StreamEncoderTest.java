@@ -0,0 +1,196 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.code.fauch.polyjuice.AbsContent;
+import com.code.fauch.polyjuice.ContentImpl;
+import com.code.fauch.polyjuice.FixedSizeContentImpl;
+import com.code.fauch.polyjuice.IntColumn;
+import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.StdType;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class StreamEncoderTest {
+
+    /**
+     * Gathering channel recording everything into memory.
+     */
+    private static final class MemoryChannel implements GatheringByteChannel {
+        
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        
+        private int gatheringWrites;
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            final byte[] bytes = new byte[src.remaining()];
+            src.get(bytes);
+            this.output.writeBytes(bytes);
+            return bytes.length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            this.gatheringWrites++;
+            long written = 0;
+            for (int i = offset; i < offset + length; i++) {
+                written += write(srcs[i]);
+            }
+            return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) throws IOException {
+            return write(srcs, 0, srcs.length);
+        }
+        
+    }
+    
+    private static ContentImpl newContent(final int nb) {
+        final ContentImpl content = new ContentImpl();
+        for (int i = 0; i < nb; i++) {
+            content.newItem().message("item-" + i);
+        }
+        return content;
+    }
+    
+    @Test
+    public void testEncodeToStream() throws IOException {
+        final ContentImpl content = newContent(100);
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final long written = new StreamEncoder(16).encode(output, content);
+        Assert.assertEquals(content.encodedSize(), written);
+        Assert.assertArrayEquals(content.getBytes(), output.toByteArray());
+    }
+
+    @Test
+    public void testGatheringWrites() throws IOException {
+        final ContentImpl content = newContent(100);
+        final MemoryChannel channel = new MemoryChannel();
+        new StreamEncoder(32, 4).encode(channel, content);
+        Assert.assertArrayEquals(content.getBytes(), channel.output.toByteArray());
+        Assert.assertTrue(channel.gatheringWrites > 1);
+    }
+
+    @Test
+    public void testEncodeSeveralFrames() throws IOException {
+        final ContentImpl first = newContent(3);
+        final FixedSizeContentImpl second = new FixedSizeContentImpl().message("yes");
+        second.setExpectedSize(7);
+        final MemoryChannel channel = new MemoryChannel();
+        final StreamEncoder encoder = new StreamEncoder(64, 2);
+        Assert.assertEquals(first.encodedSize() + 7, encoder.encode(channel, first, second));
+        Assert.assertEquals(first.encodedSize(), encoder.encode(channel, first));
+        final byte[] actuals = channel.output.toByteArray();
+        final byte[] firstBytes = first.getBytes();
+        Assert.assertArrayEquals(firstBytes, Arrays.copyOfRange(actuals, 0, firstBytes.length));
+        Assert.assertArrayEquals(second.getBytes(), 
+                Arrays.copyOfRange(actuals, firstBytes.length, firstBytes.length + 7));
+        Assert.assertArrayEquals(firstBytes, 
+                Arrays.copyOfRange(actuals, firstBytes.length + 7, actuals.length));
+    }
+
+    @Test
+    public void testEncodeLeafLargerThanSegment() throws IOException {
+        final Parameter<String> msg = Parameter.newParameter("msg", StdType.STRING, "a message larger than a segment", false);
+        final Parameter<Short> size = Parameter.newParameter("size", StdType.SHORT, (short) 31, false);
+        final MemoryChannel channel = new MemoryChannel();
+        new StreamEncoder(8, 2).encode(channel, size, msg, size);
+        final ByteBuffer expected = ByteBuffer.allocate(35).put(size.getBytes()).put(msg.getBytes()).put(size.getBytes());
+        Assert.assertArrayEquals(expected.array(), channel.output.toByteArray());
+    }
+    
+    @Test
+    public void testEncodeColumnLargerThanSegment() throws IOException {
+        final IntColumn column = IntColumn.of(StdType.INT, IntStream.range(0, 100).toArray());
+        final MemoryChannel channel = new MemoryChannel();
+        Assert.assertEquals(400, new StreamEncoder(18, 2).encode(channel, column));
+        Assert.assertArrayEquals(column.getBytes(), channel.output.toByteArray());
+    }
+
+    @Test
+    public void testEncodeFixedSizeLargerThanSegment() throws IOException {
+        final String msg = "\u00e9t\u00e9 " + "\ud83d\ude00".repeat(10);
+        for (int expectedSize : new int[] {2, 14, 15, 16, 60}) {
+            final FixedSizeContentImpl content = new FixedSizeContentImpl().message(msg);
+            content.setExpectedSize(expectedSize);
+            final MemoryChannel channel = new MemoryChannel();
+            Assert.assertEquals(expectedSize, new StreamEncoder(8, 2).encode(channel, content));
+            Assert.assertArrayEquals(content.getBytes(), channel.output.toByteArray());
+        }
+    }
+
+    @Test
+    public void testEncodeCachedContent() throws IOException {
+        final ContentImpl content = newContent(10);
+        content.setCaching(true);
+        final byte[] expecteds = content.getBytes();
+        final MemoryChannel channel = new MemoryChannel();
+        new StreamEncoder(16, 2).encode(channel, content);
+        Assert.assertArrayEquals(expecteds, channel.output.toByteArray());
+        Assert.assertEquals(1, content.getEncodingCache().getHits());
+    }
+
+    @Test
+    public void testEncodeOverriddenWriteTo() throws IOException {
+        final AbsContent content = new AbsContent(new ArrayList<>(List.of(
+                Parameter.newParameter("a", StdType.INT, 1, false),
+                Parameter.newParameter("b", StdType.INT, 2, false)))) {
+            
+            @Override
+            public void writeTo(final ByteBuffer buffer) {
+                final int start = buffer.position();
+                super.writeTo(buffer);
+                for (int i = start; i < buffer.position(); i++) {
+                    buffer.put(i, (byte) ~buffer.get(i));
+                }
+            }
+            
+        };
+        final MemoryChannel channel = new MemoryChannel();
+        new StreamEncoder(16).encode(channel, content);
+        Assert.assertArrayEquals(content.getBytes(), channel.output.toByteArray());
+        Assert.assertEquals((byte) ~1, channel.output.toByteArray()[3]);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptySegment() {
+        new StreamEncoder(0);
+    }
+}
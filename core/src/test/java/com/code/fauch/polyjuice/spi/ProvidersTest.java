@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.code.fauch.polyjuice.IType;
+import com.code.fauch.polyjuice.StdType;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class ProvidersTest {
+
+    @Test
+    public void testStandardTypes() {
+        final StdType provider = new StdType();
+        Assert.assertEquals(12, provider.getTypes().size());
+        for (IType<?> type : provider.getTypes()) {
+            Assert.assertSame(type, provider.getInstance(type.getName()));
+            Assert.assertSame(type, Providers.getTypeInstance(type.getName()));
+        }
+    }
+
+    @Test
+    public void testUnknownType() {
+        Assert.assertNull(Providers.getTypeInstance("UNKNOWN"));
+        Assert.assertNull(Providers.getTypeInstance(null));
+        Assert.assertNull(new StdType().getInstance(null));
+    }
+
+    @Test
+    public void testRefresh() {
+        Providers.refresh();
+        Assert.assertSame(StdType.INT, Providers.getTypeInstance("INT"));
+        Providers.refresh(ModuleLayer.boot());
+        Assert.assertSame(StdType.INT, Providers.getTypeInstance("INT"));
+        Providers.refresh();
+    }
+
+    @Test
+    public void testFirstProviderWins() {
+        final ITypeProvider unlisted = new ITypeProvider() {
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public <U> IType<U> getInstance(final String name) {
+                return "INT".equals(name) ? (IType<U>) StdType.SHORT : null;
+            }
+
+        };
+        Assert.assertSame(StdType.SHORT, new Providers.Registry(List.of(unlisted, new StdType())).find("INT"));
+        Assert.assertSame(StdType.INT, new Providers.Registry(List.of(new StdType(), unlisted)).find("INT"));
+    }
+
+    @Test
+    public void testConcurrentResearch() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 10000; j++) {
+                        if (Providers.<String>getTypeInstance("UNSIGNED_LONG") != StdType.UNSIGNED_LONG) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
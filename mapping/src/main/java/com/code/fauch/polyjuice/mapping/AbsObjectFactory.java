@@ -0,0 +1,179 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.beans.IntrospectionException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.code.fauch.polyjuice.IContent;
+import com.code.fauch.polyjuice.IObject;
+import com.code.fauch.polyjuice.Layout;
+
+/**
+ * Abstract object factory.
+ * This class can be extended to build other object.
+ * <p>
+ * The constructor and the setters of the built classes are resolved once by introspection
+ * and cached, then invoked through method handles: they must be public.
+ * </p>
+ * 
+ * @author c.fauch
+ *
+ */
+public abstract class AbsObjectFactory<T extends IObject> implements IContentFactory<T> {
+
+    /**
+     * name of the field
+     */
+    private String name;
+
+    /**
+     * Returns the name of the field (may be null)
+     * 
+     * @return the name
+     */
+    @Override
+    public final String getName() {
+        return name;
+    }
+
+    /**
+     * Specify the name of the field (may  be null)
+     * 
+     * @param name the name to set
+     */
+    public final void setName(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * The ordered list of contents.
+     */
+    private List<IContentFactory<?>> contents;
+
+    /**
+     * Returns the ordered list of contents.
+     * 
+     * @return the contents
+     */
+    public final List<IContentFactory<?>> getContents() {
+        return contents;
+    }
+
+    /**
+     * Specify the ordered list of contents.
+     * 
+     * @param contents the ordered list of contents to set
+     */
+    public final void setContents(final List<IContentFactory<?>> contents) {
+        this.contents = contents;
+    }
+    
+    /**
+     * Build an object of a given class.
+     * The ordered list of parameters must not be null.
+     * @param <U>
+     * @param clss the class of the object to build (not null).
+     * @return the new instance
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     * @throws IllegalArgumentException
+     * @throws InvocationTargetException
+     * @throws NoSuchMethodException
+     * @throws SecurityException
+     * @throws IntrospectionException
+     */
+    public <U extends T> U build(final Class<U> clss, Type... genericTypes) 
+            throws Exception {
+        return compile(clss, genericTypes).newInstance();
+    }
+    
+    /**
+     * Compile this factory and the factories of its contents into an instantiator of a given class.
+     * The constructor and the setters are bound once: each new instance is built without any introspection.
+     * The ordered list of parameters must not be null.
+     * 
+     * @param <U>
+     * @param clss the class of the object to build (not null).
+     * @return the instantiator
+     * @throws NoSuchMethodException if the class has no public constructor without parameters
+     * @throws IntrospectionException if a content has no matching setter
+     * @throws Exception if a content cannot be compiled
+     */
+    @Override
+    public <U extends T> IInstantiator<U> compile(final Class<U> clss, final Type... genericTypes) 
+            throws Exception {
+        final ClassBinding binding = ClassBinding.of(Objects.requireNonNull(clss, "clss is required"));
+        binding.constructor();
+        final List<IContentFactory<?>> factories = Objects.requireNonNull(this.contents, "missing 'contents'");
+        final ClassBinding.Property[] properties = new ClassBinding.Property[factories.size()];
+        final IInstantiator<?>[] instantiators = new IInstantiator<?>[factories.size()];
+        for (int i = 0; i < properties.length; i++) {
+            final IContentFactory<?> cf = factories.get(i);
+            properties[i] = binding.property(Objects.requireNonNull(cf.getName(), "missing 'name' in one content"));
+            instantiators[i] = compile(cf, properties[i]);
+        }
+        return () -> {
+            final U truc = clss.cast(binding.newInstance());
+            final List<IContent> order = new ArrayList<>(properties.length);
+            for (int i = 0; i < properties.length; i++) {
+                final IContent value = (IContent) instantiators[i].newInstance();
+                properties[i].set(truc, value);
+                order.add(value);
+            }
+            truc.addOrderedContents(order);
+            return truc;
+        };
+    }
+    
+    /**
+     * Computes the layout of the objects of a given class built with this factory.
+     * A prototype is built to walk through its structure.
+     * 
+     * @param <U>
+     * @param clss the class of the objects (not null)
+     * @return the layout
+     * @throws IllegalArgumentException if the objects are not contents with a fixed layout
+     * @throws Exception if the prototype cannot be built
+     */
+    public final <U extends T> Layout layout(final Class<U> clss) throws Exception {
+        final U prototype = build(clss);
+        if (!(prototype instanceof IContent)) {
+            throw new IllegalArgumentException("not a content: " + clss.getName());
+        }
+        return Layout.of((IContent) prototype);
+    }
+    
+    /**
+     * Compile the factory of a content for the type of the property holding it.
+     * 
+     * @param <U>
+     * @param cf the factory of the content (not null)
+     * @param property the property holding the content (not null)
+     * @return the instantiator of the content
+     * @throws Exception if the content cannot be compiled
+     */
+    private static <U extends IContent> IInstantiator<U> compile(final IContentFactory<U> cf, 
+            final ClassBinding.Property property) throws Exception {
+        @SuppressWarnings("unchecked")
+        final Class<U> type = (Class<U>) property.getType();
+        return cf.compile(type, property.getGenericTypes());
+    }
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.beans.IntrospectionException;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binding of a class built by the factories: its public constructor without parameters and the
+ * setters of its properties, resolved once by introspection and then invoked through method handles.
+ * <p>
+ * The bindings are computed on first use and cached per class, so that building an object does not
+ * require any introspection. The bindings are thread-safe.
+ * </p>
+ * <p>
+ * The handles are resolved with the access of this module rather than with the public lookup, so that
+ * a class of a package exported or opened only to this module can be bound.
+ * </p>
+ * <p>
+ * If the class has a generated {@link IBinder}, the constructor and the properties it knows are bound
+ * through it without any introspection.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+final class ClassBinding {
+
+    /**
+     * Type of the constructor handles.
+     */
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class);
+
+    /**
+     * Type of the setter handles.
+     */
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * The lookup of this module.
+     */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * {@link IBinder#newInstance()}.
+     */
+    private static final MethodHandle BINDER_NEW;
+
+    /**
+     * {@link IBinder#set(Object, int, Object)}.
+     */
+    private static final MethodHandle BINDER_SET;
+
+    static {
+        try {
+            BINDER_NEW = LOOKUP.findVirtual(IBinder.class, "newInstance", MethodType.methodType(Object.class));
+            BINDER_SET = LOOKUP.findVirtual(IBinder.class, "set",
+                    MethodType.methodType(void.class, Object.class, int.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The bindings of each class.
+     */
+    private static final ClassValue<ClassBinding> BINDINGS = new ClassValue<>() {
+
+        @Override
+        protected ClassBinding computeValue(final Class<?> type) {
+            return new ClassBinding(type);
+        }
+
+    };
+
+    /**
+     * Binding of a property: its setter and its type.
+     *
+     * @author c.fauch
+     *
+     */
+    static final class Property {
+
+        /**
+         * The class of the property.
+         */
+        private final Class<?> type;
+
+        /**
+         * The actual type arguments of the property if it is a parameterized type.
+         */
+        private final Type[] genericTypes;
+
+        /**
+         * The setter taking the object and the value.
+         */
+        private final MethodHandle setter;
+
+        /**
+         * Constructor.
+         *
+         * @param type the class of the property (not null)
+         * @param genericTypes the actual type arguments (not null)
+         * @param setter the setter (not null)
+         */
+        private Property(final Class<?> type, final Type[] genericTypes, final MethodHandle setter) {
+            this.type = type;
+            this.genericTypes = genericTypes;
+            this.setter = setter;
+        }
+
+        /**
+         * Returns the class of the property.
+         *
+         * @return the class
+         */
+        Class<?> getType() {
+            return this.type;
+        }
+
+        /**
+         * Returns the actual type arguments of the property if it is a parameterized type.
+         * The returned array must not be modified.
+         *
+         * @return the type arguments (may be empty)
+         */
+        Type[] getGenericTypes() {
+            return this.genericTypes;
+        }
+
+        /**
+         * Set a value to the property of an object.
+         *
+         * @param target the object (not null)
+         * @param value the value to set
+         * @throws Exception if the setter fails
+         */
+        void set(final Object target, final Object value) throws Exception {
+            try {
+                this.setter.invokeExact(target, value);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+    }
+
+    /**
+     * The bound class.
+     */
+    private final Class<?> type;
+
+    /**
+     * The bound properties by name.
+     */
+    private final Map<String, Property> properties;
+
+    /**
+     * The generated binder of the class (may be null).
+     */
+    private final IBinder<?> binder;
+
+    /**
+     * The public constructor without parameters (null until first resolved).
+     */
+    private volatile MethodHandle constructor;
+
+    /**
+     * Constructor.
+     *
+     * @param type the class to bind (not null)
+     */
+    private ClassBinding(final Class<?> type) {
+        this.type = type;
+        this.properties = new ConcurrentHashMap<>();
+        this.binder = findBinder(type);
+    }
+
+    /**
+     * Returns the binding of a class.
+     *
+     * @param type the class (not null)
+     * @return the binding
+     */
+    static ClassBinding of(final Class<?> type) {
+        return BINDINGS.get(type);
+    }
+
+    /**
+     * Creates a new instance with the public constructor without parameters.
+     *
+     * @return the new instance
+     * @throws NoSuchMethodException if there is no such constructor
+     * @throws IllegalAccessException if the constructor is not accessible
+     * @throws Exception if the constructor fails
+     */
+    Object newInstance() throws Exception {
+        final MethodHandle handle = constructor();
+        try {
+            return handle.invokeExact();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Returns the public constructor without parameters, resolved on first call.
+     *
+     * @return the constructor returning an object
+     * @throws NoSuchMethodException if there is no such constructor
+     * @throws IllegalAccessException if the constructor is not accessible
+     */
+    MethodHandle constructor() throws NoSuchMethodException, IllegalAccessException {
+        MethodHandle handle = this.constructor;
+        if (handle == null && this.binder != null) {
+            handle = BINDER_NEW.bindTo(this.binder);
+            this.constructor = handle;
+        } else if (handle == null) {
+            handle = lookup(this.type).unreflectConstructor(this.type.getConstructor()).asType(CONSTRUCTOR);
+            this.constructor = handle;
+        }
+        return handle;
+    }
+
+    /**
+     * Returns the binding of a property.
+     *
+     * @param name the name of the property (not null)
+     * @return the binding
+     * @throws IntrospectionException if there is no such property with a public setter
+     * @throws IllegalAccessException if the setter is not accessible
+     */
+    Property property(final String name) throws IntrospectionException, IllegalAccessException {
+        final Property property = this.properties.get(name);
+        if (property != null) {
+            return property;
+        }
+        final int index = this.binder == null ? -1 : this.binder.indexOf(name);
+        if (index >= 0) {
+            final Property bound = new Property(this.binder.getPropertyType(index), this.binder.getGenericTypes(index),
+                    MethodHandles.insertArguments(BINDER_SET.bindTo(this.binder), 1, index).asType(SETTER));
+            final Property previous = this.properties.putIfAbsent(name, bound);
+            return previous == null ? bound : previous;
+        }
+        final PropertyDescriptor pd = new PropertyDescriptor(name, this.type);
+        final Method setter = pd.getWriteMethod();
+        final List<Type> genericTypes = new ArrayList<>();
+        for (Type genericParameterType : setter.getGenericParameterTypes()) {
+            if (genericParameterType instanceof ParameterizedType) {
+                for (Type parameterArgType : ((ParameterizedType) genericParameterType).getActualTypeArguments()) {
+                    genericTypes.add(parameterArgType);
+                }
+            }
+        }
+        final Property bound = new Property(pd.getPropertyType(), genericTypes.toArray(new Type[0]),
+                lookup(this.type).unreflect(setter).asType(SETTER));
+        final Property previous = this.properties.putIfAbsent(name, bound);
+        return previous == null ? bound : previous;
+    }
+
+    /**
+     * Returns the lookup to resolve the public members of a class.
+     * This module is made to read the module of the class, as the core reflection does, so that the
+     * packages exported or opened to it are accessible.
+     *
+     * @param type the class (not null)
+     * @return the lookup
+     */
+    private static MethodHandles.Lookup lookup(final Class<?> type) {
+        final Module module = ClassBinding.class.getModule();
+        if (!module.canRead(type.getModule())) {
+            module.addReads(type.getModule());
+        }
+        return LOOKUP;
+    }
+
+    /**
+     * Research the generated binder of a class: the class of the same package named after it with
+     * the suffix {@link IBinder#SUFFIX}.
+     *
+     * @param type the bound class (not null)
+     * @return the binder or null if not found
+     * @throws IllegalStateException if the binder cannot be created
+     */
+    private static IBinder<?> findBinder(final Class<?> type) {
+        final String name = type.getName() + IBinder.SUFFIX;
+        final int start = name.lastIndexOf('.') + 1;
+        try {
+            final Class<?> clss = Class.forName(name.substring(0, start) + name.substring(start).replace('$', '_'),
+                    false, type.getClassLoader());
+            if (!IBinder.class.isAssignableFrom(clss)) {
+                return null;
+            }
+            return (IBinder<?>) lookup(clss).unreflectConstructor(clss.getConstructor()).invoke();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // No accessible binder: introspection is used
+            return null;
+        } catch (Throwable t) {
+            throw new IllegalStateException("unable to create the binder of " + type.getName(), t);
+        }
+    }
+
+}
@@ -15,6 +15,7 @@
 package com.code.fauch.polyjuice.mapping;
 
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -79,12 +80,27 @@ public final class DynamicArrayFactory implements IContentFactory<DynamicArray<?
      */
     @Override
     public <U extends DynamicArray<?>> U build(Class<U> clss, Type... genericTypes) throws Exception {
-        //final U array = Objects.requireNonNull(clss, "clss is required").getConstructor().newInstance();
-        final DynamicArray<IContent> array = from(genericTypes[0]);
-        for (final IContentFactory<?> cf : Objects.requireNonNull(this.items, "missing 'items'")) {
-            array.add(buildItem(cf, genericTypes[0]));
+        return compile(clss, genericTypes).newInstance();
+    }
+    
+    /**
+     * Compile this factory and the factories of the items into an instantiator of dynamic arrays.
+     */
+    @Override
+    public <U extends DynamicArray<?>> IInstantiator<U> compile(Class<U> clss, Type... genericTypes) throws Exception {
+        final List<IContentFactory<?>> factories = Objects.requireNonNull(this.items, "missing 'items'");
+        final List<IInstantiator<? extends IContent>> instantiators = new ArrayList<>(factories.size());
+        for (final IContentFactory<?> cf : factories) {
+            instantiators.add(compileItem(cf, genericTypes[0]));
         }
-        return (U) array;
+        final Type elementType = genericTypes[0];
+        return () -> {
+            final DynamicArray<IContent> array = from(elementType);
+            for (final IInstantiator<? extends IContent> instantiator : instantiators) {
+                array.add(instantiator.newInstance());
+            }
+            return (U) array;
+        };
     }
     
     private static final <U extends IContent> DynamicArray<U> newArray(final Class<U> cls) {
@@ -95,8 +111,8 @@ public final class DynamicArrayFactory implements IContentFactory<DynamicArray<?
         return newArray((Class<U>) t);
     }
     
-    private <U extends IContent> U buildItem(IContentFactory<U> fact, Type cls) throws Exception {
-        return fact.build((Class<U>) cls, new Type[0]);
+    private <U extends IContent> IInstantiator<U> compileItem(IContentFactory<U> fact, Type cls) throws Exception {
+        return fact.compile((Class<U>) cls, new Type[0]);
     }
 
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the type of a parameter of a {@link Template} class.
+ * <p>
+ * The type is resolved at compile time (see {@link com.code.fauch.polyjuice.spi.Providers}), so that the
+ * offset and the width of the parameter in the encoded content are known by the generated codec.
+ * It must be the type given to the parameter by the templates.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface Encoded {
+
+    /**
+     * The name of the type of the parameter (like <code>INT</code>).
+     *
+     * @return the name of the type
+     */
+    String type();
+
+}
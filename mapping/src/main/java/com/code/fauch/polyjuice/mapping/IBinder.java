@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.lang.reflect.Type;
+
+/**
+ * Binds the properties of a class built by the factories without introspection.
+ * <p>
+ * A binder is generated at compile time for each {@link Template} class <code>Foo</code>: it is the class
+ * <code>FooBinder</code> of the same package (<code>Outer_InnerBinder</code> for a nested class
+ * <code>Outer.Inner</code>). When building an object of a class, the factories use its binder
+ * if there is one and fall back to introspection for the properties it does not know.
+ * The properties are identified by their index in the binder.
+ * </p>
+ *
+ * @param <T> the class of the bound objects
+ *
+ * @author c.fauch
+ *
+ */
+public interface IBinder<T> {
+
+    /**
+     * Suffix of the name of the binder of a class.
+     */
+    String SUFFIX = "Binder";
+
+    /**
+     * Creates a new object.
+     *
+     * @return the new object
+     */
+    T newInstance();
+
+    /**
+     * Returns the index of a property.
+     *
+     * @param name the name of the property (not null)
+     * @return the index or -1 if there is no such property
+     */
+    int indexOf(String name);
+
+    /**
+     * Returns the class of a property.
+     *
+     * @param index the index of the property
+     * @return the class
+     * @throws IndexOutOfBoundsException if there is no such property
+     */
+    Class<?> getPropertyType(int index);
+
+    /**
+     * Returns the actual type arguments of a property if it is a parameterized type.
+     *
+     * @param index the index of the property
+     * @return the type arguments (may be empty)
+     * @throws IndexOutOfBoundsException if there is no such property
+     */
+    Type[] getGenericTypes(int index);
+
+    /**
+     * Set a value to a property of an object.
+     *
+     * @param target the object (not null)
+     * @param index the index of the property
+     * @param value the value to set
+     * @throws IndexOutOfBoundsException if there is no such property
+     * @throws ClassCastException if the value does not match the property
+     */
+    void set(T target, int index, Object value);
+
+}
@@ -43,4 +43,17 @@ public interface IContentFactory <T extends IContent> {
      */
     public <U extends T> U build(Class<U> clss, Type... genericTypes) throws Exception;
 
+    /**
+     * Compile this factory into an instantiator creating new instances of an object.
+     * By default, the instantiator builds each instance with this factory, so the factory
+     * must not be changed while the instantiator is used.
+     * 
+     * @param clss the class of the object to build.
+     * @return the instantiator
+     * @throws Exception if the factory cannot be compiled
+     */
+    default <U extends T> IInstantiator<U> compile(final Class<U> clss, final Type... genericTypes) throws Exception {
+        return () -> build(clss, genericTypes);
+    }
+
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+/**
+ * Creates new instances from a compiled template.
+ * <p>
+ * An instantiator is returned by {@link IContentFactory#compile(Class, java.lang.reflect.Type...)}:
+ * the types are resolved, the values are converted and the setters are bound once, so that each new
+ * instance is only built from them. The instantiators of the standard factories are immutable and
+ * thread-safe: they do not depend on the factory anymore.
+ * </p>
+ *
+ * @param <T> the class of the instances
+ *
+ * @author c.fauch
+ *
+ */
+@FunctionalInterface
+public interface IInstantiator<T> {
+
+    /**
+     * Creates a new instance.
+     *
+     * @return the new instance
+     * @throws Exception if the instance cannot be built
+     */
+    T newInstance() throws Exception;
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.nio.file.Path;
+
+/**
+ * Parses a template file into a tree of factories.
+ * <p>
+ * It is typically a YAML parser:
+ * <pre>
+ *      final ITemplateLoader loader = file -&gt; {
+ *          try (InputStream in = Files.newInputStream(file)) {
+ *              return new Yaml().load(in);
+ *          }
+ *      };
+ * </pre>
+ * A loader may be called concurrently for different files by a {@link TemplateRegistry}.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+@FunctionalInterface
+public interface ITemplateLoader {
+
+    /**
+     * Parses a template file.
+     *
+     * @param file the template file (not null)
+     * @return the root factory of the template
+     * @throws Exception if the file cannot be read or parsed
+     */
+    IContentFactory<?> load(Path file) throws Exception;
+
+}
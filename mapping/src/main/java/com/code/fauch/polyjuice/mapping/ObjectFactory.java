@@ -14,6 +14,8 @@
  */
 package com.code.fauch.polyjuice.mapping;
 
+import com.code.fauch.polyjuice.IObject;
+
 /**
  * Factory used to build new instance of IObject.
  * 
@@ -14,6 +14,10 @@
  */
 package com.code.fauch.polyjuice.mapping;
 
+import java.lang.reflect.Type;
+
+import com.code.fauch.polyjuice.ISizedObject;
+
 /**
  * Factory used to build new instance of ISizedObject.
  * 
@@ -50,8 +54,21 @@ public class SizedObjectFactory extends AbsObjectFactory<ISizedObject> {
      */
     public <U extends ISizedObject> U build(Class<U> clss)
             throws Exception {
-        final U obj =  super.build(clss);
-        obj.setExpectedSize(this.size);
-        return obj;
+        return build(clss, new Type[0]);
+    }
+
+    /**
+     * Compile this factory: each new object has the expected size if defined.
+     */
+    @Override
+    public <U extends ISizedObject> IInstantiator<U> compile(final Class<U> clss, final Type... genericTypes)
+            throws Exception {
+        final IInstantiator<U> instantiator = super.compile(clss, genericTypes);
+        final Integer expectedSize = this.size;
+        return () -> {
+            final U obj = instantiator.newInstance();
+            obj.setExpectedSize(expectedSize);
+            return obj;
+        };
     }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a custom object whose binder and codec are generated at compile time by the
+ * <code>polyjuice-processor</code> annotation processor.
+ * <p>
+ * The encoded contents are the fields of the class whose type is an {@link com.code.fauch.polyjuice.IContent},
+ * in declaration order: it must be the order of the contents in the templates. Each of them must have a
+ * getter and a setter named after the field (<code>getMsgSize</code> and <code>setMsgSize</code> for
+ * <code>msgSize</code>). The class must have a public constructor without parameters.
+ * </p>
+ * <p>
+ * For a class <code>SimpleContent</code>, two classes are generated in the same package:
+ * <ul>
+ *  <li><code>SimpleContentBinder</code>: the {@link IBinder} used instead of introspection by the factories</li>
+ *  <li><code>SimpleContentCodec</code>: straight-line encoding and decoding of the contents, with the offset and the
+ *  width of each field whose position is known (see {@link Encoded})</li>
+ * </ul>
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Template {
+
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.code.fauch.polyjuice.IContent;
+
+/**
+ * Registry of the templates of a directory.
+ * <p>
+ * The template files of the directory and of its sub-directories are indexed once, by their path relative to
+ * the directory without extension and with <code>/</code> as separator (<code>status/header</code> for
+ * <code>status/header.yml</code>). A template is parsed by the given {@link ITemplateLoader} on first use, or at
+ * startup with {@link #preload()}, then compiled once for each class of object built from it.
+ * </p>
+ * <p>
+ * At most <code>capacity</code> templates are kept in memory: the least recently used one is evicted when a new one
+ * is loaded, and it is parsed again if it is used later. The statistics of the registry tell how often a template
+ * was found in memory. The registry is thread-safe: a template is parsed only once even if it is requested by
+ * several threads at the same time.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class TemplateRegistry {
+
+    /**
+     * Statistics of a registry.
+     *
+     * @author c.fauch
+     *
+     */
+    public static final class Statistics {
+
+        /**
+         * The number of researches of a template found in memory.
+         */
+        private final long hitCount;
+
+        /**
+         * The number of researches of a template not in memory.
+         */
+        private final long missCount;
+
+        /**
+         * The number of templates parsed.
+         */
+        private final long loadCount;
+
+        /**
+         * The number of templates evicted.
+         */
+        private final long evictionCount;
+
+        /**
+         * The total time spent to parse the templates in nanoseconds.
+         */
+        private final long loadTime;
+
+        /**
+         * The number of templates in memory.
+         */
+        private final int size;
+
+        /**
+         * Constructor.
+         *
+         * @param hitCount the number of researches of a template found in memory
+         * @param missCount the number of researches of a template not in memory
+         * @param loadCount the number of templates parsed
+         * @param evictionCount the number of templates evicted
+         * @param loadTime the total time spent to parse the templates in nanoseconds
+         * @param size the number of templates in memory
+         */
+        private Statistics(final long hitCount, final long missCount, final long loadCount, final long evictionCount,
+                final long loadTime, final int size) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadCount = loadCount;
+            this.evictionCount = evictionCount;
+            this.loadTime = loadTime;
+            this.size = size;
+        }
+
+        /**
+         * Returns the number of researches of a template found in memory.
+         *
+         * @return the number of hits
+         */
+        public long getHitCount() {
+            return this.hitCount;
+        }
+
+        /**
+         * Returns the number of researches of a template not in memory.
+         *
+         * @return the number of misses
+         */
+        public long getMissCount() {
+            return this.missCount;
+        }
+
+        /**
+         * Returns the number of templates parsed, including the ones parsed again after their eviction.
+         *
+         * @return the number of loads
+         */
+        public long getLoadCount() {
+            return this.loadCount;
+        }
+
+        /**
+         * Returns the number of templates evicted from memory.
+         *
+         * @return the number of evictions
+         */
+        public long getEvictionCount() {
+            return this.evictionCount;
+        }
+
+        /**
+         * Returns the total time spent to parse the templates.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getLoadTime() {
+            return this.loadTime;
+        }
+
+        /**
+         * Returns the number of templates in memory.
+         *
+         * @return the number of templates
+         */
+        public int getSize() {
+            return this.size;
+        }
+
+        /**
+         * Returns the ratio of researches of a template found in memory.
+         *
+         * @return the hit rate (1 if there is no research)
+         */
+        public double getHitRate() {
+            final long count = this.hitCount + this.missCount;
+            return count == 0 ? 1.0 : (double) this.hitCount / count;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics [hitCount=" + hitCount + ", missCount=" + missCount + ", loadCount=" + loadCount
+                    + ", evictionCount=" + evictionCount + ", loadTime=" + loadTime + ", size=" + size + "]";
+        }
+
+    }
+
+    /**
+     * A template in memory.
+     *
+     * @author c.fauch
+     *
+     */
+    private final class Entry {
+
+        /**
+         * The template file.
+         */
+        private final Path file;
+
+        /**
+         * The compiled instantiators by class of object.
+         */
+        private final Map<Class<?>, IInstantiator<?>> instantiators;
+
+        /**
+         * The root factory (null until parsed).
+         */
+        private volatile IContentFactory<?> factory;
+
+        /**
+         * Constructor.
+         *
+         * @param file the template file (not null)
+         */
+        private Entry(final Path file) {
+            this.file = file;
+            this.instantiators = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Returns the root factory, parsed on first call.
+         *
+         * @return the root factory
+         * @throws Exception if the template cannot be parsed
+         */
+        private IContentFactory<?> factory() throws Exception {
+            IContentFactory<?> current = this.factory;
+            if (current == null) {
+                synchronized (this) {
+                    current = this.factory;
+                    if (current == null) {
+                        final long start = System.nanoTime();
+                        current = Objects.requireNonNull(loader.load(this.file), "no template in " + this.file);
+                        loadTime.add(System.nanoTime() - start);
+                        loadCount.increment();
+                        this.factory = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        /**
+         * Returns the instantiator of a class, compiled on first call.
+         *
+         * @param <U> the class of object
+         * @param clss the class of object (not null)
+         * @return the instantiator
+         * @throws Exception if the template cannot be parsed or compiled
+         */
+        @SuppressWarnings("unchecked")
+        private <U extends IContent> IInstantiator<U> instantiator(final Class<U> clss) throws Exception {
+            final IInstantiator<?> instantiator = this.instantiators.get(clss);
+            if (instantiator != null) {
+                return (IInstantiator<U>) instantiator;
+            }
+            final IInstantiator<U> compiled = ((IContentFactory<IContent>) factory()).compile(clss);
+            final IInstantiator<?> previous = this.instantiators.putIfAbsent(clss, compiled);
+            return previous == null ? compiled : (IInstantiator<U>) previous;
+        }
+
+    }
+
+    /**
+     * The template files by name.
+     */
+    private final Map<String, Path> files;
+
+    /**
+     * The parser of the templates.
+     */
+    private final ITemplateLoader loader;
+
+    /**
+     * The maximum number of templates in memory.
+     */
+    private final int capacity;
+
+    /**
+     * The templates in memory, from the least recently used (guarded by itself).
+     */
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * Number of researches of a template found in memory.
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * Number of researches of a template not in memory.
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Number of templates parsed.
+     */
+    private final LongAdder loadCount = new LongAdder();
+
+    /**
+     * Number of templates evicted.
+     */
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Total time spent to parse the templates in nanoseconds.
+     */
+    private final LongAdder loadTime = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param files the template files by name (not null)
+     * @param loader the parser of the templates (not null)
+     * @param capacity the maximum number of templates in memory
+     */
+    private TemplateRegistry(final Map<String, Path> files, final ITemplateLoader loader, final int capacity) {
+        this.files = files;
+        this.loader = loader;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                if (size() > TemplateRegistry.this.capacity) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+
+        };
+    }
+
+    /**
+     * Indexes the template files of a directory and of its sub-directories.
+     *
+     * @param directory the directory of the templates (not null)
+     * @param extension the extension of the template files, like <code>.yml</code> (not null)
+     * @param loader the parser of the templates (not null)
+     * @param capacity the maximum number of templates in memory (strictly positive)
+     * @return the registry
+     * @throws IOException if the directory cannot be read
+     */
+    public static TemplateRegistry open(final Path directory, final String extension, final ITemplateLoader loader,
+            final int capacity) throws IOException {
+        Objects.requireNonNull(directory, "directory is missing");
+        Objects.requireNonNull(extension, "extension is missing");
+        Objects.requireNonNull(loader, "loader is missing");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be strictly positive: " + capacity);
+        }
+        final Map<String, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path file : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                final String relative = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                if (relative.endsWith(extension)) {
+                    files.put(relative.substring(0, relative.length() - extension.length()), file);
+                }
+            }
+        }
+        return new TemplateRegistry(Collections.unmodifiableMap(files), loader, capacity);
+    }
+
+    /**
+     * Returns the names of all the indexed templates.
+     *
+     * @return the names in alphabetical order (unmodifiable)
+     */
+    public Set<String> getNames() {
+        return this.files.keySet();
+    }
+
+    /**
+     * Returns the maximum number of templates in memory.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Returns the root factory of a template, parsed if it is not in memory.
+     *
+     * @param name the name of the template (not null)
+     * @return the root factory
+     * @throws IllegalArgumentException if there is no such template
+     * @throws Exception if the template cannot be parsed
+     */
+    public IContentFactory<?> getFactory(final String name) throws Exception {
+        return entry(name).factory();
+    }
+
+    /**
+     * Returns the instantiator of a class from a template, parsed and compiled if necessary.
+     *
+     * @param <U> the class of object
+     * @param name the name of the template (not null)
+     * @param clss the class of object to build (not null)
+     * @return the instantiator
+     * @throws IllegalArgumentException if there is no such template
+     * @throws Exception if the template cannot be parsed or compiled
+     */
+    public <U extends IContent> IInstantiator<U> getInstantiator(final String name, final Class<U> clss) throws Exception {
+        return entry(name).instantiator(Objects.requireNonNull(clss, "clss is missing"));
+    }
+
+    /**
+     * Builds a new object from a template.
+     *
+     * @param <U> the class of object
+     * @param name the name of the template (not null)
+     * @param clss the class of object to build (not null)
+     * @return the new object
+     * @throws IllegalArgumentException if there is no such template
+     * @throws Exception if the template cannot be parsed or compiled or if the object cannot be built
+     */
+    public <U extends IContent> U build(final String name, final Class<U> clss) throws Exception {
+        return getInstantiator(name, clss).newInstance();
+    }
+
+    /**
+     * Parses in parallel as many templates as the capacity allows, in alphabetical order.
+     * All the templates are parsed even if some of them fail.
+     *
+     * @return the number of templates parsed
+     * @throws Exception the failure of the first template that cannot be parsed, with the other failures suppressed
+     */
+    public int preload() throws Exception {
+        final List<String> names = new ArrayList<>(this.files.keySet()).subList(0, Math.min(this.capacity, this.files.size()));
+        final ConcurrentLinkedQueue<Exception> failures = new ConcurrentLinkedQueue<>();
+        names.parallelStream().forEach(name -> {
+            try {
+                getFactory(name);
+            } catch (Exception e) {
+                failures.add(e);
+            }
+        });
+        final Exception failure = failures.poll();
+        if (failure != null) {
+            for (Exception other : failures) {
+                failure.addSuppressed(other);
+            }
+            throw failure;
+        }
+        return names.size();
+    }
+
+    /**
+     * Remove all the templates from memory. They will be parsed again on next use.
+     */
+    public void clear() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Returns the current statistics of this registry.
+     *
+     * @return the statistics
+     */
+    public Statistics getStatistics() {
+        final int size;
+        synchronized (this.entries) {
+            size = this.entries.size();
+        }
+        return new Statistics(this.hitCount.sum(), this.missCount.sum(), this.loadCount.sum(),
+                this.evictionCount.sum(), this.loadTime.sum(), size);
+    }
+
+    /**
+     * Returns the entry of a template, added if it is not in memory.
+     *
+     * @param name the name of the template (not null)
+     * @return the entry
+     * @throws IllegalArgumentException if there is no such template
+     */
+    private Entry entry(final String name) {
+        final Path file = this.files.get(Objects.requireNonNull(name, "name is missing"));
+        if (file == null) {
+            throw new IllegalArgumentException("unknown template: " + name);
+        }
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(name);
+            if (entry != null) {
+                this.hitCount.increment();
+            } else {
+                this.missCount.increment();
+                entry = new Entry(file);
+                this.entries.put(name, entry);
+            }
+            return entry;
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import com.code.fauch.polyjuice.AbsContent;
+import com.code.fauch.polyjuice.IntParameter;
+import com.code.fauch.polyjuice.Parameter;
+
+/**
+ * Content bound by {@link BoundContentBinder}, except its property <code>extra</code>.
+ * 
+ * @author c.fauch
+ *
+ */
+@Template
+public class BoundContent extends AbsContent {
+
+    @Encoded(type = "INT")
+    private IntParameter msgSize;
+    
+    @Encoded(type = "STRING")
+    private Parameter<String> msg;
+    
+    private Parameter<Integer> extra;
+    
+    /**
+     * True if built by the binder.
+     */
+    boolean bound;
+
+    public IntParameter getMsgSize() {
+        return msgSize;
+    }
+
+    public void setMsgSize(IntParameter msgSize) {
+        this.msgSize = msgSize;
+    }
+
+    public Parameter<String> getMsg() {
+        return msg;
+    }
+
+    public void setMsg(Parameter<String> msg) {
+        this.msg = msg;
+    }
+
+    public Parameter<Integer> getExtra() {
+        return extra;
+    }
+
+    public void setExtra(Parameter<Integer> extra) {
+        this.extra = extra;
+    }
+    
+}
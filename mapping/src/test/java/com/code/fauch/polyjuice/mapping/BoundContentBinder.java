@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.lang.reflect.Type;
+
+import com.code.fauch.polyjuice.IntParameter;
+import com.code.fauch.polyjuice.Parameter;
+
+/**
+ * Binder of {@link BoundContent} written like a generated one, without its property <code>extra</code>.
+ * 
+ * @author c.fauch
+ *
+ */
+public final class BoundContentBinder implements IBinder<BoundContent> {
+
+    @Override
+    public BoundContent newInstance() {
+        final BoundContent content = new BoundContent();
+        content.bound = true;
+        return content;
+    }
+
+    @Override
+    public int indexOf(final String name) {
+        switch (name) {
+        case "msgSize":
+            return 0;
+        case "msg":
+            return 1;
+        default:
+            return -1;
+        }
+    }
+
+    @Override
+    public Class<?> getPropertyType(final int index) {
+        switch (index) {
+        case 0:
+            return IntParameter.class;
+        case 1:
+            return Parameter.class;
+        default:
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+
+    @Override
+    public Type[] getGenericTypes(final int index) {
+        switch (index) {
+        case 0:
+            return new Type[0];
+        case 1:
+            return new Type[] {String.class};
+        default:
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void set(final BoundContent target, final int index, final Object value) {
+        switch (index) {
+        case 0:
+            target.setMsgSize((IntParameter) value);
+            break;
+        case 1:
+            target.setMsg((Parameter<String>) value);
+            break;
+        default:
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+
+}
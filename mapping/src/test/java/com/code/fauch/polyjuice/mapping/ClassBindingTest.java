@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.beans.IntrospectionException;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.code.fauch.polyjuice.IntParameter;
+import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.StdType;
+import com.code.fauch.polyjuice.mapping.internal.InternalContent;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class ClassBindingTest {
+
+    @Test
+    public void testCachedBinding() throws Exception {
+        final ClassBinding binding = ClassBinding.of(CompositeContent.class);
+        Assert.assertSame(binding, ClassBinding.of(CompositeContent.class));
+        final ClassBinding.Property size = binding.property("size");
+        Assert.assertSame(size, binding.property("size"));
+        Assert.assertEquals(Parameter.class, size.getType());
+        Assert.assertArrayEquals(new Object[] {Integer.class}, size.getGenericTypes());
+    }
+
+    @Test
+    public void testNewInstanceAndSet() throws Exception {
+        final ClassBinding binding = ClassBinding.of(CompositeContent.class);
+        final CompositeContent content = (CompositeContent) binding.newInstance();
+        final Parameter<Integer> size = Parameter.newParameter("size", StdType.INT, 3, false);
+        binding.property("size").set(content, size);
+        Assert.assertSame(size, content.getSize());
+    }
+
+    @Test
+    public void testNotExportedPackage() throws Exception {
+        final ClassBinding binding = ClassBinding.of(InternalContent.class);
+        final InternalContent content = (InternalContent) binding.newInstance();
+        final Parameter<Integer> size = Parameter.newParameter("size", StdType.INT, 3, false);
+        binding.property("size").set(content, size);
+        Assert.assertSame(size, content.getSize());
+    }
+
+    @Test(expected = IntrospectionException.class)
+    public void testUnknownProperty() throws Exception {
+        ClassBinding.of(CompositeContent.class).property("unknown");
+    }
+
+    @Test(expected = NoSuchMethodException.class)
+    public void testNoConstructor() throws Exception {
+        ClassBinding.of(Parameter.class).newInstance();
+    }
+
+    @Test
+    public void testBinder() throws Exception {
+        final ClassBinding binding = ClassBinding.of(BoundContent.class);
+        Assert.assertTrue(((BoundContent) binding.newInstance()).bound);
+        Assert.assertEquals(IntParameter.class, binding.property("msgSize").getType());
+        Assert.assertArrayEquals(new Object[] {String.class}, binding.property("msg").getGenericTypes());
+        Assert.assertArrayEquals(new Object[] {Integer.class}, binding.property("extra").getGenericTypes());
+    }
+
+    @Test
+    public void testBuildWithBinder() throws Exception {
+        final ObjectFactory factory = new ObjectFactory();
+        final ParameterFactory pf1 = new ParameterFactory();
+        final ParameterFactory pf2 = new ParameterFactory();
+        final ParameterFactory pf3 = new ParameterFactory();
+        factory.setContents(Arrays.asList(pf1, pf2, pf3));
+        pf1.setName("msgSize");
+        pf1.setType("INT");
+        pf1.setValue(2);
+        pf2.setName("msg");
+        pf2.setType("STRING");
+        pf2.setValue("no");
+        pf3.setName("extra");
+        pf3.setType("INT");
+        final BoundContent content = factory.build(BoundContent.class);
+        Assert.assertTrue(content.bound);
+        Assert.assertEquals(2, content.getMsgSize().getInt());
+        Assert.assertEquals("no", content.getMsg().getValue());
+        Assert.assertArrayEquals(new byte[] {0, 0, 0, 2, 'n', 'o', 0, 0, 0, 0}, content.getBytes());
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void testBinderWrongValue() throws Exception {
+        ClassBinding.of(BoundContent.class).property("msgSize").set(new BoundContent(),
+                Parameter.newParameter("msgSize", StdType.INT, 3, false));
+    }
+
+}
@@ -51,4 +51,17 @@ public class DynamicArrayFactoryTest {
         }
     }
 
+    @Test
+    public void testCompile() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/array-content-template.yml")) {
+            final ObjectFactory factory = new Yaml().load(in);
+            final IInstantiator<CompositeArrayContent> instantiator = factory.compile(CompositeArrayContent.class);
+            final CompositeArrayContent first = instantiator.newInstance();
+            final CompositeArrayContent second = instantiator.newInstance();
+            Assert.assertEquals(1, second.getElts().size());
+            Assert.assertNotSame(first.getElts(), second.getElts());
+            Assert.assertArrayEquals(first.getBytes(), second.getBytes());
+        }
+    }
+
 }
@@ -17,6 +17,7 @@ package com.code.fauch.polyjuice.mapping;
 import java.io.InputStream;
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.stream.IntStream;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -79,5 +80,38 @@ public class ObjectFactoryTest {
             Assert.assertEquals("HELLO WORLD !", truc.getMsg().getValue());
        }
     }
+
+    @Test
+    public void testCompile() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/composite-content-template.yml")) {
+            final ObjectFactory factory = new Yaml().load(in);
+            final IInstantiator<CompositeContent> instantiator = factory.compile(CompositeContent.class);
+            factory.setContents(null);
+            final CompositeContent first = instantiator.newInstance();
+            final CompositeContent second = instantiator.newInstance();
+            Assert.assertNotSame(first.getSubContent(), second.getSubContent());
+            Assert.assertNotSame(first.getSize(), second.getSize());
+            Assert.assertEquals(Duration.ofHours(-12), second.getClock().getValue().getInformation());
+            Assert.assertEquals("HELLO WORLD !", second.getSubContent().getMsg().getValue());
+            first.getSubContent().getMsg().setValue("changed");
+            Assert.assertEquals("HELLO WORLD !", second.getSubContent().getMsg().getValue());
+        }
+    }
     
+    @Test
+    public void testCompileConcurrently() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/simple-content-template.yml")) {
+            final ObjectFactory factory = new Yaml().load(in);
+            final IInstantiator<SimpleContent> instantiator = factory.compile(SimpleContent.class);
+            final long count = IntStream.range(0, 1000).parallel().mapToObj(i -> {
+                try {
+                    return instantiator.newInstance();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).filter(s -> s.getMsgSize().getValue() == 13).count();
+            Assert.assertEquals(1000, count);
+        }
+    }
+
 }
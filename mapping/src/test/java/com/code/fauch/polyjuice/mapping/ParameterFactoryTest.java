@@ -20,7 +20,9 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.yaml.snakeyaml.Yaml;
 
+import com.code.fauch.polyjuice.IntParameter;
 import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.ShortParameter;
 import com.code.fauch.polyjuice.StdType;
 
 /**
@@ -53,4 +55,23 @@ public class ParameterFactoryTest {
         }
     }
 
+    @Test
+    public void testPrimitiveFromYaml() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/simple-parameter-template.yml")) {
+            final ParameterFactory payload = new Yaml().load(in);
+            final IntParameter param = payload.build(IntParameter.class);
+            Assert.assertEquals("msgSize", param.getLabel());
+            Assert.assertEquals(13, param.getInt());
+            Assert.assertFalse(param.isReadOnly());
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrimitiveWrongType() throws Exception {
+        final ParameterFactory factory = new ParameterFactory();
+        factory.setName("size");
+        factory.setType("INT");
+        factory.build(ShortParameter.class);
+    }
+
 }
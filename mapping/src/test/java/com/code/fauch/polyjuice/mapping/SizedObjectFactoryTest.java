@@ -22,6 +22,8 @@ import org.junit.Test;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
 
+import com.code.fauch.polyjuice.Layout;
+
 /**
  * @author c.fauch
  *
@@ -57,5 +59,29 @@ public class SizedObjectFactoryTest {
             Assert.assertEquals(10, content.getExpectedSize().intValue());
         }
     }
-    
+
+    @Test
+    public void testLayoutFromYaml() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/fixedsize-content-template.yml")) {
+            final SizedObjectFactory factory = new Yaml(new Constructor(SizedObjectFactory.class)).load(in);
+            final Layout layout = factory.layout(FixedSizeContent.class);
+            Assert.assertEquals(10, layout.size());
+            Assert.assertEquals(0, layout.getField("msgSize").getOffset());
+            Assert.assertEquals(4, layout.getField("msg").getOffset());
+            Assert.assertEquals(6, layout.getField("msg").getLength());
+        }
+    }
+
+    @Test
+    public void testCompile() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/fixedsize-content-template.yml")) {
+            final SizedObjectFactory factory = new Yaml(new Constructor(SizedObjectFactory.class)).load(in);
+            final IInstantiator<FixedSizeContent> instantiator = factory.compile(FixedSizeContent.class);
+            factory.setSize(20);
+            final FixedSizeContent content = instantiator.newInstance();
+            Assert.assertEquals(10, content.getExpectedSize().intValue());
+            Assert.assertEquals("HELLO WORLD !", content.getMsg().getValue());
+        }
+    }
+
 }
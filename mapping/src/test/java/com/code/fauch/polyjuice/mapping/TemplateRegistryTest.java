@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.mapping;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class TemplateRegistryTest {
+
+    private static final ITemplateLoader YAML = file -> {
+        try (InputStream in = Files.newInputStream(file)) {
+            return new Yaml().load(in);
+        }
+    };
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = this.folder.getRoot().toPath();
+        Files.createDirectories(this.directory.resolve("sub"));
+        copy("/simple-content-template.yml", "simple.yml");
+        copy("/composite-content-template.yml", "composite.yml");
+        copy("/array-content-template.yml", "sub/array.yml");
+        Files.writeString(this.directory.resolve("readme.txt"), "not a template");
+    }
+
+    private void copy(final String resource, final String file) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream(resource)) {
+            Files.copy(in, this.directory.resolve(file));
+        }
+    }
+
+    @Test
+    public void testIndex() throws IOException {
+        final TemplateRegistry registry = TemplateRegistry.open(this.directory, ".yml", YAML, 2);
+        Assert.assertEquals(Set.of("composite", "simple", "sub/array"), registry.getNames());
+        Assert.assertEquals(0, registry.getStatistics().getSize());
+    }
+
+    @Test
+    public void testLazyLoading() throws Exception {
+        final TemplateRegistry registry = TemplateRegistry.open(this.directory, ".yml", YAML, 2);
+        final SimpleContent first = registry.build("simple", SimpleContent.class);
+        final SimpleContent second = registry.build("simple", SimpleContent.class);
+        Assert.assertNotSame(first.getMsg(), second.getMsg());
+        Assert.assertEquals("HELLO WORLD !", second.getMsg().getValue());
+        Assert.assertSame(registry.getInstantiator("simple", SimpleContent.class),
+                registry.getInstantiator("simple", SimpleContent.class));
+        final TemplateRegistry.Statistics statistics = registry.getStatistics();
+        Assert.assertEquals(1, statistics.getLoadCount());
+        Assert.assertEquals(1, statistics.getMissCount());
+        Assert.assertEquals(3, statistics.getHitCount());
+        Assert.assertEquals(1, statistics.getSize());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        final TemplateRegistry registry = TemplateRegistry.open(this.directory, ".yml", YAML, 2);
+        registry.getFactory("simple");
+        registry.getFactory("composite");
+        registry.getFactory("simple");
+        registry.build("sub/array", CompositeArrayContent.class);
+        Assert.assertEquals(1, registry.getStatistics().getEvictionCount());
+        registry.getFactory("simple");
+        Assert.assertEquals(3, registry.getStatistics().getLoadCount());
+        registry.getFactory("composite");
+        final TemplateRegistry.Statistics statistics = registry.getStatistics();
+        Assert.assertEquals(4, statistics.getLoadCount());
+        Assert.assertEquals(2, statistics.getEvictionCount());
+        Assert.assertEquals(2, statistics.getSize());
+    }
+
+    @Test
+    public void testPreload() throws Exception {
+        final TemplateRegistry registry = TemplateRegistry.open(this.directory, ".yml", YAML, 5);
+        Assert.assertEquals(3, registry.preload());
+        Assert.assertEquals(3, registry.getStatistics().getLoadCount());
+        registry.build("composite", CompositeContent.class);
+        Assert.assertEquals(3, registry.getStatistics().getLoadCount());
+        registry.clear();
+        registry.getFactory("composite");
+        Assert.assertEquals(4, registry.getStatistics().getLoadCount());
+    }
+
+    @Test
+    public void testLoadFailure() throws Exception {
+        Files.writeString(this.directory.resolve("broken.yml"), "!!unknown.Factory {}");
+        final TemplateRegistry registry = TemplateRegistry.open(this.directory, ".yml", YAML, 5);
+        try {
+            registry.preload();
+            Assert.fail("the broken template must not be loaded");
+        } catch (Exception e) {
+            Assert.assertEquals(0, e.getSuppressed().length);
+        }
+        Assert.assertEquals(3, registry.getStatistics().getLoadCount());
+        Assert.assertNotNull(registry.getFactory("simple"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownTemplate() throws Exception {
+        TemplateRegistry.open(this.directory, ".yml", YAML, 2).getFactory("unknown");
+    }
+
+}
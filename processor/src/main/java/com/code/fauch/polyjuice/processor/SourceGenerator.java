@@ -0,0 +1,329 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.processor;
+
+import java.util.Iterator;
+import java.util.List;
+
+import com.code.fauch.polyjuice.IDoubleType;
+import com.code.fauch.polyjuice.IFloatType;
+import com.code.fauch.polyjuice.IIntType;
+import com.code.fauch.polyjuice.ILongType;
+import com.code.fauch.polyjuice.IShortType;
+import com.code.fauch.polyjuice.IType;
+
+/**
+ * Generates the sources of the binder and of the codec of a {@link TemplateModel}.
+ * <p>
+ * The generated code only uses canonical names so that it does not depend on the imports.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+final class SourceGenerator {
+
+    /**
+     * Suffix of the name of the generated codecs.
+     */
+    static final String CODEC = "Codec";
+
+    /**
+     * Indentation.
+     */
+    private static final String INDENT = "    ";
+
+    /**
+     * The described class.
+     */
+    private final TemplateModel model;
+
+    /**
+     * The generated source.
+     */
+    private final StringBuilder source;
+
+    /**
+     * Constructor.
+     *
+     * @param model the described class (not null)
+     */
+    SourceGenerator(final TemplateModel model) {
+        this.model = model;
+        this.source = new StringBuilder();
+    }
+
+    /**
+     * Generates the source of the binder.
+     *
+     * @param name the simple name of the binder (not null)
+     * @return the source
+     */
+    String binder(final String name) {
+        final String type = this.model.getClassName();
+        final List<TemplateModel.Property> properties = this.model.getProperties();
+        this.source.setLength(0);
+        header(name, "Binder of {@link " + type + "}.");
+        line(0, "public final class %s implements com.code.fauch.polyjuice.mapping.IBinder<%s> {", name, type);
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public %s newInstance() {", type);
+        line(2, "return new %s();", type);
+        line(1, "}");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public int indexOf(final String name) {");
+        line(2, "switch (name) {");
+        for (int i = 0; i < properties.size(); i++) {
+            line(2, "case \"%s\":", properties.get(i).getName());
+            line(3, "return %d;", i);
+        }
+        line(2, "default:");
+        line(3, "return -1;");
+        line(2, "}");
+        line(1, "}");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public Class<?> getPropertyType(final int index) {");
+        line(2, "switch (index) {");
+        for (int i = 0; i < properties.size(); i++) {
+            line(2, "case %d:", i);
+            line(3, "return %s.class;", properties.get(i).getRawType());
+        }
+        outOfBounds();
+        line(1, "}");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public java.lang.reflect.Type[] getGenericTypes(final int index) {");
+        line(2, "switch (index) {");
+        for (int i = 0; i < properties.size(); i++) {
+            final StringBuilder arguments = new StringBuilder();
+            for (final Iterator<String> it = properties.get(i).getTypeArguments().iterator(); it.hasNext();) {
+                arguments.append(it.next()).append(".class").append(it.hasNext() ? ", " : "");
+            }
+            line(2, "case %d:", i);
+            line(3, "return new java.lang.reflect.Type[] {%s};", arguments);
+        }
+        outOfBounds();
+        line(1, "}");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "@SuppressWarnings(\"unchecked\")");
+        line(1, "public void set(final %s target, final int index, final Object value) {", type);
+        line(2, "switch (index) {");
+        for (int i = 0; i < properties.size(); i++) {
+            final TemplateModel.Property property = properties.get(i);
+            line(2, "case %d:", i);
+            line(3, "target.%s((%s) value);", property.getSetter(), property.getDeclaredType());
+            line(3, "break;");
+        }
+        outOfBounds();
+        line(1, "}");
+        line(0, "");
+        line(0, "}");
+        return this.source.toString();
+    }
+
+    /**
+     * Generates the source of the codec.
+     *
+     * @param name the simple name of the codec (not null)
+     * @return the source
+     */
+    String codec(final String name) {
+        final String type = this.model.getClassName();
+        final List<TemplateModel.Property> properties = this.model.getProperties();
+        this.source.setLength(0);
+        header(name, "Straight-line encoding and decoding of {@link " + type + "}.\n"
+                + " * <p>\n"
+                + " * The contents are encoded in declaration order, without the cache of the encoded bytes.\n"
+                + " * The offsets are only valid if all the contents are set with their declared type.\n"
+                + " * </p>");
+        line(0, "public final class %s {", name);
+        line(0, "");
+        javadoc(1, "Size in bytes of the encoded content (-1 if not fixed).");
+        line(1, "public static final int SIZE = %d;", this.model.getSize());
+        for (TemplateModel.Property property : properties) {
+            if (property.getOffset() != TemplateModel.UNKNOWN) {
+                line(0, "");
+                javadoc(1, "Offset of <code>" + property.getName() + "</code> in the encoded content.");
+                line(1, "public static final int %s_OFFSET = %d;", property.getConstant(), property.getOffset());
+            }
+            if (property.getWidth() != IType.VARIABLE_SIZE) {
+                line(0, "");
+                javadoc(1, "Number of bytes of <code>" + property.getName() + "</code> in the encoded content.");
+                line(1, "public static final int %s_WIDTH = %d;", property.getConstant(), property.getWidth());
+            }
+            final String[] primitive = primitive(property);
+            if (primitive != null) {
+                line(0, "");
+                javadoc(1, "Type of <code>" + property.getName() + "</code>.");
+                line(1, "private static final %s %s_TYPE = (%s) com.code.fauch.polyjuice.spi.Providers.<%s>getTypeInstance(\"%s\");",
+                        primitive[0], property.getConstant(), primitive[0], primitive[3], property.getTypeName());
+            }
+        }
+        line(0, "");
+        javadoc(1, "No constructor.");
+        line(1, "private %s() {", name);
+        line(2, "// Nothing to do");
+        line(1, "}");
+        line(0, "");
+        javadoc(1, "Encode each content directly into the given buffer.\n"
+                + INDENT + " *\n"
+                + INDENT + " * @param content the content to encode (not null)\n"
+                + INDENT + " * @param buffer the buffer to write into (not null)");
+        line(1, "public static void writeTo(final %s content, final java.nio.ByteBuffer buffer) {", type);
+        forEachContent("%s.writeTo(buffer);");
+        line(1, "}");
+        line(0, "");
+        javadoc(1, "Decode each content one after the other from the given buffer.\n"
+                + INDENT + " *\n"
+                + INDENT + " * @param content the content to decode (not null)\n"
+                + INDENT + " * @param buffer the buffer to read from (not null)");
+        line(1, "public static void readFrom(final %s content, final java.nio.ByteBuffer buffer) {", type);
+        forEachContent("%s.readFrom(buffer);");
+        line(1, "}");
+        line(0, "");
+        javadoc(1, "Sum of the sizes of each content.\n"
+                + INDENT + " *\n"
+                + INDENT + " * @param content the content (not null)\n"
+                + INDENT + " * @return the size in bytes of the encoded content");
+        line(1, "public static int encodedSize(final %s content) {", type);
+        line(2, "int size = 0;");
+        forEachContent("size += %s.encodedSize();");
+        line(2, "return size;");
+        line(1, "}");
+        for (TemplateModel.Property property : properties) {
+            final String[] primitive = primitive(property);
+            if (primitive != null) {
+                line(0, "");
+                javadoc(1, "Decode <code>" + property.getName() + "</code> directly from an encoded content.\n"
+                        + INDENT + " *\n"
+                        + INDENT + " * @param frame the buffer holding the encoded content (not null)\n"
+                        + INDENT + " * @param offset the offset of the encoded content in the buffer\n"
+                        + INDENT + " * @return the value");
+                line(1, "public static %s %s(final java.nio.ByteBuffer frame, final int offset) {", primitive[1],
+                        property.getGetter());
+                line(2, "return %s_TYPE.%s(frame.duplicate().position(offset + %s_OFFSET));", property.getConstant(),
+                        primitive[2], property.getConstant());
+                line(1, "}");
+            }
+        }
+        line(0, "");
+        line(0, "}");
+        return this.source.toString();
+    }
+
+    /**
+     * Generates the header of a class: its package and its documentation.
+     *
+     * @param name the simple name of the class (not null)
+     * @param doc the first lines of documentation (not null)
+     */
+    private void header(final String name, final String doc) {
+        if (!this.model.getPackageName().isEmpty()) {
+            line(0, "package %s;", this.model.getPackageName());
+            line(0, "");
+        }
+        line(0, "/**");
+        line(0, " * %s", doc);
+        line(0, " * <p>");
+        line(0, " * Generated by {@code %s}: do not edit.", TemplateProcessor.class.getName());
+        line(0, " * </p>");
+        line(0, " */");
+    }
+
+    /**
+     * Generates the default case of a switch on the index of a property.
+     */
+    private void outOfBounds() {
+        line(2, "default:");
+        line(3, "throw new IndexOutOfBoundsException(index);");
+        line(2, "}");
+    }
+
+    /**
+     * Generates a statement for each content that is not null.
+     *
+     * @param statement the format of the statement taking the content (not null)
+     */
+    private void forEachContent(final String statement) {
+        final List<TemplateModel.Property> properties = this.model.getProperties();
+        for (int i = 0; i < properties.size(); i++) {
+            final TemplateModel.Property property = properties.get(i);
+            line(2, "final %s c%d = content.%s();", property.getDeclaredType(), i, property.getGetter());
+            line(2, "if (c%d != null) {", i);
+            line(3, statement, "c" + i);
+            line(2, "}");
+        }
+    }
+
+    /**
+     * Generates a javadoc comment.
+     *
+     * @param level the indentation level
+     * @param doc the lines of documentation (not null)
+     */
+    private void javadoc(final int level, final String doc) {
+        line(level, "/**");
+        line(level, " * %s", doc);
+        line(level, " */");
+    }
+
+    /**
+     * Append a line.
+     *
+     * @param level the indentation level
+     * @param format the format of the line (not null)
+     * @param args the arguments of the format
+     */
+    private void line(final int level, final String format, final Object... args) {
+        for (int i = 0; i < level; i++) {
+            this.source.append(INDENT);
+        }
+        this.source.append(args.length == 0 ? format : String.format(format, args)).append('\n');
+    }
+
+    /**
+     * Returns how to decode a property without boxing from an encoded content.
+     *
+     * @param property the property (not null)
+     * @return the name of the type interface, the primitive class, the decoding method and the boxed class,
+     * or null if the property cannot be decoded so
+     */
+    private static String[] primitive(final TemplateModel.Property property) {
+        final IType<?> type = property.getType();
+        if (property.getOffset() == TemplateModel.UNKNOWN || property.getWidth() == IType.VARIABLE_SIZE) {
+            return null;
+        }
+        if (type instanceof IShortType) {
+            return new String[] {IShortType.class.getName(), "short", "decodeShort", "Short"};
+        }
+        if (type instanceof IIntType) {
+            return new String[] {IIntType.class.getName(), "int", "decodeInt", "Integer"};
+        }
+        if (type instanceof ILongType) {
+            return new String[] {ILongType.class.getName(), "long", "decodeLong", "Long"};
+        }
+        if (type instanceof IFloatType) {
+            return new String[] {IFloatType.class.getName(), "float", "decodeFloat", "Float"};
+        }
+        if (type instanceof IDoubleType) {
+            return new String[] {IDoubleType.class.getName(), "double", "decodeDouble", "Double"};
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.processor;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.code.fauch.polyjuice.IType;
+
+/**
+ * Description of a {@link com.code.fauch.polyjuice.mapping.Template} class, computed from its source:
+ * its encoded properties in declaration order with their position in the encoded content.
+ *
+ * @author c.fauch
+ *
+ */
+final class TemplateModel {
+
+    /**
+     * Offset of a property whose position is unknown.
+     */
+    static final int UNKNOWN = -1;
+
+    /**
+     * An encoded property.
+     *
+     * @author c.fauch
+     *
+     */
+    static final class Property {
+
+        /**
+         * The name of the property.
+         */
+        private final String name;
+
+        /**
+         * The canonical name of the declared class of the property, with its type arguments.
+         */
+        private final String declaredType;
+
+        /**
+         * The canonical name of the erasure of the property.
+         */
+        private final String rawType;
+
+        /**
+         * The canonical names of the erasures of the type arguments of the property.
+         */
+        private final List<String> typeArguments;
+
+        /**
+         * The type of the parameter declared by {@link com.code.fauch.polyjuice.mapping.Encoded} (may be null).
+         */
+        private final IType<?> type;
+
+        /**
+         * The name of the type (may be null).
+         */
+        private final String typeName;
+
+        /**
+         * The offset of the property in the encoded content ({@link TemplateModel#UNKNOWN} if unknown).
+         */
+        private final int offset;
+
+        /**
+         * Constructor.
+         *
+         * @param name the name of the property (not null)
+         * @param declaredType the declared class with its type arguments (not null)
+         * @param rawType the erasure (not null)
+         * @param typeArguments the erasures of the type arguments (not null)
+         * @param typeName the name of the declared type (may be null)
+         * @param type the declared type (may be null)
+         * @param offset the offset or {@link TemplateModel#UNKNOWN}
+         */
+        Property(final String name, final String declaredType, final String rawType, final List<String> typeArguments,
+                final String typeName, final IType<?> type, final int offset) {
+            this.name = name;
+            this.declaredType = declaredType;
+            this.rawType = rawType;
+            this.typeArguments = Collections.unmodifiableList(typeArguments);
+            this.typeName = typeName;
+            this.type = type;
+            this.offset = offset;
+        }
+
+        /**
+         * Returns the name of the property.
+         *
+         * @return the name
+         */
+        String getName() {
+            return this.name;
+        }
+
+        /**
+         * Returns the name of the getter of the property.
+         *
+         * @return the name of the getter
+         */
+        String getGetter() {
+            return accessor("get", this.name);
+        }
+
+        /**
+         * Returns the name of the setter of the property.
+         *
+         * @return the name of the setter
+         */
+        String getSetter() {
+            return accessor("set", this.name);
+        }
+
+        /**
+         * Returns the canonical name of the declared class of the property, with its type arguments.
+         *
+         * @return the declared type
+         */
+        String getDeclaredType() {
+            return this.declaredType;
+        }
+
+        /**
+         * Returns the canonical name of the erasure of the property.
+         *
+         * @return the raw type
+         */
+        String getRawType() {
+            return this.rawType;
+        }
+
+        /**
+         * Returns the canonical names of the erasures of the type arguments of the property.
+         *
+         * @return the type arguments (unmodifiable)
+         */
+        List<String> getTypeArguments() {
+            return this.typeArguments;
+        }
+
+        /**
+         * Returns the name of the type declared for the parameter.
+         *
+         * @return the name of the type or null if not declared
+         */
+        String getTypeName() {
+            return this.typeName;
+        }
+
+        /**
+         * Returns the type declared for the parameter.
+         *
+         * @return the type or null if not declared
+         */
+        IType<?> getType() {
+            return this.type;
+        }
+
+        /**
+         * Returns the offset of the property in the encoded content.
+         *
+         * @return the offset or {@link TemplateModel#UNKNOWN}
+         */
+        int getOffset() {
+            return this.offset;
+        }
+
+        /**
+         * Returns the number of bytes of the encoded property.
+         *
+         * @return the width or {@link IType#VARIABLE_SIZE} if not fixed
+         */
+        int getWidth() {
+            return this.type == null ? IType.VARIABLE_SIZE : this.type.fixedSize();
+        }
+
+        /**
+         * Returns the name of the constants of this property in the generated codec
+         * (<code>MSG_SIZE</code> for <code>msgSize</code>).
+         *
+         * @return the name of the constants
+         */
+        String getConstant() {
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < this.name.length(); i++) {
+                final char c = this.name.charAt(i);
+                if (Character.isUpperCase(c) && i > 0) {
+                    builder.append('_');
+                }
+                builder.append(Character.toUpperCase(c));
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Returns the name of an accessor of a property.
+         *
+         * @param prefix the prefix of the accessor (not null)
+         * @param name the name of the property (not null)
+         * @return the name of the accessor
+         */
+        private static String accessor(final String prefix, final String name) {
+            return prefix + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+
+    }
+
+    /**
+     * The name of the package (empty for the unnamed package).
+     */
+    private final String packageName;
+
+    /**
+     * The canonical name of the class.
+     */
+    private final String className;
+
+    /**
+     * The prefix of the names of the generated classes.
+     */
+    private final String prefix;
+
+    /**
+     * True if the codec is generated.
+     */
+    private final boolean withCodec;
+
+    /**
+     * The encoded properties in declaration order.
+     */
+    private final List<Property> properties;
+
+    /**
+     * Constructor.
+     *
+     * @param packageName the name of the package (not null)
+     * @param className the canonical name of the class (not null)
+     * @param prefix the prefix of the names of the generated classes (not null)
+     * @param withCodec true to generate the codec
+     * @param properties the encoded properties in declaration order (not null)
+     */
+    TemplateModel(final String packageName, final String className, final String prefix, final boolean withCodec,
+            final List<Property> properties) {
+        this.packageName = packageName;
+        this.className = className;
+        this.prefix = prefix;
+        this.withCodec = withCodec;
+        this.properties = Collections.unmodifiableList(properties);
+    }
+
+    /**
+     * Returns the name of the package.
+     *
+     * @return the name of the package (empty for the unnamed package)
+     */
+    String getPackageName() {
+        return this.packageName;
+    }
+
+    /**
+     * Returns the canonical name of the class.
+     *
+     * @return the name of the class
+     */
+    String getClassName() {
+        return this.className;
+    }
+
+    /**
+     * Returns the simple name of a generated class.
+     *
+     * @param suffix the suffix of the generated class (not null)
+     * @return the simple name
+     */
+    String getGeneratedName(final String suffix) {
+        return this.prefix + suffix;
+    }
+
+    /**
+     * Returns true if the codec is generated.
+     *
+     * @return true to generate the codec
+     */
+    boolean isWithCodec() {
+        return this.withCodec;
+    }
+
+    /**
+     * Returns the encoded properties in declaration order.
+     *
+     * @return the properties (unmodifiable)
+     */
+    List<Property> getProperties() {
+        return this.properties;
+    }
+
+    /**
+     * Returns the size in bytes of the encoded content.
+     *
+     * @return the size or {@link IType#VARIABLE_SIZE} if not fixed
+     */
+    int getSize() {
+        int size = 0;
+        for (Property property : this.properties) {
+            if (property.getWidth() == IType.VARIABLE_SIZE) {
+                return IType.VARIABLE_SIZE;
+            }
+            size += property.getWidth();
+        }
+        return size;
+    }
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import com.code.fauch.polyjuice.AbsFixedSizeContent;
+import com.code.fauch.polyjuice.DoubleParameter;
+import com.code.fauch.polyjuice.FloatParameter;
+import com.code.fauch.polyjuice.IContent;
+import com.code.fauch.polyjuice.IDoubleType;
+import com.code.fauch.polyjuice.IFloatType;
+import com.code.fauch.polyjuice.IIntType;
+import com.code.fauch.polyjuice.ILongType;
+import com.code.fauch.polyjuice.IObject;
+import com.code.fauch.polyjuice.IShortType;
+import com.code.fauch.polyjuice.IType;
+import com.code.fauch.polyjuice.IntParameter;
+import com.code.fauch.polyjuice.LongParameter;
+import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.ShortParameter;
+import com.code.fauch.polyjuice.mapping.Encoded;
+import com.code.fauch.polyjuice.mapping.IBinder;
+import com.code.fauch.polyjuice.mapping.Template;
+import com.code.fauch.polyjuice.spi.ITypeProvider;
+
+/**
+ * Annotation processor generating the binder and the codec of each {@link Template} class.
+ * <p>
+ * The types declared with {@link Encoded} are resolved by the type providers found on the path
+ * of the processor. No codec is generated for a fixed-size content, whose encoding depends on its
+ * expected size.
+ * </p>
+ *
+ * @author c.fauch
+ *
+ */
+public final class TemplateProcessor extends AbstractProcessor {
+
+    /**
+     * The classes of primitive-specialized parameters with the class of type they require.
+     */
+    private static final Map<String, Class<?>> PRIMITIVE_PARAMETERS = Map.of(
+            ShortParameter.class.getName(), IShortType.class,
+            IntParameter.class.getName(), IIntType.class,
+            LongParameter.class.getName(), ILongType.class,
+            FloatParameter.class.getName(), IFloatType.class,
+            DoubleParameter.class.getName(), IDoubleType.class);
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(Template.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Template.class)) {
+            final TemplateModel model = analyze(element);
+            if (model != null) {
+                generate(model, element);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Describe an annotated class.
+     *
+     * @param element the annotated element (not null)
+     * @return the description or null if the class is not valid (errors are reported)
+     */
+    private TemplateModel analyze(final Element element) {
+        final Types types = this.processingEnv.getTypeUtils();
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) {
+            return error("@Template requires a concrete class", element);
+        }
+        final TypeElement clss = (TypeElement) element;
+        if (clss.getModifiers().contains(Modifier.PRIVATE) || clss.getNestingKind() == NestingKind.LOCAL
+                || clss.getNestingKind() == NestingKind.ANONYMOUS
+                || clss.getNestingKind() == NestingKind.MEMBER && !clss.getModifiers().contains(Modifier.STATIC)) {
+            return error("@Template requires a top-level or a static nested class not private", element);
+        }
+        if (!types.isAssignable(clss.asType(), erasure(IObject.class))) {
+            return error("@Template requires an implementation of " + IObject.class.getName(), element);
+        }
+        if (!hasPublicConstructor(clss)) {
+            return error("@Template requires a public constructor without parameters", element);
+        }
+        final List<TemplateModel.Property> properties = new ArrayList<>();
+        int offset = 0;
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(clss.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC) || !types.isAssignable(types.erasure(field.asType()),
+                    erasure(IContent.class))) {
+                continue;
+            }
+            final TemplateModel.Property property = analyze(clss, field, offset);
+            if (property == null) {
+                valid = false;
+                continue;
+            }
+            properties.add(property);
+            offset = property.getOffset() == TemplateModel.UNKNOWN || property.getWidth() == IType.VARIABLE_SIZE
+                    ? TemplateModel.UNKNOWN : property.getOffset() + property.getWidth();
+        }
+        if (!valid) {
+            return null;
+        }
+        final String packageName = this.processingEnv.getElementUtils().getPackageOf(clss).getQualifiedName().toString();
+        final String binaryName = this.processingEnv.getElementUtils().getBinaryName(clss).toString();
+        final String prefix = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_');
+        return new TemplateModel(packageName, clss.getQualifiedName().toString(), prefix,
+                !types.isAssignable(clss.asType(), erasure(AbsFixedSizeContent.class)), properties);
+    }
+
+    /**
+     * Describe an encoded property.
+     *
+     * @param clss the annotated class (not null)
+     * @param field the field of the property (not null)
+     * @param offset the offset of the property or {@link TemplateModel#UNKNOWN}
+     * @return the description or null if the property is not valid (errors are reported)
+     */
+    private TemplateModel.Property analyze(final TypeElement clss, final VariableElement field, final int offset) {
+        final Types types = this.processingEnv.getTypeUtils();
+        final String name = field.getSimpleName().toString();
+        final TemplateModel.Property named = new TemplateModel.Property(name, "", "", List.of(), null, null, offset);
+        final ExecutableElement getter = findMethod(clss, named.getGetter(), 0);
+        final ExecutableElement setter = findMethod(clss, named.getSetter(), 1);
+        if (getter == null || setter == null) {
+            return error("missing " + named.getGetter() + "() or " + named.getSetter() + "(...) for " + name, field);
+        }
+        final TypeMirror declared = setter.getParameters().get(0).asType();
+        if (!types.isAssignable(getter.getReturnType(), declared)) {
+            return error(named.getGetter() + "() does not return the type of " + named.getSetter() + "(...)", getter);
+        }
+        final List<String> arguments = new ArrayList<>();
+        if (declared.getKind() == TypeKind.DECLARED) {
+            for (TypeMirror argument : ((DeclaredType) declared).getTypeArguments()) {
+                if (argument.getKind() != TypeKind.DECLARED) {
+                    return error("unsupported type argument " + argument + " for " + name, field);
+                }
+                arguments.add(types.erasure(argument).toString());
+            }
+        }
+        final String raw = types.erasure(declared).toString();
+        final Encoded encoded = field.getAnnotation(Encoded.class);
+        IType<?> type = null;
+        if (encoded != null) {
+            if (!types.isAssignable(types.erasure(declared), erasure(Parameter.class))) {
+                return error("@Encoded requires a parameter", field);
+            }
+            type = findType(encoded.type());
+            if (type == null) {
+                return error("unknown type: " + encoded.type(), field);
+            }
+            final Class<?> expected = PRIMITIVE_PARAMETERS.get(raw);
+            if (expected != null && !expected.isInstance(type)) {
+                return error("type " + encoded.type() + " cannot be held by " + raw, field);
+            }
+        }
+        return new TemplateModel.Property(name, declared.toString(), raw, arguments,
+                encoded == null ? null : encoded.type(), type, offset);
+    }
+
+    /**
+     * Generates the binder and the codec of a class.
+     *
+     * @param model the description of the class (not null)
+     * @param element the annotated element (not null)
+     */
+    private void generate(final TemplateModel model, final Element element) {
+        final SourceGenerator generator = new SourceGenerator(model);
+        write(model, model.getGeneratedName(IBinder.SUFFIX), generator, true, element);
+        if (model.isWithCodec()) {
+            write(model, model.getGeneratedName(SourceGenerator.CODEC), generator, false, element);
+        }
+    }
+
+    /**
+     * Write a generated source.
+     *
+     * @param model the description of the class (not null)
+     * @param name the simple name of the generated class (not null)
+     * @param generator the generator of the sources (not null)
+     * @param binder true to write the binder, false to write the codec
+     * @param element the annotated element (not null)
+     */
+    private void write(final TemplateModel model, final String name, final SourceGenerator generator,
+            final boolean binder, final Element element) {
+        final String qualifiedName = model.getPackageName().isEmpty() ? name : model.getPackageName() + "." + name;
+        try (Writer writer = this.processingEnv.getFiler().createSourceFile(qualifiedName, element).openWriter()) {
+            writer.write(binder ? generator.binder(name) : generator.codec(name));
+        } catch (IOException e) {
+            error("unable to write " + qualifiedName + ": " + e.getMessage(), element);
+        }
+    }
+
+    /**
+     * Check that a class has a public constructor without parameters.
+     *
+     * @param clss the class (not null)
+     * @return true if found
+     */
+    private static boolean hasPublicConstructor(final TypeElement clss) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(clss.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Research an accessor of a class or of its super classes that is not private nor static.
+     *
+     * @param clss the class (not null)
+     * @param name the name of the accessor (not null)
+     * @param parameters the number of parameters
+     * @return the accessor or null if not found
+     */
+    private ExecutableElement findMethod(final TypeElement clss, final String name, final int parameters) {
+        for (ExecutableElement method : ElementFilter.methodsIn(this.processingEnv.getElementUtils().getAllMembers(clss))) {
+            if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == parameters
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the erasure of a class.
+     *
+     * @param clss the class (not null)
+     * @return the erasure
+     */
+    private TypeMirror erasure(final Class<?> clss) {
+        return this.processingEnv.getTypeUtils().erasure(
+                this.processingEnv.getElementUtils().getTypeElement(clss.getCanonicalName()).asType());
+    }
+
+    /**
+     * Research a type by its name with the type providers of the path of this processor.
+     *
+     * @param name the name of the type (not null)
+     * @return the type or null if not found
+     */
+    private static IType<?> findType(final String name) {
+        for (ITypeProvider provider : ServiceLoader.load(ITypeProvider.class, TemplateProcessor.class.getClassLoader())) {
+            final IType<?> type = provider.getInstance(name);
+            if (type != null) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Report an error.
+     *
+     * @param <T> the expected class of result
+     * @param message the message (not null)
+     * @param element the element in error (not null)
+     * @return null
+     */
+    private <T> T error(final String message, final Element element) {
+        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return null;
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/**
+ * <p>
+ * This package provides the annotation processor generating the binders and the codecs of the
+ * classes annotated with {@link com.code.fauch.polyjuice.mapping.Template}.
+ * </p>
+ * <p>
+ * Add the processor to the path of the compiler:
+ * <pre>
+ *    &lt;dependency&gt;
+ *      &lt;groupId&gt;com.fauch.code&lt;/groupId&gt;
+ *      &lt;artifactId&gt;polyjuice-processor&lt;/artifactId&gt;
+ *      &lt;version&gt;1.0.0&lt;/version&gt;
+ *      &lt;scope&gt;provided&lt;/scope&gt;
+ *    &lt;/dependency&gt;
+ * </pre>
+ * Then annotate the content classes:
+ * <pre>
+ * &#64;Template
+ * public class SimpleContent extends AbsContent {
+ *
+ *  &#64;Encoded(type = "INT")
+ *  private IntParameter msgSize;
+ *
+ *  &#64;Encoded(type = "STRING")
+ *  private Parameter&lt;String&gt; msg;
+ *
+ *  // getters and setters
+ * }
+ * </pre>
+ * The factories build <code>SimpleContent</code> with the generated <code>SimpleContentBinder</code> instead
+ * of introspection. The generated <code>SimpleContentCodec</code> encodes and decodes its contents one after the
+ * other without iterating over a list, and reads <code>msgSize</code> directly from an encoded content:
+ * <pre>
+ *      SimpleContentCodec.writeTo(content, buffer);
+ *      final int size = SimpleContentCodec.getMsgSize(frame, 0);
+ * </pre>
+ * </p>
+ */
+package com.code.fauch.polyjuice.processor;
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2020 Claire Fauch
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at 
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.code.fauch.polyjuice.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.code.fauch.polyjuice.AbsContent;
+import com.code.fauch.polyjuice.IntParameter;
+import com.code.fauch.polyjuice.Parameter;
+import com.code.fauch.polyjuice.mapping.IBinder;
+import com.code.fauch.polyjuice.mapping.ObjectFactory;
+import com.code.fauch.polyjuice.mapping.ParameterFactory;
+
+/**
+ * @author c.fauch
+ *
+ */
+public class TemplateProcessorTest {
+
+    private static final String HEADER = String.join("\n",
+            "package test;",
+            "import com.code.fauch.polyjuice.*;",
+            "import com.code.fauch.polyjuice.mapping.*;");
+
+    private static final String SIMPLE = String.join("\n", HEADER,
+            "@Template",
+            "public class Simple extends AbsContent {",
+            "    @Encoded(type = \"SHORT\") private Parameter<Short> nb;",
+            "    @Encoded(type = \"INT\") private IntParameter msgSize;",
+            "    @Encoded(type = \"STRING\") private Parameter<String> msg;",
+            "    public Parameter<Short> getNb() { return nb; }",
+            "    public void setNb(Parameter<Short> nb) { this.nb = nb; }",
+            "    public IntParameter getMsgSize() { return msgSize; }",
+            "    public void setMsgSize(IntParameter msgSize) { this.msgSize = msgSize; }",
+            "    public Parameter<String> getMsg() { return msg; }",
+            "    public void setMsg(Parameter<String> msg) { this.msg = msg; }",
+            "}");
+
+    private static final String COMPOSITE = String.join("\n", HEADER,
+            "public class Composite {",
+            "    @Template",
+            "    public static class Item extends AbsContent {",
+            "        private DynamicArray<Simple> items;",
+            "        @Encoded(type = \"LONG\") private Parameter<Long> id;",
+            "        public DynamicArray<Simple> getItems() { return items; }",
+            "        public void setItems(DynamicArray<Simple> items) { this.items = items; }",
+            "        public Parameter<Long> getId() { return id; }",
+            "        public void setId(Parameter<Long> id) { this.id = id; }",
+            "    }",
+            "}");
+
+    private Path output;
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    @Before
+    public void setUp() throws IOException {
+        this.output = Files.createTempDirectory("processor");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(this.output)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private boolean compile(final String... sources) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final List<JavaFileObject> units = new ArrayList<>();
+        for (String source : sources) {
+            final String name = source.substring(source.indexOf("class ") + 6, source.indexOf(' ', source.indexOf("class ") + 6));
+            units.add(new SimpleJavaFileObject(new File("test/" + name + ".java").toURI(), JavaFileObject.Kind.SOURCE) {
+
+                @Override
+                public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                    return source;
+                }
+
+            });
+        }
+        try (StandardJavaFileManager manager = compiler.getStandardFileManager(this.diagnostics, null, null)) {
+            manager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(this.output.toFile()));
+            manager.setLocation(StandardLocation.SOURCE_OUTPUT, List.of(this.output.toFile()));
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, manager, this.diagnostics,
+                    List.of("-classpath", System.getProperty("java.class.path")), null, units);
+            task.setProcessors(List.of(new TemplateProcessor()));
+            return task.call();
+        }
+    }
+
+    private String errors() {
+        return this.diagnostics.getDiagnostics().stream().filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getMessage(null)).collect(Collectors.joining("\n"));
+    }
+
+    private ClassLoader loader() throws IOException {
+        return new URLClassLoader(new URL[] {this.output.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private static ParameterFactory parameter(final String name, final String type, final Object value) {
+        final ParameterFactory factory = new ParameterFactory();
+        factory.setName(name);
+        factory.setType(type);
+        factory.setValue(value);
+        return factory;
+    }
+
+    @Test
+    public void testBinder() throws Exception {
+        final boolean compiled = compile(SIMPLE);
+        Assert.assertTrue(errors(), compiled);
+        final ClassLoader loader = loader();
+        final Class<? extends AbsContent> simple = loader.loadClass("test.Simple").asSubclass(AbsContent.class);
+        final IBinder<?> binder = (IBinder<?>) loader.loadClass("test.SimpleBinder").getConstructor().newInstance();
+        Assert.assertEquals(1, binder.indexOf("msgSize"));
+        Assert.assertEquals(-1, binder.indexOf("unknown"));
+        Assert.assertEquals(IntParameter.class, binder.getPropertyType(1));
+        Assert.assertArrayEquals(new Object[] {String.class}, binder.getGenericTypes(2));
+        Assert.assertEquals(simple, binder.newInstance().getClass());
+        final ObjectFactory factory = new ObjectFactory();
+        factory.setContents(Arrays.asList(parameter("nb", "SHORT", (short) 1), parameter("msgSize", "INT", 2),
+                parameter("msg", "STRING", "ab")));
+        final AbsContent content = factory.build(simple);
+        Assert.assertArrayEquals(new byte[] {0, 1, 0, 0, 0, 2, 'a', 'b'}, content.getBytes());
+    }
+
+    @Test
+    public void testCodec() throws Exception {
+        final boolean compiled = compile(SIMPLE);
+        Assert.assertTrue(errors(), compiled);
+        final ClassLoader loader = loader();
+        final Class<? extends AbsContent> simple = loader.loadClass("test.Simple").asSubclass(AbsContent.class);
+        final Class<?> codec = loader.loadClass("test.SimpleCodec");
+        Assert.assertEquals(-1, codec.getField("SIZE").getInt(null));
+        Assert.assertEquals(2, codec.getField("MSG_SIZE_OFFSET").getInt(null));
+        Assert.assertEquals(4, codec.getField("MSG_SIZE_WIDTH").getInt(null));
+        Assert.assertEquals(6, codec.getField("MSG_OFFSET").getInt(null));
+        final ObjectFactory factory = new ObjectFactory();
+        factory.setContents(Arrays.asList(parameter("nb", "SHORT", (short) 1), parameter("msgSize", "INT", 2),
+                parameter("msg", "STRING", "ab")));
+        final AbsContent content = factory.build(simple);
+        final Method encodedSize = codec.getMethod("encodedSize", simple);
+        final Method writeTo = codec.getMethod("writeTo", simple, ByteBuffer.class);
+        final Method readFrom = codec.getMethod("readFrom", simple, ByteBuffer.class);
+        Assert.assertEquals(8, encodedSize.invoke(null, content));
+        final ByteBuffer buffer = ByteBuffer.allocate(10);
+        buffer.put((byte) 9);
+        writeTo.invoke(null, content, buffer);
+        Assert.assertEquals(9, buffer.position());
+        Assert.assertArrayEquals(content.getBytes(), Arrays.copyOfRange(buffer.array(), 1, 9));
+        Assert.assertEquals(2, codec.getMethod("getMsgSize", ByteBuffer.class, int.class).invoke(null, buffer, 1));
+        Assert.assertEquals((short) 1, codec.getMethod("getNb", ByteBuffer.class, int.class).invoke(null, buffer, 1));
+        final AbsContent decoded = factory.build(simple);
+        buffer.position(1).limit(9);
+        readFrom.invoke(null, decoded, buffer);
+        Assert.assertEquals("ab", ((Parameter<?>) simple.getMethod("getMsg").invoke(decoded)).getValue());
+        Assert.assertEquals(2, ((IntParameter) simple.getMethod("getMsgSize").invoke(decoded)).getInt());
+    }
+
+    @Test
+    public void testNestedClass() throws Exception {
+        final boolean compiled = compile(SIMPLE, COMPOSITE);
+        Assert.assertTrue(errors(), compiled);
+        final ClassLoader loader = loader();
+        final IBinder<?> binder = (IBinder<?>) loader.loadClass("test.Composite_ItemBinder").getConstructor()
+                .newInstance();
+        Assert.assertArrayEquals(new Object[] {loader.loadClass("test.Simple")}, binder.getGenericTypes(0));
+        final Class<?> codec = loader.loadClass("test.Composite_ItemCodec");
+        Assert.assertEquals(0, codec.getField("ITEMS_OFFSET").getInt(null));
+        Assert.assertEquals(8, codec.getField("ID_WIDTH").getInt(null));
+        Assert.assertEquals(-1, codec.getField("SIZE").getInt(null));
+        for (Method method : codec.getMethods()) {
+            Assert.assertNotEquals("getId", method.getName());
+        }
+    }
+
+    @Test
+    public void testUnknownType() throws Exception {
+        Assert.assertFalse(compile(SIMPLE.replace("\"INT\"", "\"UNKNOWN\"")));
+        Assert.assertEquals("unknown type: UNKNOWN", errors());
+    }
+
+    @Test
+    public void testWrongPrimitiveType() throws Exception {
+        Assert.assertFalse(compile(SIMPLE.replace("\"INT\"", "\"LONG\"")));
+        Assert.assertEquals("type LONG cannot be held by com.code.fauch.polyjuice.IntParameter", errors());
+    }
+
+    @Test
+    public void testMissingSetter() throws Exception {
+        Assert.assertFalse(compile(SIMPLE.replace("public void setMsg(", "void setMessage(")));
+        Assert.assertEquals("missing getMsg() or setMsg(...) for msg", errors());
+    }
+
+    @Test
+    public void testNoConstructor() throws Exception {
+        Assert.assertFalse(compile(SIMPLE.replace("public class Simple extends AbsContent {",
+                "public class Simple extends AbsContent {\n    public Simple(int i) {}")));
+        Assert.assertEquals("@Template requires a public constructor without parameters", errors());
+    }
+
+}
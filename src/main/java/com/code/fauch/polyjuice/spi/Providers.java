@@ -1,57 +0,0 @@
-/*
- * Copyright 2020 Claire Fauch
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at 
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- * 
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.code.fauch.polyjuice.spi;
-
-import java.util.ServiceLoader;
-
-import com.code.fauch.polyjuice.IType;
-
-/**
- * Utility class to make easier the research of types and content-types providers using SPI.
- * 
- * @author c.fauch
- *
- */
-public final class Providers {
-
-    /**
-     * The service loader to use to research providers of types.
-     */
-    private static final ServiceLoader<ITypeProvider> TYPES = ServiceLoader.load(ITypeProvider.class);
-
-    /**
-     * No constructor
-     */
-    private Providers() {
-        // Nothing to do
-    }
-    
-    /**
-     * Research a type corresponding to a given name.
-     * 
-     * @param name the name of the type to research
-     * @return the corresponding type or null if not found
-     */
-    public static <U> IType<U> getTypeInstance(final String name) {
-        for (ITypeProvider provider : TYPES) {
-            final IType<U> type = provider.getInstance(name);
-            if (type != null) {
-                return type;
-            }
-        }
-        return null;
-    }
-    
-}